@@ -0,0 +1,87 @@
+package id.rnggagib.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a weighted pick from an alias table with the linear scan it replaced.
+ * Run with: mvn -P benchmark test-compile exec:exec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasSamplerBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private List<Entry> entries;
+    private AliasSampler<Entry> sampler;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        SplittableRandom weights = new SplittableRandom(42L);
+        entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(weights.nextDouble(0.1, 10.0)));
+        }
+        sampler = new AliasSampler<>(entries, Entry::getChance);
+        random = new SplittableRandom(7L);
+    }
+
+    @Benchmark
+    public Entry aliasTable() {
+        return sampler.sample(random);
+    }
+
+    @Benchmark
+    public Entry linearScan() {
+        // The former RewardManager.selectRandomReward
+        double totalWeight = 0;
+        for (Entry entry : entries) {
+            totalWeight += entry.getChance();
+        }
+
+        double roll = random.nextDouble() * totalWeight;
+        double currentWeight = 0;
+        for (Entry entry : entries) {
+            currentWeight += entry.getChance();
+            if (roll < currentWeight) {
+                return entry;
+            }
+        }
+        return entries.get(0);
+    }
+
+    /**
+     * Stand-in for a weighted reward
+     */
+    public static class Entry {
+        private final double chance;
+
+        public Entry(double chance) {
+            this.chance = chance;
+        }
+
+        public double getChance() {
+            return chance;
+        }
+    }
+}
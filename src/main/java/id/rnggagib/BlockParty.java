@@ -3,22 +3,42 @@ package id.rnggagib;
 import id.rnggagib.commands.CommandManager;
 import id.rnggagib.config.ConfigManager;
 import id.rnggagib.listeners.BlockBreakListener;
+import id.rnggagib.listeners.ChunkListener;
 import id.rnggagib.listeners.PlayerInteractListener;
 import id.rnggagib.listeners.PlayerJoinListener;
+import id.rnggagib.listeners.PlayerMoveListener;
 import id.rnggagib.listeners.PlayerQuitListener;
 import id.rnggagib.listeners.RegionWandListener;
 import id.rnggagib.listeners.ItemProtectionListener;
+import id.rnggagib.listeners.MMOItemsReloadListener;
+import id.rnggagib.listeners.StashMenuListener;
 import id.rnggagib.managers.AccessManager;
+import id.rnggagib.managers.AuditLogManager;
 import id.rnggagib.managers.BlockRegenerationManager;
 import id.rnggagib.managers.ComboManager;
+import id.rnggagib.managers.CrateKeyDeliveryManager;
+import id.rnggagib.managers.InventoryDeliveryManager;
+import id.rnggagib.managers.LeaderboardManager;
+import id.rnggagib.managers.MMOItemPoolManager;
 import id.rnggagib.managers.MessageManager;
+import id.rnggagib.managers.MoneyDeliveryManager;
+import id.rnggagib.managers.MultiplierEventManager;
+import id.rnggagib.managers.BroadcastManager;
 import id.rnggagib.managers.MiningSessionManager;
+import id.rnggagib.managers.MultiBreakManager;
 import id.rnggagib.managers.PlayerDataManager;
+import id.rnggagib.managers.RandomManager;
 import id.rnggagib.managers.RegionManager;
+import id.rnggagib.managers.RewardBufferManager;
 import id.rnggagib.managers.RewardManager;
+import id.rnggagib.managers.StashManager;
 import id.rnggagib.placeholder.PlaceholderManager;
+import id.rnggagib.scheduler.BukkitTaskScheduler;
+import id.rnggagib.scheduler.FoliaTaskScheduler;
+import id.rnggagib.scheduler.TaskScheduler;
 import id.rnggagib.utils.SelectionWand;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -31,16 +51,31 @@ public class BlockParty extends JavaPlugin {
     private static BlockParty instance;
     private static final Logger LOGGER = Logger.getLogger("BlockParty");
     
+    // Scheduler for the main thread or Folia's region threads
+    private TaskScheduler scheduler;
+    
     // Managers
     private ConfigManager configManager;
     private MessageManager messageManager;
     private AccessManager accessManager;
     private MiningSessionManager sessionManager;
+    private RandomManager randomManager;
     private RewardManager rewardManager;
+    private MMOItemPoolManager mmoItemPoolManager;
+    private CrateKeyDeliveryManager crateKeyDeliveryManager;
+    private MoneyDeliveryManager moneyDeliveryManager;
+    private BroadcastManager broadcastManager;
+    private MultiplierEventManager multiplierEventManager;
+    private RewardBufferManager rewardBufferManager;
+    private InventoryDeliveryManager inventoryDeliveryManager;
+    private StashManager stashManager;
+    private AuditLogManager auditLogManager;
     private PlayerDataManager playerDataManager;
     private RegionManager regionManager;
     private BlockRegenerationManager blockRegenerationManager;
+    private MultiBreakManager multiBreakManager;
     private ComboManager comboManager;
+    private LeaderboardManager leaderboardManager;
     private SelectionWand selectionWand;
     private PlaceholderManager placeholderManager;
     
@@ -52,6 +87,9 @@ public class BlockParty extends JavaPlugin {
         // Set instance
         instance = this;
         
+        // Pick the scheduler for this server
+        scheduler = createScheduler();
+        
         // Initialize configuration
         configManager = new ConfigManager(this);
         configManager.loadConfigs();
@@ -63,8 +101,20 @@ public class BlockParty extends JavaPlugin {
         selectionWand = new SelectionWand(this);
         accessManager = new AccessManager(this);
         sessionManager = new MiningSessionManager(this);
+        randomManager = new RandomManager(this);
+        multiplierEventManager = new MultiplierEventManager(this);
         rewardManager = new RewardManager(this);
+        rewardBufferManager = new RewardBufferManager(this);
+        mmoItemPoolManager = new MMOItemPoolManager(this);
+        crateKeyDeliveryManager = new CrateKeyDeliveryManager(this);
+        moneyDeliveryManager = new MoneyDeliveryManager(this);
+        broadcastManager = new BroadcastManager(this);
+        inventoryDeliveryManager = new InventoryDeliveryManager(this);
+        stashManager = new StashManager(this);
+        auditLogManager = new AuditLogManager(this);
         blockRegenerationManager = new BlockRegenerationManager(this);
+        multiBreakManager = new MultiBreakManager(this);
+        leaderboardManager = new LeaderboardManager(this);
         comboManager = new ComboManager(this);
         
         // Register events
@@ -99,15 +149,62 @@ public class BlockParty extends JavaPlugin {
         // Cancel any active sessions
         sessionManager.cancelAllSessions();
         
+        // Cancel queued vein and area breaks
+        multiBreakManager.cancelAllTasks();
+        
         // Cancel block regeneration tasks
         blockRegenerationManager.cancelAllTasks();
         
         // Cancel combo manager tasks
         comboManager.cancelAllTasks();
         
+        // Save the combo leaderboards
+        leaderboardManager.cancelAllTasks();
+        
+        // Stop the event timeline
+        multiplierEventManager.cancelAllTasks();
+        
+        // Stop rolling reward outcomes ahead of time
+        rewardBufferManager.cancelAllTasks();
+        
+        // Stop refilling MMOItems reward pools
+        mmoItemPoolManager.cancelAllTasks();
+        
+        // Hand out crate keys that are still waiting
+        crateKeyDeliveryManager.cancelAllTasks();
+        
+        // Deposit pending money rewards
+        moneyDeliveryManager.cancelAllTasks();
+        
+        // Send rare drop announcements that are still being merged
+        broadcastManager.cancelAllTasks();
+        
+        // Move reward items that are still buffered to the stashes and save them
+        inventoryDeliveryManager.cancelAllTasks();
+        stashManager.cancelAllTasks();
+        
+        // Write the remaining audit records
+        auditLogManager.cancelAllTasks();
+        
         LOGGER.info("BlockParty has been disabled!");
     }
     
+    /**
+     * Create the task scheduler matching the server implementation
+     * @return Folia scheduler on Folia servers, Bukkit scheduler otherwise
+     */
+    private TaskScheduler createScheduler() {
+        if (FoliaTaskScheduler.isFolia()) {
+            try {
+                LOGGER.info("Folia detected, using region schedulers");
+                return new FoliaTaskScheduler(this);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.SEVERE, "Could not access the Folia schedulers, falling back to the Bukkit scheduler", e);
+            }
+        }
+        return new BukkitTaskScheduler(this);
+    }
+    
     /**
      * Register all event listeners
      */
@@ -118,6 +215,10 @@ public class BlockParty extends JavaPlugin {
         pm.registerEvents(new PlayerJoinListener(this), this);
         pm.registerEvents(new PlayerQuitListener(this), this);
         pm.registerEvents(new RegionWandListener(this), this);
+        pm.registerEvents(new ChunkListener(this), this);
+        pm.registerEvents(new PlayerMoveListener(this), this);
+        pm.registerEvents(new MMOItemsReloadListener(this), this);
+        pm.registerEvents(new StashMenuListener(this), this);
         
         // Register the new item protection listener
         pm.registerEvents(new ItemProtectionListener(this), this);
@@ -131,6 +232,14 @@ public class BlockParty extends JavaPlugin {
         return instance;
     }
     
+    /**
+     * Get the task scheduler
+     * @return The scheduler for the main thread or Folia's region threads
+     */
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+    
     // Manager getters
     public ConfigManager getConfigManager() {
         return configManager;
@@ -148,10 +257,50 @@ public class BlockParty extends JavaPlugin {
         return sessionManager;
     }
     
+    public RandomManager getRandomManager() {
+        return randomManager;
+    }
+    
     public RewardManager getRewardManager() {
         return rewardManager;
     }
     
+    public MMOItemPoolManager getMMOItemPoolManager() {
+        return mmoItemPoolManager;
+    }
+    
+    public CrateKeyDeliveryManager getCrateKeyDeliveryManager() {
+        return crateKeyDeliveryManager;
+    }
+    
+    public MoneyDeliveryManager getMoneyDeliveryManager() {
+        return moneyDeliveryManager;
+    }
+    
+    public BroadcastManager getBroadcastManager() {
+        return broadcastManager;
+    }
+    
+    public MultiplierEventManager getMultiplierEventManager() {
+        return multiplierEventManager;
+    }
+    
+    public RewardBufferManager getRewardBufferManager() {
+        return rewardBufferManager;
+    }
+    
+    public InventoryDeliveryManager getInventoryDeliveryManager() {
+        return inventoryDeliveryManager;
+    }
+    
+    public StashManager getStashManager() {
+        return stashManager;
+    }
+    
+    public AuditLogManager getAuditLogManager() {
+        return auditLogManager;
+    }
+    
     public PlayerDataManager getPlayerDataManager() {
         return playerDataManager;
     }
@@ -172,6 +321,14 @@ public class BlockParty extends JavaPlugin {
         return comboManager;
     }
     
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+    
+    public MultiBreakManager getMultiBreakManager() {
+        return multiBreakManager;
+    }
+    
     /**
      * Reload the plugin configuration
      */
@@ -186,9 +343,20 @@ public class BlockParty extends JavaPlugin {
         regionManager.loadRegions();
         
         // Reinitialize managers that need reloading
+        randomManager.reload();
         rewardManager.reload();
+        rewardBufferManager.reload();
+        mmoItemPoolManager.reload();
+        crateKeyDeliveryManager.reload();
+        moneyDeliveryManager.reload();
+        broadcastManager.reload();
+        multiplierEventManager.reload();
+        stashManager.reload();
+        auditLogManager.reload();
         accessManager.reload();
         blockRegenerationManager.reload();
+        multiBreakManager.reload();
         comboManager.reload();
+        leaderboardManager.reload();
     }
 }
@@ -0,0 +1,134 @@
+package id.rnggagib.audit;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads and filters audit log segments, both open and gzipped ones
+ */
+public class AuditLogReader {
+    private final File directory;
+    
+    /**
+     * Constructor
+     * @param directory The audit log directory
+     */
+    public AuditLogReader(File directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Find records matching a filter
+     * @param playerId Player to match, or null for all players
+     * @param playerName Player name to match case-insensitively when no UUID is known, or null
+     * @param from Start of the time range in epoch millis, inclusive
+     * @param to End of the time range in epoch millis, exclusive
+     * @param type Reward type to match, or null for all types
+     * @return Matching records in log order
+     * @throws IOException If a segment can't be read
+     */
+    public List<AuditRecord> query(UUID playerId, String playerName, long from, long to, AuditRecord.RewardType type) throws IOException {
+        Predicate<AuditRecord> filter = record -> record.getTimestamp() >= from && record.getTimestamp() < to
+                && (type == null || record.getType() == type)
+                && (playerId == null || record.getPlayerId().equals(playerId))
+                && (playerName == null || record.getPlayerName().equalsIgnoreCase(playerName));
+        
+        List<AuditRecord> matches = new ArrayList<>();
+        LocalDate firstDay = Instant.ofEpochMilli(from).atZone(ZoneId.systemDefault()).toLocalDate();
+        // Late records of a day may have been written to the next day's segment
+        LocalDate lastDay = Instant.ofEpochMilli(Math.max(from, to - 1)).atZone(ZoneId.systemDefault()).toLocalDate().plusDays(1);
+        
+        // Segments are daily, so only the days in range have to be opened
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            File segment = new File(directory, AuditLogWriter.segmentName(day));
+            File compressed = new File(directory, AuditLogWriter.segmentName(day) + ".gz");
+            // After a restart a day can have both, the compressed part holds the older records
+            if (compressed.exists()) {
+                readSegment(new GZIPInputStream(new FileInputStream(compressed)), filter, matches);
+            }
+            if (segment.exists()) {
+                readSegment(new FileInputStream(segment), filter, matches);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Read all records of a segment
+     * @param input The segment input
+     * @param filter Records to keep
+     * @param matches Output list
+     * @throws IOException If the segment is corrupt
+     */
+    private void readSegment(InputStream input, Predicate<AuditRecord> filter, List<AuditRecord> matches) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(input))) {
+            if (in.readInt() != AuditLogWriter.MAGIC) {
+                throw new IOException("Not an audit log segment");
+            }
+            
+            while (true) {
+                AuditRecord record;
+                try {
+                    record = AuditRecord.read(in);
+                } catch (EOFException e) {
+                    // End of segment, or a record cut off by a crash
+                    return;
+                }
+                if (filter.test(record)) {
+                    matches.add(record);
+                }
+            }
+        } catch (EOFException e) {
+            // Empty segment
+        }
+    }
+    
+    /**
+     * Format a record as a single line
+     * @param record The record
+     * @return The formatted record
+     */
+    public static String format(AuditRecord record) {
+        return String.format(Locale.ROOT, "%s %s %s %s x%d",
+                Instant.ofEpochMilli(record.getTimestamp()), record.getPlayerName(),
+                record.getType().name().toLowerCase(Locale.ROOT), record.getRewardId(), record.getAmount());
+    }
+    
+    /**
+     * Query the audit log without a server
+     * Usage: AuditLogReader <directory> <player|*> [hours] [type]
+     * @param args Command line arguments
+     * @throws IOException If a segment can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AuditLogReader <directory> <player|*> [hours] [mmoitem|crate_key|vanilla_item|money]");
+            System.exit(1);
+        }
+        
+        String playerName = args[1].equals("*") ? null : args[1];
+        long hours = args.length >= 3 ? Long.parseLong(args[2]) : 24L;
+        AuditRecord.RewardType type = args.length >= 4 ? AuditRecord.RewardType.valueOf(args[3].toUpperCase(Locale.ROOT)) : null;
+        
+        long now = System.currentTimeMillis();
+        List<AuditRecord> records = new AuditLogReader(new File(args[0])).query(null, playerName, now - hours * 3_600_000L, now + 1, type);
+        for (AuditRecord record : records) {
+            System.out.println(format(record));
+        }
+        System.out.println(records.size() + " records");
+    }
+}
@@ -0,0 +1,136 @@
+package id.rnggagib.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends audit records to daily binary segments and gzips segments of past days.
+ * Records arriving late for a day that was already closed go into the open segment,
+ * so a closed day is never reopened. Not thread-safe, only the audit writer task may use it.
+ */
+public class AuditLogWriter {
+    static final int MAGIC = 0x42504131; // "BPA1"
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    private final File directory;
+    private LocalDate currentDay;
+    private DataOutputStream out;
+    
+    /**
+     * Constructor
+     * @param directory The audit log directory
+     */
+    public AuditLogWriter(File directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Get the file name of a day's segment
+     * @param day The day
+     * @return The segment file name
+     */
+    static String segmentName(LocalDate day) {
+        return "rewards-" + DAY_FORMAT.format(day) + ".bin";
+    }
+    
+    /**
+     * Append a batch of records, rotating to a new segment when a later day starts
+     * @param records The records
+     * @throws IOException If writing fails
+     */
+    public void write(List<AuditRecord> records) throws IOException {
+        for (AuditRecord record : records) {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(record.getTimestamp()), ZoneId.systemDefault());
+            // Threads and clock steps can deliver records out of order, only ever move forward
+            if (currentDay == null || day.isAfter(currentDay)) {
+                rotate(day);
+            }
+            record.write(out);
+        }
+        
+        if (out != null) {
+            out.flush();
+        }
+    }
+    
+    /**
+     * Switch to the segment of another day and compress closed segments
+     * @param day The new day
+     * @throws IOException If the segment can't be opened
+     */
+    private void rotate(LocalDate day) throws IOException {
+        close();
+        
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        
+        File segment = new File(directory, segmentName(day));
+        boolean fresh = !segment.exists() || segment.length() == 0;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segment, true)));
+        if (fresh) {
+            out.writeInt(MAGIC);
+        }
+        currentDay = day;
+        
+        compressClosedSegments(segment.getName());
+    }
+    
+    /**
+     * Gzip every uncompressed segment except the open one. A segment whose day already
+     * has a compressed file, e.g. after a restart, is appended to it as another gzip member.
+     * @param openSegment File name of the open segment
+     * @throws IOException If compressing fails
+     */
+    private void compressClosedSegments(String openSegment) throws IOException {
+        File[] segments = directory.listFiles((dir, name) -> name.startsWith("rewards-") && name.endsWith(".bin"));
+        if (segments == null) {
+            return;
+        }
+        
+        for (File segment : segments) {
+            if (segment.getName().equals(openSegment)) {
+                continue;
+            }
+            
+            File compressed = new File(directory, segment.getName() + ".gz");
+            boolean append = compressed.exists() && compressed.length() > 0;
+            try (InputStream in = new FileInputStream(segment);
+                 OutputStream gzip = new GZIPOutputStream(new FileOutputStream(compressed, append))) {
+                // The compressed file already starts with the segment header
+                if (append && in.skip(4) != 4) {
+                    continue;
+                }
+                in.transferTo(gzip);
+            }
+            
+            if (!segment.delete()) {
+                throw new IOException("Could not delete compressed segment " + segment);
+            }
+        }
+    }
+    
+    /**
+     * Close the open segment
+     * @throws IOException If closing fails
+     */
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            currentDay = null;
+        }
+    }
+}
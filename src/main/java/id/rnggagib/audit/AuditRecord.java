@@ -0,0 +1,93 @@
+package id.rnggagib.audit;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * A single given reward in the audit log
+ */
+public class AuditRecord {
+    private final long timestamp;
+    private final UUID playerId;
+    private final String playerName;
+    private final RewardType type;
+    private final String rewardId;
+    private final int amount;
+    
+    public AuditRecord(long timestamp, UUID playerId, String playerName, RewardType type, String rewardId, int amount) {
+        this.timestamp = timestamp;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.type = type;
+        this.rewardId = rewardId;
+        this.amount = amount;
+    }
+    
+    /**
+     * Write this record in the binary segment format
+     * @param out The output
+     * @throws IOException If writing fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(timestamp);
+        out.writeLong(playerId.getMostSignificantBits());
+        out.writeLong(playerId.getLeastSignificantBits());
+        out.writeUTF(playerName);
+        out.writeByte(type.ordinal());
+        out.writeUTF(rewardId);
+        out.writeInt(amount);
+    }
+    
+    /**
+     * Read a record in the binary segment format
+     * @param in The input
+     * @return The record
+     * @throws IOException If reading fails
+     */
+    public static AuditRecord read(DataInput in) throws IOException {
+        long timestamp = in.readLong();
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        String playerName = in.readUTF();
+        RewardType type = RewardType.values()[in.readByte()];
+        String rewardId = in.readUTF();
+        int amount = in.readInt();
+        return new AuditRecord(timestamp, playerId, playerName, type, rewardId, amount);
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public UUID getPlayerId() {
+        return playerId;
+    }
+    
+    public String getPlayerName() {
+        return playerName;
+    }
+    
+    public RewardType getType() {
+        return type;
+    }
+    
+    public String getRewardId() {
+        return rewardId;
+    }
+    
+    public int getAmount() {
+        return amount;
+    }
+    
+    /**
+     * Reward types, stored by ordinal so new types may only be appended
+     */
+    public enum RewardType {
+        MMOITEM,
+        CRATE_KEY,
+        VANILLA_ITEM,
+        // Amount in cents
+        MONEY
+    }
+}
@@ -1,12 +1,17 @@
 package id.rnggagib.commands;
 
 import id.rnggagib.BlockParty;
+import id.rnggagib.commands.subcommands.AuditCommand;
 import id.rnggagib.commands.subcommands.GiveCommand;
 import id.rnggagib.commands.subcommands.HelpCommand;
+import id.rnggagib.commands.subcommands.RegenCommand;
+import id.rnggagib.commands.subcommands.SimulateCommand;
 import id.rnggagib.commands.subcommands.ReloadCommand;
 import id.rnggagib.commands.subcommands.StatsCommand;
+import id.rnggagib.commands.subcommands.StashCommand;
 import id.rnggagib.commands.subcommands.RegionCommand;
 import id.rnggagib.commands.subcommands.SubCommand;
+import id.rnggagib.commands.subcommands.TopCommand;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -39,6 +44,11 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         registerSubCommand(new GiveCommand(plugin));
         registerSubCommand(new StatsCommand(plugin));
         registerSubCommand(new RegionCommand(plugin));
+        registerSubCommand(new RegenCommand(plugin));
+        registerSubCommand(new SimulateCommand(plugin));
+        registerSubCommand(new AuditCommand(plugin));
+        registerSubCommand(new StashCommand(plugin));
+        registerSubCommand(new TopCommand(plugin));
     }
     
     /**
@@ -0,0 +1,146 @@
+package id.rnggagib.commands.subcommands;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.audit.AuditLogReader;
+import id.rnggagib.audit.AuditRecord;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Audit command for querying the reward audit log
+ */
+public class AuditCommand implements SubCommand {
+    private static final int MAX_LINES = 15;
+    
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public AuditCommand(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "audit";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "blockparty.admin.audit";
+    }
+    
+    @Override
+    public String[] getAliases() {
+        return new String[0];
+    }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission(getPermission());
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            plugin.getMessageManager().sendMessageWithoutPrefix(sender, "audit.help", null);
+            return;
+        }
+        
+        String playerName = args[1].equals("*") ? null : args[1];
+        long hours;
+        AuditRecord.RewardType type = null;
+        try {
+            hours = args.length >= 3 ? Long.parseLong(args[2]) : 24L;
+            if (args.length >= 4) {
+                type = AuditRecord.RewardType.valueOf(args[3].toUpperCase(Locale.ROOT));
+            }
+        } catch (NumberFormatException e) {
+            plugin.getMessageManager().sendMessage(sender, "command.invalid-number");
+            return;
+        } catch (IllegalArgumentException e) {
+            plugin.getMessageManager().sendMessage(sender, "audit.invalid-type");
+            return;
+        }
+        
+        long to = System.currentTimeMillis() + 1;
+        long from = to - hours * 3_600_000L;
+        AuditRecord.RewardType filterType = type;
+        AuditLogReader reader = plugin.getAuditLogManager().getReader();
+        
+        // Segments may be large and gzipped, read them off the main thread
+        plugin.getScheduler().runAsync(() -> {
+            List<AuditRecord> records;
+            try {
+                records = reader.query(null, playerName, from, to, filterType);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read the audit log", e);
+                records = null;
+            }
+            
+            List<AuditRecord> result = records;
+            Runnable report = () -> sendResult(sender, result);
+            if (sender instanceof Player player) {
+                plugin.getScheduler().executeFor(player, report);
+            } else {
+                plugin.getScheduler().runGlobal(report);
+            }
+        });
+    }
+    
+    /**
+     * Send the query result, newest records last
+     * @param sender The command sender
+     * @param records Matching records, or null if the log couldn't be read
+     */
+    private void sendResult(CommandSender sender, List<AuditRecord> records) {
+        if (records == null) {
+            plugin.getMessageManager().sendMessage(sender, "audit.read-error");
+            return;
+        }
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("count", String.valueOf(records.size()));
+        placeholders.put("shown", String.valueOf(Math.min(records.size(), MAX_LINES)));
+        plugin.getMessageManager().sendMessage(sender, "audit.header", placeholders);
+        
+        for (AuditRecord record : records.subList(Math.max(0, records.size() - MAX_LINES), records.size())) {
+            sender.sendMessage(AuditLogReader.format(record));
+        }
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 2) {
+            String partial = args[1].toLowerCase();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().toLowerCase().startsWith(partial)) {
+                    completions.add(player.getName());
+                }
+            }
+        } else if (args.length == 4) {
+            String partial = args[3].toLowerCase();
+            for (AuditRecord.RewardType type : AuditRecord.RewardType.values()) {
+                String name = type.name().toLowerCase(Locale.ROOT);
+                if (name.startsWith(partial)) {
+                    completions.add(name);
+                }
+            }
+        }
+        
+        return completions;
+    }
+}
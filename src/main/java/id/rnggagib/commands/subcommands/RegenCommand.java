@@ -0,0 +1,176 @@
+package id.rnggagib.commands.subcommands;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.managers.BlockRegenerationManager.FlushResult;
+import id.rnggagib.managers.BlockRegenerationManager.PendingSummary;
+import id.rnggagib.region.Region;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regen command for inspecting and flushing pending block regenerations
+ */
+public class RegenCommand implements SubCommand {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public RegenCommand(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "regen";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "blockparty.admin.regen";
+    }
+    
+    @Override
+    public String[] getAliases() {
+        return new String[] { "regeneration" };
+    }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission(getPermission());
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            showHelp(sender);
+            return;
+        }
+        
+        switch (args[1].toLowerCase()) {
+            case "status":
+                showStatus(sender);
+                break;
+            
+            case "flush":
+                flush(sender, args.length >= 3 ? args[2] : null);
+                break;
+            
+            default:
+                showHelp(sender);
+                break;
+        }
+    }
+    
+    /**
+     * Show pending regeneration counts per world, region and material
+     * @param sender The command sender
+     */
+    private void showStatus(CommandSender sender) {
+        PendingSummary summary = plugin.getBlockRegenerationManager().getPendingSummary();
+        
+        if (summary.getTotal() == 0) {
+            plugin.getMessageManager().sendMessage(sender, "regen.none-pending");
+            return;
+        }
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("total", String.valueOf(summary.getTotal()));
+        placeholders.put("parked", String.valueOf(summary.getParked()));
+        placeholders.put("oldest", formatDue(summary.getOldestDue()));
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, "regen.status-header", placeholders);
+        
+        sendCounts(sender, "regen.status-worlds", summary.getByWorld());
+        sendCounts(sender, "regen.status-regions", summary.getByRegion());
+        sendCounts(sender, "regen.status-materials", summary.getByMaterial());
+    }
+    
+    /**
+     * Send a titled list of counts
+     * @param sender The command sender
+     * @param titlePath The message path of the title
+     * @param counts Counts by name
+     */
+    private void sendCounts(CommandSender sender, String titlePath, Map<String, Integer> counts) {
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, titlePath, null);
+        
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("name", entry.getKey());
+            placeholders.put("count", String.valueOf(entry.getValue()));
+            plugin.getMessageManager().sendCustomMessage(sender, " <gray>-</gray> <gold>{name}</gold><gray>:</gray> <yellow>{count}</yellow>", false, placeholders);
+        }
+    }
+    
+    /**
+     * Format a due time relative to now
+     * @param dueTime Epoch millis
+     * @return e.g. "in 12s" or "12s overdue"
+     */
+    private String formatDue(long dueTime) {
+        long seconds = (dueTime - System.currentTimeMillis()) / 1000L;
+        return seconds >= 0 ? "in " + seconds + "s" : -seconds + "s overdue";
+    }
+    
+    /**
+     * Restore pending blocks immediately through the batched restore queue
+     * @param sender The command sender
+     * @param regionName The region to flush, or null for all regions
+     */
+    private void flush(CommandSender sender, String regionName) {
+        Region region = null;
+        if (regionName != null) {
+            region = plugin.getRegionManager().getRegion(regionName);
+            if (region == null) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("region", regionName);
+                plugin.getMessageManager().sendMessage(sender, "region.not-found", placeholders);
+                return;
+            }
+        }
+        
+        FlushResult result = plugin.getBlockRegenerationManager().flushPending(region);
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("count", String.valueOf(result.getQueued()));
+        placeholders.put("waiting", String.valueOf(result.getWaiting()));
+        placeholders.put("region", region != null ? region.getName() : "all regions");
+        plugin.getMessageManager().sendMessage(sender, "regen.flushed", placeholders);
+    }
+    
+    /**
+     * Show help for the regen command
+     * @param sender The command sender
+     */
+    private void showHelp(CommandSender sender) {
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, "regen.help", null);
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 2) {
+            String partial = args[1].toLowerCase();
+            for (String cmd : List.of("status", "flush")) {
+                if (cmd.startsWith(partial)) {
+                    completions.add(cmd);
+                }
+            }
+        } else if (args.length == 3 && args[1].equalsIgnoreCase("flush")) {
+            String partial = args[2].toLowerCase();
+            for (String region : plugin.getRegionManager().getRegionNames()) {
+                if (region.toLowerCase().startsWith(partial)) {
+                    completions.add(region);
+                }
+            }
+        }
+        
+        return completions;
+    }
+}
@@ -0,0 +1,125 @@
+package id.rnggagib.commands.subcommands;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.RewardSimulator;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Simulate command: runs the reward simulator over the loaded reward tables
+ */
+public class SimulateCommand implements SubCommand {
+    private final BlockParty plugin;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public SimulateCommand(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "simulate";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "blockparty.admin.simulate";
+    }
+    
+    @Override
+    public String[] getAliases() {
+        return new String[] { "sim" };
+    }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission(getPermission());
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        long breaksPerCell;
+        double breaksPerHour;
+        try {
+            breaksPerCell = args.length >= 2 ? Long.parseLong(args[1]) : 1_000_000L;
+            breaksPerHour = args.length >= 3 ? Double.parseDouble(args[2]) : config.getDouble("simulator.breaks-per-hour", 1800);
+        } catch (NumberFormatException e) {
+            plugin.getMessageManager().sendMessage(sender, "command.invalid-number");
+            return;
+        }
+        
+        if (breaksPerCell <= 0 || breaksPerHour <= 0) {
+            plugin.getMessageManager().sendMessage(sender, "command.invalid-number");
+            return;
+        }
+        
+        long maxBreaks = Math.max(1L, config.getLong("simulator.max-breaks", 10_000_000L));
+        if (breaksPerCell > maxBreaks) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("max", String.valueOf(maxBreaks));
+            plugin.getMessageManager().sendMessage(sender, "simulate.too-many-breaks", placeholders);
+            return;
+        }
+        int threads = Math.max(1, Math.min(config.getInt("simulator.threads", 2), Runtime.getRuntime().availableProcessors()));
+        
+        if (!running.compareAndSet(false, true)) {
+            plugin.getMessageManager().sendMessage(sender, "simulate.already-running");
+            return;
+        }
+        
+        RewardSimulator simulator = new RewardSimulator(plugin.getRewardManager().getTable(),
+                plugin.getComboManager()::getComboMultiplier, RewardSimulator.getComboLevels(config), System.nanoTime());
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("breaks", String.valueOf(breaksPerCell));
+        plugin.getMessageManager().sendMessage(sender, "simulate.started", placeholders);
+        
+        // Simulate off the main thread, on a bounded number of threads
+        plugin.getScheduler().runAsync(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<RewardSimulator.Result> results = simulator.run(breaksPerCell, threads);
+                List<String> lines = RewardSimulator.formatReport(results, breaksPerHour);
+                long elapsed = System.currentTimeMillis() - start;
+                
+                Runnable report = () -> sendReport(sender, lines, breaksPerHour, elapsed);
+                if (sender instanceof Player player) {
+                    plugin.getScheduler().executeFor(player, report);
+                } else {
+                    plugin.getScheduler().runGlobal(report);
+                }
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+    
+    /**
+     * Send the simulation report
+     * @param sender The command sender
+     * @param lines The report lines
+     * @param breaksPerHour Assumed breaks per hour
+     * @param elapsed Simulation time in milliseconds
+     */
+    private void sendReport(CommandSender sender, List<String> lines, double breaksPerHour, long elapsed) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("rate", String.valueOf((long) breaksPerHour));
+        placeholders.put("time", String.valueOf(elapsed));
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, "simulate.header", placeholders);
+        
+        for (String line : lines) {
+            sender.sendMessage(line);
+        }
+    }
+}
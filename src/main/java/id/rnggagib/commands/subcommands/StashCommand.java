@@ -0,0 +1,58 @@
+package id.rnggagib.commands.subcommands;
+
+import id.rnggagib.BlockParty;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stash command implementation, opens the stash of rewards that didn't fit into the inventory
+ */
+public class StashCommand implements SubCommand {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public StashCommand(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "stash";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "blockparty.stash";
+    }
+    
+    @Override
+    public String[] getAliases() {
+        return new String[0];
+    }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission(getPermission());
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player player)) {
+            plugin.getMessageManager().sendMessage(sender, "plugin.player-only");
+            return;
+        }
+        
+        plugin.getStashManager().open(player);
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, String[] args) {
+        return new ArrayList<>();
+    }
+}
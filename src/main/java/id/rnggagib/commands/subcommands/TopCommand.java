@@ -0,0 +1,110 @@
+package id.rnggagib.commands.subcommands;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.leaderboard.LeaderboardEntry;
+import id.rnggagib.leaderboard.LeaderboardPeriod;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top command implementation, shows the combo leaderboards
+ */
+public class TopCommand implements SubCommand {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public TopCommand(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "top";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "blockparty.top";
+    }
+    
+    @Override
+    public String[] getAliases() {
+        return new String[] { "leaderboard", "lb" };
+    }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission(getPermission());
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if (args.length < 2 || !args[1].equalsIgnoreCase("combo")) {
+            showHelp(sender);
+            return;
+        }
+        
+        LeaderboardPeriod period = LeaderboardPeriod.ALL_TIME;
+        if (args.length >= 3) {
+            period = LeaderboardPeriod.fromKey(args[2]);
+            if (period == null) {
+                showHelp(sender);
+                return;
+            }
+        }
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("period", plugin.getMessageManager().getMessage("leaderboard.periods." + period.getKey()));
+        
+        List<LeaderboardEntry> top = plugin.getLeaderboardManager().getTop(period, plugin.getLeaderboardManager().getShown());
+        if (top.isEmpty()) {
+            plugin.getMessageManager().sendMessage(sender, "leaderboard.empty", placeholders);
+            return;
+        }
+        
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, "leaderboard.header", placeholders);
+        for (int i = 0; i < top.size(); i++) {
+            LeaderboardEntry entry = top.get(i);
+            Map<String, String> entryPlaceholders = new HashMap<>();
+            entryPlaceholders.put("rank", String.valueOf(i + 1));
+            entryPlaceholders.put("player", entry.getName());
+            entryPlaceholders.put("combo", String.valueOf(entry.getCombo()));
+            plugin.getMessageManager().sendMessageWithoutPrefix(sender, "leaderboard.entry", entryPlaceholders);
+        }
+    }
+    
+    /**
+     * Show help for the top command
+     * @param sender The command sender
+     */
+    private void showHelp(CommandSender sender) {
+        plugin.getMessageManager().sendMessageWithoutPrefix(sender, "leaderboard.help", null);
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 2) {
+            if ("combo".startsWith(args[1].toLowerCase())) {
+                completions.add("combo");
+            }
+        } else if (args.length == 3 && args[1].equalsIgnoreCase("combo")) {
+            String partial = args[2].toLowerCase();
+            for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+                if (period.getKey().startsWith(partial)) {
+                    completions.add(period.getKey());
+                }
+            }
+        }
+        
+        return completions;
+    }
+}
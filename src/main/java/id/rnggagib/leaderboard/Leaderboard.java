@@ -0,0 +1,159 @@
+package id.rnggagib.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Best combo of each player during one period, ranked in a concurrent skip list.
+ * Reads walk the ranking without locking; updates take a lock only when a player
+ * beats their best, and cost O(log n).
+ */
+public class Leaderboard {
+    private final ConcurrentSkipListMap<LeaderboardEntry, Boolean> ranking = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<UUID, LeaderboardEntry> best = new ConcurrentHashMap<>();
+    private volatile int capacity;
+    private volatile long periodEnd;
+    
+    /**
+     * Constructor
+     * @param capacity Number of players kept on the board
+     * @param periodEnd Epoch milliseconds when the board starts over, Long.MAX_VALUE for never
+     */
+    public Leaderboard(int capacity, long periodEnd) {
+        this.capacity = capacity;
+        this.periodEnd = periodEnd;
+    }
+    
+    /**
+     * Submit a combo, keeping it if it is the player's best and makes the board
+     * @param uuid The player's UUID
+     * @param name The player's name
+     * @param combo The combo
+     * @param time Epoch milliseconds when the combo was reached
+     * @return True if the board changed
+     */
+    public boolean submit(UUID uuid, String name, int combo, long time) {
+        // Most combos don't beat the player's best, those never take the lock
+        LeaderboardEntry current = best.get(uuid);
+        if (current != null && current.getCombo() >= combo) {
+            return false;
+        }
+        if (current == null && isFull()) {
+            Map.Entry<LeaderboardEntry, Boolean> lowest = ranking.lastEntry();
+            if (lowest != null && combo <= lowest.getKey().getCombo()) {
+                return false;
+            }
+        }
+        
+        synchronized (this) {
+            current = best.get(uuid);
+            if (current != null && current.getCombo() >= combo) {
+                return false;
+            }
+            
+            // Insert before removing, so readers never miss the player
+            LeaderboardEntry entry = new LeaderboardEntry(uuid, name, combo, time);
+            ranking.put(entry, Boolean.TRUE);
+            best.put(uuid, entry);
+            if (current != null) {
+                ranking.remove(current);
+            }
+            trim();
+            return best.get(uuid) == entry;
+        }
+    }
+    
+    /**
+     * Check if the board holds as many players as it keeps
+     * @return True if the board is full
+     */
+    private boolean isFull() {
+        return best.size() >= capacity;
+    }
+    
+    /**
+     * Drop the lowest entries until the board fits its capacity, called with the lock held
+     */
+    private void trim() {
+        while (best.size() > capacity) {
+            LeaderboardEntry lowest = ranking.pollLastEntry().getKey();
+            best.remove(lowest.getUuid(), lowest);
+        }
+    }
+    
+    /**
+     * Get the highest entries
+     * @param limit Maximum number of entries
+     * @return The entries from the top down
+     */
+    public List<LeaderboardEntry> getTop(int limit) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.min(limit, capacity));
+        Iterator<LeaderboardEntry> iterator = ranking.keySet().iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            LeaderboardEntry entry = iterator.next();
+            // Skip a player's previous best that is being replaced right now
+            if (best.get(entry.getUuid()) == entry) {
+                top.add(entry);
+            }
+        }
+        return top;
+    }
+    
+    /**
+     * Get the entry at a rank
+     * @param rank The rank, starting at 1
+     * @return The entry, or null if the rank is empty
+     */
+    public LeaderboardEntry get(int rank) {
+        if (rank < 1 || rank > capacity) {
+            return null;
+        }
+        
+        List<LeaderboardEntry> top = getTop(rank);
+        return top.size() == rank ? top.get(rank - 1) : null;
+    }
+    
+    /**
+     * Get all entries, in no particular order
+     * @return The entries
+     */
+    public Collection<LeaderboardEntry> getEntries() {
+        return best.values();
+    }
+    
+    /**
+     * Change the number of players kept, dropping the lowest entries if it shrinks
+     * @param capacity Number of players kept
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = capacity;
+        trim();
+    }
+    
+    /**
+     * Empty the board if its period is over
+     * @param now Epoch milliseconds
+     * @param nextEnd End of the period starting now
+     * @return True if the board was emptied
+     */
+    public synchronized boolean rollOver(long now, long nextEnd) {
+        if (now < periodEnd) {
+            return false;
+        }
+        
+        ranking.clear();
+        best.clear();
+        periodEnd = nextEnd;
+        return true;
+    }
+    
+    public long getPeriodEnd() {
+        return periodEnd;
+    }
+}
@@ -0,0 +1,55 @@
+package id.rnggagib.leaderboard;
+
+import java.util.UUID;
+
+/**
+ * A player's best combo on a leaderboard. Entries sort from the highest combo down;
+ * of two equal combos the one reached first ranks higher.
+ */
+public class LeaderboardEntry implements Comparable<LeaderboardEntry> {
+    private final UUID uuid;
+    private final String name;
+    private final int combo;
+    private final long achievedAt;
+    
+    /**
+     * Constructor
+     * @param uuid The player's UUID
+     * @param name The player's name when the combo was reached
+     * @param combo The combo
+     * @param achievedAt Epoch milliseconds when the combo was reached
+     */
+    public LeaderboardEntry(UUID uuid, String name, int combo, long achievedAt) {
+        this.uuid = uuid;
+        this.name = name;
+        this.combo = combo;
+        this.achievedAt = achievedAt;
+    }
+    
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getCombo() {
+        return combo;
+    }
+    
+    public long getAchievedAt() {
+        return achievedAt;
+    }
+    
+    @Override
+    public int compareTo(LeaderboardEntry other) {
+        if (combo != other.combo) {
+            return Integer.compare(other.combo, combo);
+        }
+        if (achievedAt != other.achievedAt) {
+            return Long.compare(achievedAt, other.achievedAt);
+        }
+        return uuid.compareTo(other.uuid);
+    }
+}
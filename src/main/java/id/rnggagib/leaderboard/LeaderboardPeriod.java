@@ -0,0 +1,63 @@
+package id.rnggagib.leaderboard;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The stretches of time a leaderboard covers before it starts over
+ */
+public enum LeaderboardPeriod {
+    DAILY("daily"),
+    WEEKLY("weekly"),
+    ALL_TIME("alltime");
+    
+    private final String key;
+    
+    LeaderboardPeriod(String key) {
+        this.key = key;
+    }
+    
+    /**
+     * Get the name used in commands, placeholders and the data file
+     * @return The key, e.g. "daily"
+     */
+    public String getKey() {
+        return key;
+    }
+    
+    /**
+     * Get the moment the period containing a time ends
+     * @param now Epoch milliseconds
+     * @param zone Time zone days start in
+     * @param weekStart First day of a week
+     * @return Epoch milliseconds of the end, Long.MAX_VALUE if the period never ends
+     */
+    public long getEnd(long now, ZoneId zone, DayOfWeek weekStart) {
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        switch (this) {
+            case DAILY:
+                return today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            case WEEKLY:
+                return today.with(TemporalAdjusters.next(weekStart)).atStartOfDay(zone).toInstant().toEpochMilli();
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+    
+    /**
+     * Find a period by its key
+     * @param key The key, case insensitive
+     * @return The period, or null if there is none with that key
+     */
+    public static LeaderboardPeriod fromKey(String key) {
+        for (LeaderboardPeriod period : values()) {
+            if (period.key.equalsIgnoreCase(key)) {
+                return period;
+            }
+        }
+        return null;
+    }
+}
@@ -4,13 +4,18 @@ import id.rnggagib.BlockParty;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
+import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Handles block breaking for BlockParty sessions
  */
@@ -34,6 +39,11 @@ public class BlockBreakListener implements Listener {
             return;
         }
         
+        // Extra blocks of a vein or area break are handled by the multi-break engine
+        if (plugin.getMultiBreakManager().isFiringEvent()) {
+            return;
+        }
+        
         Player player = event.getPlayer();
         Block block = event.getBlock();
         Material material = block.getType();
@@ -101,7 +111,7 @@ public class BlockBreakListener implements Listener {
             // Continue with BlockParty mining logic
             BlockState blockState = block.getState();
             
-            // Check if should drop vanilla items
+            // Check if should drop vanilla items, auto-pickup happens once the break can't be cancelled anymore
             if (!plugin.getRewardManager().shouldDropVanilla(material)) {
                 event.setDropItems(false);
             }
@@ -113,14 +123,62 @@ public class BlockBreakListener implements Listener {
             int combo = plugin.getComboManager().incrementCombo(player);
             double multiplier = plugin.getComboManager().getPlayerComboMultiplier(player.getUniqueId());
             
-            // Check if should give reward (with combo multiplier)
-            if (plugin.getRewardManager().shouldGiveReward(material)) {
-                // Pass the combo multiplier to adjust reward chances
-                plugin.getRewardManager().giveRandomReward(player, multiplier);
-            }
+            // Roll the reward (with combo multiplier), or take the next pre-rolled outcome
+            plugin.getRewardManager().rewardBreak(player, multiplier, material, block.getLocation());
             
             // Schedule block regeneration using the manager
-            plugin.getBlockRegenerationManager().scheduleRegeneration(block, blockState);
+            plugin.getBlockRegenerationManager().scheduleRegeneration(block, blockState, player);
+            
+            // Break the connected vein or surrounding area over the next ticks
+            plugin.getMultiBreakManager().handleBreak(player, block, material);
+        }
+    }
+    
+    /**
+     * Give the experience of an auto-pickup block once no plugin can cancel the break anymore
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreakMonitor(BlockBreakEvent event) {
+        if (event.getExpToDrop() <= 0 || plugin.getMultiBreakManager().isFiringEvent()) {
+            return;
+        }
+        
+        Player player = event.getPlayer();
+        if (isAutoPickupBreak(player, event.getBlock().getType())) {
+            player.giveExp(event.getExpToDrop());
+            event.setExpToDrop(0);
+        }
+    }
+    
+    /**
+     * Put the drops of an auto-pickup block straight into the inventory. The drop event
+     * only fires for breaks that went through, so cancelled breaks can't dupe the drops.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onBlockDropItem(BlockDropItemEvent event) {
+        Player player = event.getPlayer();
+        Material material = event.getBlockState().getType();
+        if (event.getItems().isEmpty() || !isAutoPickupBreak(player, material)) {
+            return;
+        }
+        
+        List<ItemStack> drops = new ArrayList<>(event.getItems().size());
+        for (Item item : event.getItems()) {
+            drops.add(item.getItemStack());
         }
+        event.getItems().clear();
+        plugin.getRewardManager().pickUpDrops(player, material, drops);
+    }
+    
+    /**
+     * Check if a player's break of a block is a BlockParty break with auto-pickup
+     * @param player The player
+     * @param material The broken block's material
+     * @return True if drops and experience go straight into the inventory
+     */
+    private boolean isAutoPickupBreak(Player player, Material material) {
+        return plugin.getRewardManager().isAutoPickup(material)
+                && plugin.getSessionManager().hasActiveSession(player.getUniqueId())
+                && plugin.getAccessManager().isAccessItem(player.getInventory().getItemInMainHand());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package id.rnggagib.listeners;
+
+import id.rnggagib.BlockParty;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Handles chunk and world events for deferred block regeneration
+ */
+public class ChunkListener implements Listener {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public ChunkListener(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Restore parked blocks and re-send placeholders once a chunk is loaded again
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // Freshly generated chunks can't contain mined blocks
+        if (event.isNewChunk()) {
+            return;
+        }
+        
+        plugin.getBlockRegenerationManager().handleChunkLoad(event.getChunk());
+    }
+    
+    /**
+     * Persist pending regenerations of a world that is being unloaded
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getBlockRegenerationManager().handleWorldUnload(event.getWorld());
+    }
+    
+    /**
+     * Pick up persisted regenerations of a world that has been loaded
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        plugin.getBlockRegenerationManager().handleWorldLoad(event.getWorld());
+    }
+}
@@ -0,0 +1,84 @@
+package id.rnggagib.listeners;
+
+import id.rnggagib.BlockParty;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+
+/**
+ * Rebuilds the MMOItems reward pools when MMOItems is reloaded, enabled or disabled
+ */
+public class MMOItemsReloadListener implements Listener {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public MMOItemsReloadListener(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Watch for /mmoitems reload run by players
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        if (isReloadCommand(event.getMessage().substring(1))) {
+            scheduleRebuild();
+        }
+    }
+    
+    /**
+     * Watch for /mmoitems reload run from the console
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        if (isReloadCommand(event.getCommand())) {
+            scheduleRebuild();
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        if (event.getPlugin().getName().equals("MMOItems")) {
+            scheduleRebuild();
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (event.getPlugin().getName().equals("MMOItems")) {
+            plugin.getMMOItemPoolManager().invalidate();
+        }
+    }
+    
+    /**
+     * Check if a command line reloads MMOItems
+     * @param command The command without leading slash
+     * @return True for /mmoitems reload and its aliases
+     */
+    private boolean isReloadCommand(String command) {
+        String[] args = command.trim().toLowerCase().split("\\s+");
+        if (args.length < 2 || !args[1].equals("reload")) {
+            return false;
+        }
+        
+        String label = args[0].substring(args[0].indexOf(':') + 1);
+        return label.equals("mmoitems") || label.equals("mi");
+    }
+    
+    /**
+     * Re-resolve MMOItems types and rebuild the pools once the reload has run
+     */
+    private void scheduleRebuild() {
+        plugin.getScheduler().runGlobalLater(() -> {
+            plugin.getRewardManager().reload();
+            plugin.getMMOItemPoolManager().reload();
+        }, 1L);
+    }
+}
@@ -30,5 +30,10 @@ public class PlayerJoinListener implements Listener {
         
         // Load player data
         plugin.getPlayerDataManager().getPlayerData(player);
+        
+        // Restore lazily parked blocks and show placeholders around the join location
+        if (plugin.getBlockRegenerationManager().isTrackingPlayers()) {
+            plugin.getBlockRegenerationManager().handlePlayerApproach(player, player.getLocation());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package id.rnggagib.listeners;
+
+import id.rnggagib.BlockParty;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Tracks players crossing chunk borders for lazy regeneration and placeholder blocks
+ */
+public class PlayerMoveListener implements Listener {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public PlayerMoveListener(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Check for parked blocks whenever a player crosses a chunk border
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+    
+    /**
+     * Check for parked blocks around teleport destinations
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+    
+    /**
+     * Check for parked blocks around respawn locations
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        if (plugin.getBlockRegenerationManager().isTrackingPlayers()) {
+            plugin.getBlockRegenerationManager().handlePlayerApproach(event.getPlayer(), event.getRespawnLocation());
+        }
+    }
+    
+    /**
+     * Notify the regeneration manager if a movement changed the player's chunk
+     * @param player The player
+     * @param from The previous location
+     * @param to The new location
+     */
+    private void handleMove(Player player, Location from, Location to) {
+        if (to == null || !plugin.getBlockRegenerationManager().isTrackingPlayers()) {
+            return;
+        }
+        
+        if (from.getWorld() == to.getWorld()
+                && from.getBlockX() >> 4 == to.getBlockX() >> 4
+                && from.getBlockZ() >> 4 == to.getBlockZ() >> 4) {
+            return;
+        }
+        
+        plugin.getBlockRegenerationManager().handlePlayerApproach(player, to);
+    }
+}
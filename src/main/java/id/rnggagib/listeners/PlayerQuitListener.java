@@ -33,6 +33,18 @@ public class PlayerQuitListener implements Listener {
             plugin.getSessionManager().endSession(player.getUniqueId(), false);
         }
         
+        // Drop the player's random stream, it restarts from its seed on the next join
+        plugin.getRandomManager().resetStream(player.getUniqueId());
+        plugin.getRewardManager().clearPermissionMask(player.getUniqueId());
+        plugin.getRewardBufferManager().remove(player.getUniqueId());
+        
+        // Keep reward items that weren't inserted yet and save the stash
+        plugin.getInventoryDeliveryManager().stashPending(player.getUniqueId());
+        plugin.getStashManager().unload(player.getUniqueId());
+        
+        // Deposit money rewards that are still pending
+        plugin.getMoneyDeliveryManager().flushPlayer(player.getUniqueId());
+        
         // Save and unload player data
         plugin.getPlayerDataManager().unloadPlayerData(player.getUniqueId());
     }
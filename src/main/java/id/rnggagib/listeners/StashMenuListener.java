@@ -0,0 +1,61 @@
+package id.rnggagib.listeners;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.stash.StashMenu;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+
+/**
+ * Handles clicks in the stash menu. Items can only be claimed, never put in.
+ */
+public class StashMenuListener implements Listener {
+    private final BlockParty plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public StashMenuListener(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Claim items and turn pages
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getView().getTopInventory().getHolder() instanceof StashMenu menu)) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        if (!(event.getWhoClicked() instanceof Player player) || event.getClickedInventory() != event.getView().getTopInventory()) {
+            return;
+        }
+        
+        int slot = event.getSlot();
+        if (slot == StashMenu.PREVIOUS_SLOT && menu.getPage() > 0) {
+            menu.turnPage(-1);
+        } else if (slot == StashMenu.NEXT_SLOT && menu.getPage() < menu.getPages() - 1) {
+            menu.turnPage(1);
+        } else if (slot == StashMenu.CLAIM_ALL_SLOT) {
+            plugin.getStashManager().claimAll(player, menu);
+        } else if (slot < StashMenu.PAGE_SIZE) {
+            plugin.getStashManager().claim(player, menu, slot);
+        }
+    }
+    
+    /**
+     * Prevent dragging items into the stash menu
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getView().getTopInventory().getHolder() instanceof StashMenu) {
+            event.setCancelled(true);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.audit.AuditLogReader;
+import id.rnggagib.audit.AuditLogWriter;
+import id.rnggagib.audit.AuditRecord;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * Records every given reward to an append-only audit log. Rewards are queued
+ * without locking on the thread that gives them and written in batches by an
+ * async task.
+ */
+public class AuditLogManager {
+    private final BlockParty plugin;
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final File directory;
+    private final AuditLogWriter writer;
+    private final AuditLogReader reader;
+    private ScheduledTask writerTask;
+    
+    // Configuration
+    private boolean enabled;
+    private long flushInterval;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public AuditLogManager(BlockParty plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "audit");
+        this.writer = new AuditLogWriter(directory);
+        this.reader = new AuditLogReader(directory);
+        loadConfiguration();
+        startWriterTask();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("audit.enabled", true);
+        flushInterval = Math.max(1L, config.getLong("audit.flush-interval", 20L));
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+        stopWriterTask();
+        startWriterTask();
+    }
+    
+    /**
+     * Record a given reward
+     * @param player The player who received it
+     * @param type The reward type
+     * @param rewardId The reward's id within its type
+     * @param amount Number of items or keys
+     */
+    public void record(Player player, AuditRecord.RewardType type, String rewardId, int amount) {
+        if (!enabled) {
+            return;
+        }
+        
+        queue.add(new AuditRecord(System.currentTimeMillis(), player.getUniqueId(), player.getName(), type, rewardId, amount));
+    }
+    
+    /**
+     * Get the reader for the audit log
+     * @return The audit log reader
+     */
+    public AuditLogReader getReader() {
+        return reader;
+    }
+    
+    /**
+     * Start the writer task
+     */
+    private synchronized void startWriterTask() {
+        if (!enabled || writerTask != null) {
+            return;
+        }
+        
+        writerTask = plugin.getScheduler().runAsyncTimer(scheduledTask -> flush(), flushInterval, flushInterval);
+    }
+    
+    /**
+     * Stop the writer task
+     */
+    private synchronized void stopWriterTask() {
+        if (writerTask != null) {
+            writerTask.cancel();
+            writerTask = null;
+        }
+    }
+    
+    /**
+     * Write all queued records
+     */
+    private synchronized void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        
+        List<AuditRecord> batch = new ArrayList<>();
+        AuditRecord record;
+        while ((record = queue.poll()) != null) {
+            batch.add(record);
+        }
+        
+        try {
+            writer.write(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write " + batch.size() + " audit records", e);
+        }
+    }
+    
+    /**
+     * Stop the writer task, write the remaining records and close the log
+     */
+    public void cancelAllTasks() {
+        stopWriterTask();
+        flush();
+        
+        synchronized (this) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not close the audit log", e);
+            }
+        }
+    }
+}
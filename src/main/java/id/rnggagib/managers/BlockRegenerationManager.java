@@ -1,35 +1,58 @@
 package id.rnggagib.managers;
 
 import id.rnggagib.BlockParty;
+import id.rnggagib.region.Region;
+import id.rnggagib.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.FallingBlock;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * Handles advanced block regeneration for BlockParty
  */
 public class BlockRegenerationManager {
     private final BlockParty plugin;
-    private final Random random = new Random();
     private final ConcurrentHashMap<Location, RegenerationTask> pendingRegeneration = new ConcurrentHashMap<>();
     
+    // Ticks to wait for a chunk to reach the client before sending placeholder blocks
+    private static final long PLACEHOLDER_RESEND_DELAY = 5L;
+    
+    // Pending regenerations indexed by world name and chunk key
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Set<RegenerationTask>>> pendingByChunk = new ConcurrentHashMap<>();
+    
+    // Parked blocks waiting to be restored in batches
+    private final ConcurrentLinkedQueue<RegenerationTask> restoreQueue = new ConcurrentLinkedQueue<>();
+    private ScheduledTask restoreTask;
+    private final File parkedFile;
+    
     // Configuration settings
     private int minRegenerationTime;
     private int maxRegenerationTime;
@@ -37,6 +60,13 @@ public class BlockRegenerationManager {
     private boolean useSound;
     private boolean veinMining;
     private int maxVeinSize;
+    private int areaSize;
+    private int restoreBudget;
+    private boolean lazyRegeneration;
+    private int observeRadius;
+    private boolean usePlaceholder;
+    private BlockData placeholderData;
+    private int placeholderRange;
     private RegenerationType defaultRegenerationType;
     private Map<Material, RegenerationConfig> materialConfigs;
     
@@ -47,7 +77,9 @@ public class BlockRegenerationManager {
     public BlockRegenerationManager(BlockParty plugin) {
         this.plugin = plugin;
         this.materialConfigs = new HashMap<>();
+        this.parkedFile = new File(plugin.getDataFolder(), "regeneration-parked.yml");
         loadConfiguration();
+        loadParkedBlocks();
     }
     
     /**
@@ -64,6 +96,20 @@ public class BlockRegenerationManager {
             useSound = regSection.getBoolean("use-sound", true);
             veinMining = regSection.getBoolean("vein-mining", true);
             maxVeinSize = regSection.getInt("max-vein-size", 8);
+            areaSize = Math.max(1, regSection.getInt("area-size", 1));
+            restoreBudget = Math.max(1, regSection.getInt("restore-budget", 64));
+            lazyRegeneration = regSection.getBoolean("lazy.enabled", false);
+            observeRadius = getObserveRadius(regSection.getInt("lazy.view-distance", 0));
+            usePlaceholder = regSection.getBoolean("placeholder.enabled", false);
+            placeholderRange = regSection.getInt("placeholder.range", 48);
+            
+            String placeholderName = regSection.getString("placeholder.material", "BEDROCK");
+            Material placeholderMaterial = Material.matchMaterial(placeholderName);
+            if (placeholderMaterial == null || !placeholderMaterial.isBlock()) {
+                plugin.getLogger().warning("Invalid placeholder material: " + placeholderName + ". Using BEDROCK instead.");
+                placeholderMaterial = Material.BEDROCK;
+            }
+            placeholderData = placeholderMaterial.createBlockData();
             
             // Load default regeneration type
             String defaultType = regSection.getString("default-type", "DELAYED_RANDOM");
@@ -87,6 +133,11 @@ public class BlockRegenerationManager {
                             int maxTime = materialSection.getInt("max-time", maxRegenerationTime);
                             boolean useEffect = materialSection.getBoolean("use-effects", useEffects);
                             boolean useMatSound = materialSection.getBoolean("use-sound", useSound);
+                            int matVeinSize = materialSection.getInt("max-vein-size", maxVeinSize);
+                            int matAreaSize = Math.max(1, materialSection.getInt("area-size", areaSize));
+                            
+                            // An explicit vein size enables vein mining for non-ore materials too
+                            boolean veinMine = veinMining && (materialSection.contains("max-vein-size") || shouldVeinMine(material));
                             
                             String typeName = materialSection.getString("type", defaultType);
                             RegenerationType type;
@@ -97,7 +148,8 @@ public class BlockRegenerationManager {
                             }
                             
                             materialConfigs.put(material, new RegenerationConfig(
-                                    minTime, maxTime, useEffect, useMatSound, type
+                                    minTime, maxTime, useEffect, useMatSound, type,
+                                    veinMine, matVeinSize, matAreaSize
                             ));
                         }
                     } catch (IllegalArgumentException e) {
@@ -113,10 +165,35 @@ public class BlockRegenerationManager {
             useSound = true;
             veinMining = true;
             maxVeinSize = 8;
+            areaSize = 1;
+            restoreBudget = 64;
+            lazyRegeneration = false;
+            observeRadius = getObserveRadius(0);
+            usePlaceholder = false;
+            placeholderRange = 48;
+            placeholderData = Material.BEDROCK.createBlockData();
             defaultRegenerationType = RegenerationType.DELAYED_RANDOM;
         }
     }
     
+    /**
+     * Get the chunk radius in which a player counts as observing a block.
+     * One chunk is added so blocks are restored just before their chunk enters view.
+     * @param viewDistance Configured view distance, or 0 to use the server view distance
+     * @return The observe radius in chunks
+     */
+    private int getObserveRadius(int viewDistance) {
+        return (viewDistance > 0 ? viewDistance : Bukkit.getViewDistance()) + 1;
+    }
+    
+    /**
+     * Check if player movement needs to be tracked for lazy regeneration or placeholders
+     * @return True if lazy regeneration or placeholder blocks are enabled
+     */
+    public boolean isTrackingPlayers() {
+        return lazyRegeneration || usePlaceholder;
+    }
+    
     /**
      * Reload configuration
      */
@@ -131,54 +208,70 @@ public class BlockRegenerationManager {
      * @param state The original state of the block
      */
     public void scheduleRegeneration(Block block, BlockState state) {
+        scheduleRegeneration(block, state, null);
+    }
+    
+    /**
+     * Schedule a block broken by a player to regenerate
+     * @param block The block to regenerate
+     * @param state The original state of the block
+     * @param player The player who broke the block, or null to roll with the thread's stream.
+     *               The player's stream is only used on the thread that owns the player.
+     */
+    public void scheduleRegeneration(Block block, BlockState state, Player player) {
         // Check if block is already scheduled for regeneration
         if (pendingRegeneration.containsKey(block.getLocation())) {
             return;
         }
         
         Material material = state.getType();
-        RegenerationConfig config = materialConfigs.getOrDefault(material, 
-                new RegenerationConfig(minRegenerationTime, maxRegenerationTime, 
-                        useEffects, useSound, defaultRegenerationType));
+        RegenerationConfig config = getConfig(material);
         
         // Calculate regeneration delay
         int delay;
         if (config.minTime == config.maxTime) {
             delay = config.minTime;
         } else {
+            SplittableRandom random = player != null && plugin.getScheduler().isOwnedByCurrentRegion(player)
+                    ? plugin.getRandomManager().forPlayer(player.getUniqueId())
+                    : plugin.getRandomManager().forCurrentThread();
             delay = config.minTime + random.nextInt(config.maxTime - config.minTime + 1);
         }
         
+        // Convert to ticks, scaled by the running events
+        long ticks = Math.max(1L, Math.round(delay * 20L * plugin.getMultiplierEventManager().getCurrent().getRegenMultiplier()));
+        
         // Create regeneration task
-        RegenerationTask task = new RegenerationTask(block, state, config);
+        RegenerationTask task = new RegenerationTask(block, material, config);
         pendingRegeneration.put(block.getLocation(), task);
+        indexTask(task);
         
         // Handle different regeneration types
         switch (config.type) {
             case INSTANT:
                 task.startTask(1);
                 break;
-                
+            
             case DELAYED_FIXED:
-                task.startTask(delay * 20L); // Convert to ticks
+                task.startTask(ticks);
                 break;
-                
+            
             case DELAYED_RANDOM:
-                task.startTask(delay * 20L); // Convert to ticks
+                task.startTask(ticks);
                 break;
-                
+            
             case ANIMATED:
-                task.startAnimatedTask(delay * 20L); // Convert to ticks
+                task.startAnimatedTask(ticks);
                 break;
-                
+            
             default:
-                task.startTask(delay * 20L); // Convert to ticks
+                task.startTask(ticks);
                 break;
         }
         
-        // Check for vein mining if enabled
-        if (veinMining && shouldVeinMine(material)) {
-            processVein(block, state.getType());
+        // The block only turns into air after the break event, so show the placeholder on the next tick
+        if (usePlaceholder && config.type != RegenerationType.INSTANT) {
+            plugin.getScheduler().runAtLocationLater(task.location, () -> showPlaceholder(task), 1L);
         }
     }
     
@@ -192,64 +285,542 @@ public class BlockRegenerationManager {
     }
     
     /**
-     * Process a vein of connected blocks of the same type
-     * @param startBlock The starting block
-     * @param material The material to look for
+     * Check if breaking a block of this material should break its whole vein
+     * @param material The material
+     * @return True if vein mining applies
+     */
+    public boolean isVeinMining(Material material) {
+        return getConfig(material).veinMining;
+    }
+    
+    /**
+     * Get the maximum number of blocks broken in one vein, including the mined block
+     * @param material The material
+     * @return The maximum vein size
+     */
+    public int getMaxVeinSize(Material material) {
+        return getConfig(material).maxVeinSize;
+    }
+    
+    /**
+     * Get the edge length of the square area broken around a mined block
+     * @param material The material
+     * @return The area size, 1 if area mining is disabled
+     */
+    public int getAreaSize(Material material) {
+        return getConfig(material).areaSize;
+    }
+    
+    /**
+     * Check if a block is waiting to be regenerated
+     * @param location The block location
+     * @return True if the block is pending regeneration
+     */
+    public boolean isPending(Location location) {
+        return pendingRegeneration.containsKey(location);
+    }
+    
+    /**
+     * Build a snapshot of all pending regenerations
+     * @return Pending counts per world, region and material
+     */
+    public PendingSummary getPendingSummary() {
+        PendingSummary summary = new PendingSummary();
+        RegionManager regions = plugin.getRegionManager();
+        
+        for (RegenerationTask task : pendingRegeneration.values()) {
+            summary.total++;
+            if (task.parked) {
+                summary.parked++;
+            }
+            
+            if (summary.oldestDue == 0L || task.dueTime < summary.oldestDue) {
+                summary.oldestDue = task.dueTime;
+            }
+            
+            Region region = regions.getRegionAt(task.location);
+            summary.byWorld.merge(task.worldName, 1, Integer::sum);
+            summary.byRegion.merge(region != null ? region.getName() : "(none)", 1, Integer::sum);
+            summary.byMaterial.merge(task.material.name(), 1, Integer::sum);
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * Restore pending regenerations right away through the batched restore queue. Blocks in
+     * unloaded chunks are never loaded for this, they are restored once their chunk loads.
+     * @param region The region to flush, or null for all pending blocks
+     * @return Number of blocks queued now and waiting for their chunk
+     */
+    public FlushResult flushPending(Region region) {
+        FlushResult result = new FlushResult();
+        for (RegenerationTask task : pendingRegeneration.values()) {
+            if (region != null && !region.contains(task.location)) {
+                continue;
+            }
+            
+            task.cancel();
+            task.forced = true;
+            task.parked = true;
+            if (!task.isChunkLoaded()) {
+                result.waiting++;
+            } else if (queueRestore(task) || task.queued) {
+                result.queued++;
+            }
+        }
+        
+        if (result.queued > 0) {
+            startRestoreTask();
+        }
+        return result;
+    }
+    
+    /**
+     * Add a task to the chunk index
+     * @param task The regeneration task
+     */
+    private void indexTask(RegenerationTask task) {
+        pendingByChunk.computeIfAbsent(task.worldName, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(task.chunkKey, k -> ConcurrentHashMap.newKeySet())
+                .add(task);
+    }
+    
+    /**
+     * Remove a task from the chunk index
+     * @param task The regeneration task
      */
-    private void processVein(Block startBlock, Material material) {
-        Map<Location, Block> processedBlocks = new HashMap<>();
-        processedBlocks.put(startBlock.getLocation(), startBlock);
+    private void unindexTask(RegenerationTask task) {
+        Map<Long, Set<RegenerationTask>> chunks = pendingByChunk.get(task.worldName);
+        if (chunks == null) {
+            return;
+        }
         
-        // Process connected blocks
-        processConnectedBlocks(startBlock, material, processedBlocks);
+        chunks.computeIfPresent(task.chunkKey, (key, tasks) -> {
+            tasks.remove(task);
+            return tasks.isEmpty() ? null : tasks;
+        });
+    }
+    
+    /**
+     * Pack chunk coordinates into a single key
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return The chunk key
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX & 0xFFFFFFFFL) | (((long) chunkZ & 0xFFFFFFFFL) << 32);
+    }
+    
+    /**
+     * Queue all parked blocks of a freshly loaded chunk for restoration
+     * @param chunk The loaded chunk
+     */
+    public void handleChunkLoad(Chunk chunk) {
+        Map<Long, Set<RegenerationTask>> chunks = pendingByChunk.get(chunk.getWorld().getName());
+        if (chunks == null) {
+            return;
+        }
+        
+        Set<RegenerationTask> tasks = chunks.get(chunkKey(chunk.getX(), chunk.getZ()));
+        if (tasks == null) {
+            return;
+        }
+        
+        if (queueParked(tasks)) {
+            startRestoreTask();
+        }
+        
+        // Loading a chunk sends it to the client again, which drops any fake blocks
+        if (usePlaceholder) {
+            Location chunkLocation = new Location(chunk.getWorld(), chunk.getX() << 4, 0, chunk.getZ() << 4);
+            plugin.getScheduler().runAtLocationLater(chunkLocation, () -> {
+                for (RegenerationTask task : tasks) {
+                    showPlaceholder(task);
+                }
+            }, PLACEHOLDER_RESEND_DELAY);
+        }
     }
     
     /**
-     * Recursively process connected blocks of the same material
-     * @param block The current block
-     * @param material The material to look for
-     * @param processedBlocks Map of already processed block locations
+     * Handle a player entering a new chunk: queue lazily parked blocks around them
+     * and re-send placeholder blocks of the chunks they now see
+     * @param player The player
+     * @param location The location the player moved to
      */
-    private void processConnectedBlocks(Block block, Material material, Map<Location, Block> processedBlocks) {
-        // Stop if we've reached the maximum vein size
-        if (processedBlocks.size() >= maxVeinSize) {
+    public void handlePlayerApproach(Player player, Location location) {
+        if (location.getWorld() == null) {
+            return;
+        }
+        
+        if (usePlaceholder) {
+            // Give the client a moment to receive the chunks before faking blocks in them
+            plugin.getScheduler().runForEntityLater(player, () -> {
+                if (player.isOnline()) {
+                    sendPlaceholders(player);
+                }
+            }, PLACEHOLDER_RESEND_DELAY);
+        }
+        
+        if (!lazyRegeneration) {
+            return;
+        }
+        
+        Map<Long, Set<RegenerationTask>> chunks = pendingByChunk.get(location.getWorld().getName());
+        if (chunks == null || chunks.isEmpty()) {
             return;
         }
         
-        // Check all adjacent blocks
-        for (BlockFace face : new BlockFace[] { 
-                BlockFace.UP, BlockFace.DOWN, BlockFace.NORTH, 
-                BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST }) {
+        int centerX = location.getBlockX() >> 4;
+        int centerZ = location.getBlockZ() >> 4;
+        int diameter = observeRadius * 2 + 1;
+        boolean queued = false;
+        
+        if (chunks.size() < diameter * diameter) {
+            // Fewer pending chunks than chunks in view, scan the index
+            for (Set<RegenerationTask> tasks : chunks.values()) {
+                for (RegenerationTask task : tasks) {
+                    if (Math.abs(task.chunkX - centerX) <= observeRadius && Math.abs(task.chunkZ - centerZ) <= observeRadius) {
+                        queued |= queueParked(tasks);
+                    }
+                    break;
+                }
+            }
+        } else {
+            for (int x = centerX - observeRadius; x <= centerX + observeRadius; x++) {
+                for (int z = centerZ - observeRadius; z <= centerZ + observeRadius; z++) {
+                    Set<RegenerationTask> tasks = chunks.get(chunkKey(x, z));
+                    if (tasks != null) {
+                        queued |= queueParked(tasks);
+                    }
+                }
+            }
+        }
+        
+        if (queued) {
+            startRestoreTask();
+        }
+    }
+    
+    /**
+     * Queue the parked tasks of a chunk for restoration
+     * @param tasks Tasks of a single chunk
+     * @return True if any task was queued
+     */
+    private boolean queueParked(Set<RegenerationTask> tasks) {
+        boolean queued = false;
+        for (RegenerationTask task : tasks) {
+            queued |= queueRestore(task);
+        }
+        return queued;
+    }
+    
+    /**
+     * Queue a parked task for restoration unless it is already queued
+     * @param task The regeneration task
+     * @return True if the task was queued
+     */
+    private boolean queueRestore(RegenerationTask task) {
+        if (!task.parked || task.queued) {
+            return false;
+        }
+        
+        task.queued = true;
+        restoreQueue.add(task);
+        return true;
+    }
+    
+    /**
+     * Send the placeholder block of a pending regeneration to all players in range
+     * @param task The regeneration task
+     */
+    private void showPlaceholder(RegenerationTask task) {
+        if (pendingRegeneration.get(task.location) != task || task.parked || !task.isChunkLoaded()) {
+            return;
+        }
+        
+        // Another plugin may have cancelled the break
+        if (!task.block.getType().isAir()) {
+            return;
+        }
+        
+        double rangeSquared = (double) placeholderRange * placeholderRange;
+        for (Player player : task.block.getWorld().getPlayers()) {
+            if (player.getLocation().distanceSquared(task.location) <= rangeSquared) {
+                player.sendBlockChange(task.location, placeholderData);
+            }
+        }
+    }
+    
+    /**
+     * Send all placeholder blocks in range of a player
+     * @param player The player
+     */
+    private void sendPlaceholders(Player player) {
+        Location center = player.getLocation();
+        Map<Long, Set<RegenerationTask>> chunks = pendingByChunk.get(center.getWorld().getName());
+        if (chunks == null || chunks.isEmpty()) {
+            return;
+        }
+        
+        int centerX = center.getBlockX() >> 4;
+        int centerZ = center.getBlockZ() >> 4;
+        int radius = (placeholderRange >> 4) + 1;
+        double rangeSquared = (double) placeholderRange * placeholderRange;
+        
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                Set<RegenerationTask> tasks = chunks.get(chunkKey(x, z));
+                if (tasks == null) {
+                    continue;
+                }
+                
+                for (RegenerationTask task : tasks) {
+                    if (!task.parked && center.distanceSquared(task.location) <= rangeSquared
+                            && task.block.getType().isAir()) {
+                        player.sendBlockChange(task.location, placeholderData);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Replace the placeholder of a cancelled regeneration with the real block for players in range
+     * @param task The regeneration task
+     */
+    private void clearPlaceholder(RegenerationTask task) {
+        if (!usePlaceholder || !task.isChunkLoaded()) {
+            return;
+        }
+        
+        BlockData realData = task.block.getBlockData();
+        double rangeSquared = (double) placeholderRange * placeholderRange;
+        for (Player player : task.block.getWorld().getPlayers()) {
+            if (player.getLocation().distanceSquared(task.location) <= rangeSquared) {
+                player.sendBlockChange(task.location, realData);
+            }
+        }
+    }
+    
+    /**
+     * Check if any player is close enough to see a block
+     * @param task The regeneration task
+     * @return True if a player is within the observe radius
+     */
+    private boolean isObserved(RegenerationTask task) {
+        for (Player player : task.block.getWorld().getPlayers()) {
+            Location loc = player.getLocation();
+            if (Math.abs((loc.getBlockX() >> 4) - task.chunkX) <= observeRadius
+                    && Math.abs((loc.getBlockZ() >> 4) - task.chunkZ) <= observeRadius) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Start the batch restore task if it isn't already running.
+     * Restoring starts on the next tick, so the chunk is never modified while it is still being loaded.
+     */
+    private synchronized void startRestoreTask() {
+        if (restoreTask != null && !restoreTask.isCancelled()) {
+            return;
+        }
+        
+        restoreTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> drainRestoreQueue(), 1L, 1L);
+    }
+    
+    /**
+     * Restore up to the configured budget of parked blocks
+     */
+    private void drainRestoreQueue() {
+        int restored = 0;
+        RegenerationTask task;
+        
+        while (restored < restoreBudget && (task = restoreQueue.poll()) != null) {
+            // Skip tasks that were restored or cancelled in the meantime
+            if (pendingRegeneration.get(task.location) != task) {
+                continue;
+            }
             
-            Block adjacent = block.getRelative(face);
+            task.queued = false;
+            task.parked = false;
             
-            // Skip if already processed
-            if (processedBlocks.containsKey(adjacent.getLocation())) {
+            // Each block is restored by the thread owning its region
+            RegenerationTask restoring = task;
+            plugin.getScheduler().executeAt(task.location, restoring::regenerateBlock);
+            restored++;
+        }
+        
+        if (restoreQueue.isEmpty()) {
+            stopRestoreTask();
+        }
+    }
+    
+    /**
+     * Stop the batch restore task
+     */
+    private synchronized void stopRestoreTask() {
+        if (restoreTask != null && restoreQueue.isEmpty()) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+    }
+    
+    /**
+     * Persist and drop all pending regenerations of a world that is being unloaded
+     * @param world The world being unloaded
+     */
+    public void handleWorldUnload(World world) {
+        Map<Long, Set<RegenerationTask>> chunks = pendingByChunk.remove(world.getName());
+        if (chunks == null) {
+            return;
+        }
+        
+        List<RegenerationTask> tasks = new ArrayList<>();
+        for (Set<RegenerationTask> chunkTasks : chunks.values()) {
+            tasks.addAll(chunkTasks);
+        }
+        
+        for (RegenerationTask task : tasks) {
+            task.cancel();
+            clearPlaceholder(task);
+            pendingRegeneration.remove(task.location, task);
+        }
+        
+        saveParkedBlocks(world.getName(), tasks);
+    }
+    
+    /**
+     * Park persisted regenerations of a world that has been loaded
+     * @param world The loaded world
+     */
+    public void handleWorldLoad(World world) {
+        if (!parkedFile.exists()) {
+            return;
+        }
+        
+        FileConfiguration parked = YamlConfiguration.loadConfiguration(parkedFile);
+        List<String> entries = parked.getStringList("worlds." + world.getName());
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        boolean queued = false;
+        for (String entry : entries) {
+            String[] parts = entry.split(",");
+            if (parts.length != 4) {
                 continue;
             }
             
-            // Check if it's the same material and schedule regeneration
-            if (adjacent.getType() == material) {
-                BlockState adjacentState = adjacent.getState();
-                processedBlocks.put(adjacent.getLocation(), adjacent);
+            try {
+                Block block = world.getBlockAt(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                Material material = Material.valueOf(parts[3]);
+                if (pendingRegeneration.containsKey(block.getLocation())) {
+                    continue;
+                }
                 
-                // Store the state before changing it
-                scheduleRegeneration(adjacent, adjacentState);
+                RegenerationTask task = new RegenerationTask(block, material, getConfig(material));
+                task.parked = true;
+                task.dueTime = System.currentTimeMillis();
+                pendingRegeneration.put(block.getLocation(), task);
+                indexTask(task);
                 
-                // Process connected blocks recursively
-                processConnectedBlocks(adjacent, material, processedBlocks);
+                // Chunks that are already loaded won't fire a load event
+                if (world.isChunkLoaded(task.chunkX, task.chunkZ)) {
+                    queued |= queueRestore(task);
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid parked regeneration entry: " + entry);
             }
         }
+        
+        if (queued) {
+            startRestoreTask();
+        }
+        
+        parked.set("worlds." + world.getName(), null);
+        saveParkedFile(parked);
     }
     
     /**
-     * Cancel all pending regeneration tasks
+     * Load persisted regenerations for all worlds that are already loaded
+     */
+    private void loadParkedBlocks() {
+        for (World world : Bukkit.getWorlds()) {
+            handleWorldLoad(world);
+        }
+    }
+    
+    /**
+     * Persist regeneration tasks so they can be restored once their world loads again
+     * @param worldName The world name
+     * @param tasks The tasks to persist
+     */
+    private void saveParkedBlocks(String worldName, List<RegenerationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        
+        FileConfiguration parked = YamlConfiguration.loadConfiguration(parkedFile);
+        List<String> entries = parked.getStringList("worlds." + worldName);
+        for (RegenerationTask task : tasks) {
+            entries.add(task.location.getBlockX() + "," + task.location.getBlockY() + ","
+                    + task.location.getBlockZ() + "," + task.material.name());
+        }
+        
+        parked.set("worlds." + worldName, entries);
+        saveParkedFile(parked);
+    }
+    
+    /**
+     * Write the parked regenerations file
+     * @param parked The parked regenerations configuration
+     */
+    private void saveParkedFile(FileConfiguration parked) {
+        try {
+            parked.save(parkedFile);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save parked regenerations", e);
+        }
+    }
+    
+    /**
+     * Get the regeneration config for a material
+     * @param material The material
+     * @return The material config or the defaults
+     */
+    private RegenerationConfig getConfig(Material material) {
+        return materialConfigs.getOrDefault(material, 
+                new RegenerationConfig(minRegenerationTime, maxRegenerationTime, 
+                        useEffects, useSound, defaultRegenerationType,
+                        veinMining && shouldVeinMine(material), maxVeinSize, areaSize));
+    }
+    
+    /**
+     * Cancel all pending regeneration tasks, persisting them so they are restored on the next start
      */
     public void cancelAllTasks() {
+        Map<String, List<RegenerationTask>> byWorld = new HashMap<>();
         for (RegenerationTask task : pendingRegeneration.values()) {
             task.cancel();
+            clearPlaceholder(task);
+            byWorld.computeIfAbsent(task.worldName, k -> new ArrayList<>()).add(task);
+        }
+        
+        for (Map.Entry<String, List<RegenerationTask>> entry : byWorld.entrySet()) {
+            saveParkedBlocks(entry.getKey(), entry.getValue());
         }
+        
+        if (restoreTask != null) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+        
+        restoreQueue.clear();
         pendingRegeneration.clear();
+        pendingByChunk.clear();
     }
     
     /**
@@ -257,14 +828,57 @@ public class BlockRegenerationManager {
      */
     private class RegenerationTask {
         private final Block block;
-        private final BlockState originalState;
+        private final Location location;
+        private final Material material;
         private final RegenerationConfig config;
-        private BukkitTask task;
+        private final String worldName;
+        private final int chunkX;
+        private final int chunkZ;
+        private final long chunkKey;
+        private ScheduledTask task;
+        private volatile long dueTime;
+        
+        // Set once the block came due while its chunk was unloaded or unobserved
+        private volatile boolean parked;
+        private volatile boolean queued;
+        
+        // Set by an admin flush, restores the block even if nobody can see it, but still
+        // only once its chunk is loaded
+        private volatile boolean forced;
         
-        public RegenerationTask(Block block, BlockState originalState, RegenerationConfig config) {
+        public RegenerationTask(Block block, Material material, RegenerationConfig config) {
             this.block = block;
-            this.originalState = originalState;
+            this.location = block.getLocation();
+            this.material = material;
             this.config = config;
+            this.worldName = block.getWorld().getName();
+            this.chunkX = block.getX() >> 4;
+            this.chunkZ = block.getZ() >> 4;
+            this.chunkKey = chunkKey(chunkX, chunkZ);
+        }
+        
+        /**
+         * Check if the chunk of this block is currently loaded
+         * @return True if the chunk is loaded
+         */
+        private boolean isChunkLoaded() {
+            return block.getWorld().isChunkLoaded(chunkX, chunkZ);
+        }
+        
+        /**
+         * Check if this block should be restored now
+         * @return True if the chunk is loaded and the block was flushed or, in lazy mode, a player can see it
+         */
+        private boolean canRestore() {
+            return isChunkLoaded() && (forced || !lazyRegeneration || isObserved(this));
+        }
+        
+        /**
+         * Park this task until its chunk is loaded or approached again
+         */
+        private void park() {
+            parked = true;
+            task = null;
         }
         
         /**
@@ -272,12 +886,8 @@ public class BlockRegenerationManager {
          * @param delay Delay in ticks
          */
         public void startTask(long delay) {
-            task = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    regenerateBlock();
-                }
-            }.runTaskLater(plugin, delay);
+            dueTime = System.currentTimeMillis() + delay * 50L;
+            task = plugin.getScheduler().runAtLocationLater(location, this::regenerateBlock, delay);
         }
         
         /**
@@ -285,29 +895,30 @@ public class BlockRegenerationManager {
          * @param delay Delay in ticks
          */
         public void startAnimatedTask(long delay) {
-            // First wait for the main delay
-            task = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    // Then start the animation
-                    startAnimation();
-                }
-            }.runTaskLater(plugin, delay);
+            dueTime = System.currentTimeMillis() + delay * 50L;
+            // First wait for the main delay, then start the animation
+            task = plugin.getScheduler().runAtLocationLater(location, this::startAnimation, delay);
         }
         
         /**
          * Start the block regeneration animation
          */
         private void startAnimation() {
-            task = new BukkitRunnable() {
+            // Don't animate blocks nobody can see, wait for the chunk instead
+            if (!canRestore()) {
+                park();
+                return;
+            }
+            
+            task = plugin.getScheduler().runAtLocationTimer(location, new Consumer<ScheduledTask>() {
                 private int step = 0;
                 private final int totalSteps = 10;
                 
                 @Override
-                public void run() {
+                public void accept(ScheduledTask scheduledTask) {
                     if (step >= totalSteps) {
                         regenerateBlock();
-                        this.cancel();
+                        scheduledTask.cancel();
                         return;
                     }
                     
@@ -323,13 +934,20 @@ public class BlockRegenerationManager {
                     
                     step++;
                 }
-            }.runTaskTimer(plugin, 0L, 2L);
+            }, 0L, 2L);
         }
         
         /**
          * Execute the block regeneration
          */
         private void regenerateBlock() {
+            // Setting the block would force-load the chunk, and in lazy mode
+            // nobody would see it, so park it instead
+            if (!canRestore()) {
+                park();
+                return;
+            }
+            
             // Play regeneration effect if enabled
             if (config.useEffects) {
                 Location loc = block.getLocation().clone().add(0.5, 0.5, 0.5);
@@ -343,10 +961,11 @@ public class BlockRegenerationManager {
             }
             
             // Restore the block state
-            block.setType(originalState.getType());
+            block.setType(material);
             
             // Remove from pending regeneration
-            pendingRegeneration.remove(block.getLocation());
+            pendingRegeneration.remove(location, this);
+            unindexTask(this);
         }
         
         /**
@@ -359,6 +978,70 @@ public class BlockRegenerationManager {
         }
     }
     
+    /**
+     * Outcome of an admin flush
+     */
+    public static class FlushResult {
+        private int queued;
+        private int waiting;
+        
+        /**
+         * Get the number of blocks in loaded chunks queued for restoration
+         * @return The number of blocks
+         */
+        public int getQueued() {
+            return queued;
+        }
+        
+        /**
+         * Get the number of blocks in unloaded chunks, restored once their chunk loads
+         * @return The number of blocks
+         */
+        public int getWaiting() {
+            return waiting;
+        }
+    }
+    
+    /**
+     * Snapshot of pending regenerations for admin introspection
+     */
+    public static class PendingSummary {
+        private int total;
+        private int parked;
+        private long oldestDue;
+        private final Map<String, Integer> byWorld = new TreeMap<>();
+        private final Map<String, Integer> byRegion = new TreeMap<>();
+        private final Map<String, Integer> byMaterial = new TreeMap<>();
+        
+        public int getTotal() {
+            return total;
+        }
+        
+        public int getParked() {
+            return parked;
+        }
+        
+        /**
+         * Get the earliest due time of all pending blocks
+         * @return Epoch millis, or 0 if nothing is pending
+         */
+        public long getOldestDue() {
+            return oldestDue;
+        }
+        
+        public Map<String, Integer> getByWorld() {
+            return byWorld;
+        }
+        
+        public Map<String, Integer> getByRegion() {
+            return byRegion;
+        }
+        
+        public Map<String, Integer> getByMaterial() {
+            return byMaterial;
+        }
+    }
+    
     /**
      * Configuration for block regeneration
      */
@@ -368,14 +1051,21 @@ public class BlockRegenerationManager {
         private final boolean useEffects;
         private final boolean useSound;
         private final RegenerationType type;
+        private final boolean veinMining;
+        private final int maxVeinSize;
+        private final int areaSize;
         
         public RegenerationConfig(int minTime, int maxTime, boolean useEffects, 
-                                 boolean useSound, RegenerationType type) {
+                                 boolean useSound, RegenerationType type,
+                                 boolean veinMining, int maxVeinSize, int areaSize) {
             this.minTime = minTime;
             this.maxTime = maxTime;
             this.useEffects = useEffects;
             this.useSound = useSound;
             this.type = type;
+            this.veinMining = veinMining;
+            this.maxVeinSize = maxVeinSize;
+            this.areaSize = areaSize;
         }
     }
     
@@ -0,0 +1,201 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.CappedReward;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Announces rare rewards to the whole server. Finds of the same reward within a short
+ * window are merged into one message, and every message is rendered once and sent as
+ * the same component to all players
+ */
+public class BroadcastManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<String, PendingBroadcast> pending = new ConcurrentHashMap<>();
+    
+    // Rate limit state, only touched on the global thread
+    private long minuteStart;
+    private int sentThisMinute;
+    
+    // Configuration
+    private volatile boolean enabled;
+    private double rarityThreshold;
+    private long mergeWindow;
+    private int maxPerMinute;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public BroadcastManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("broadcasts.enabled", true);
+        rarityThreshold = config.getDouble("broadcasts.rarity-threshold", 0.01);
+        mergeWindow = Math.max(1L, config.getLong("broadcasts.merge-window", 40L));
+        maxPerMinute = config.getInt("broadcasts.max-per-minute", 10);
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+    }
+    
+    /**
+     * Check if a reward is rare enough to be announced
+     * @param reward The reward
+     * @return True if the reward should be broadcast
+     */
+    public boolean isAnnounced(CappedReward reward) {
+        if (!enabled) {
+            return false;
+        }
+        
+        // An explicit broadcast setting in blocks.yml wins over the threshold
+        Boolean broadcast = reward.getBroadcast();
+        if (broadcast != null) {
+            return broadcast;
+        }
+        return reward.getProbability() <= rarityThreshold;
+    }
+    
+    /**
+     * Announce a reward found by a player if it's rare enough, merged with other
+     * finds of the same reward within the merge window
+     * @param player The player who found the reward
+     * @param reward The reward
+     * @param rewardName Display name of the reward
+     */
+    public void announce(Player player, CappedReward reward, String rewardName) {
+        announce(player, reward, rewardName, 1);
+    }
+    
+    /**
+     * Announce a number of finds of a reward by a player if it's rare enough
+     * @param player The player who found the reward
+     * @param reward The reward
+     * @param rewardName Display name of the reward
+     * @param amount Number of finds
+     */
+    public void announce(Player player, CappedReward reward, String rewardName, int amount) {
+        if (!isAnnounced(reward)) {
+            return;
+        }
+        
+        String playerName = player.getName();
+        boolean[] created = new boolean[1];
+        String key = reward.getCapKey() + "|" + rewardName;
+        pending.compute(key, (k, broadcast) -> {
+            if (broadcast == null) {
+                broadcast = new PendingBroadcast(rewardName);
+                created[0] = true;
+            }
+            broadcast.players.add(playerName);
+            broadcast.count += amount;
+            return broadcast;
+        });
+        
+        if (created[0]) {
+            plugin.getScheduler().runGlobalLater(() -> flush(key), mergeWindow);
+        }
+    }
+    
+    /**
+     * Send a merged broadcast once its window has passed
+     * @param key The merge key
+     */
+    private void flush(String key) {
+        PendingBroadcast broadcast = pending.remove(key);
+        if (broadcast == null || !tryAcquire()) {
+            return;
+        }
+        send(broadcast);
+    }
+    
+    /**
+     * Count a broadcast against the per-minute limit
+     * @return True if the broadcast may be sent
+     */
+    private boolean tryAcquire() {
+        if (maxPerMinute <= 0) {
+            return true;
+        }
+        
+        long now = System.currentTimeMillis();
+        if (now - minuteStart >= 60_000L) {
+            minuteStart = now;
+            sentThisMinute = 0;
+        }
+        return sentThisMinute++ < maxPerMinute;
+    }
+    
+    /**
+     * Render and send a broadcast to everyone online
+     * @param broadcast The merged broadcast
+     */
+    private void send(PendingBroadcast broadcast) {
+        // Removed from the pending map, so no other thread adds to it anymore
+        List<String> players = new ArrayList<>(broadcast.players);
+        int count = broadcast.count;
+        
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("reward", broadcast.rewardName);
+        placeholders.put("player", players.get(0));
+        placeholders.put("players", String.join(", ", players));
+        placeholders.put("count", String.valueOf(players.size()));
+        placeholders.put("amount", String.valueOf(count));
+        
+        String path;
+        if (players.size() > 1) {
+            path = "broadcast.merged";
+        } else if (count > 1) {
+            path = "broadcast.multiple";
+        } else {
+            path = "broadcast.single";
+        }
+        plugin.getMessageManager().broadcastMessage(path, placeholders);
+    }
+    
+    /**
+     * Send all broadcasts that are still waiting for their window
+     */
+    public void cancelAllTasks() {
+        for (String key : new ArrayList<>(pending.keySet())) {
+            PendingBroadcast broadcast = pending.remove(key);
+            if (broadcast != null) {
+                send(broadcast);
+            }
+        }
+    }
+    
+    /**
+     * Finds of one reward waiting to be announced together
+     */
+    private static class PendingBroadcast {
+        private final String rewardName;
+        private final Set<String> players = new LinkedHashSet<>();
+        private int count;
+        
+        private PendingBroadcast(String rewardName) {
+            this.rewardName = rewardName;
+        }
+    }
+}
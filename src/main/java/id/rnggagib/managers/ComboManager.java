@@ -1,35 +1,37 @@
 package id.rnggagib.managers;
 
 import id.rnggagib.BlockParty;
+import id.rnggagib.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages mining combos for BlockParty
+ * Manages mining combos for BlockParty. Each player's combo is a single state object
+ * with a millisecond deadline, so expiry is checked lazily when the combo is read.
+ * One shared ticker sends the warnings and expiry messages.
  */
 public class ComboManager {
+    // Ticks between checks of the shared ticker
+    private static final long TICK_INTERVAL = 10L;
+    
     private final BlockParty plugin;
     
     // Combo tracking
-    private final ConcurrentHashMap<UUID, Integer> currentCombos;
-    private final ConcurrentHashMap<UUID, Long> lastMineTime;
-    private final ConcurrentHashMap<UUID, BukkitTask> comboTimeoutTasks;
+    private final ConcurrentHashMap<UUID, ComboState> combos = new ConcurrentHashMap<>();
+    private ScheduledTask tickerTask;
     
     // Configuration
     private boolean comboEnabled;
-    private int comboExpiryTime; // seconds
-    private int comboExpireWarningTime; // seconds
+    private long comboExpiryMillis;
+    private long comboWarningMillis;
     private double baseRewardMultiplier;
     private int comboLevelUpThreshold;
     private boolean useSound;
@@ -41,9 +43,6 @@ public class ComboManager {
      */
     public ComboManager(BlockParty plugin) {
         this.plugin = plugin;
-        this.currentCombos = new ConcurrentHashMap<>();
-        this.lastMineTime = new ConcurrentHashMap<>();
-        this.comboTimeoutTasks = new ConcurrentHashMap<>();
         loadConfiguration();
     }
     
@@ -53,8 +52,8 @@ public class ComboManager {
     private void loadConfiguration() {
         FileConfiguration config = plugin.getConfigManager().getConfig();
         comboEnabled = config.getBoolean("combo.enabled", true);
-        comboExpiryTime = config.getInt("combo.expiry-time", 5);
-        comboExpireWarningTime = config.getInt("combo.warning-time", 3);
+        comboExpiryMillis = (long) (config.getDouble("combo.expiry-time", 5) * 1000L);
+        comboWarningMillis = (long) (config.getDouble("combo.warning-time", 3) * 1000L);
         baseRewardMultiplier = config.getDouble("combo.base-multiplier", 0.1);
         comboLevelUpThreshold = config.getInt("combo.level-threshold", 5);
         useSound = config.getBoolean("combo.use-sound", true);
@@ -79,22 +78,36 @@ public class ComboManager {
         }
         
         UUID uuid = player.getUniqueId();
+        long now = System.currentTimeMillis();
         
-        // Get current combo or default to 0
-        int currentCombo = currentCombos.getOrDefault(uuid, 0);
-        int newCombo = currentCombo + 1;
-        
-        // Update combo count
-        currentCombos.put(uuid, newCombo);
-        lastMineTime.put(uuid, Instant.now().getEpochSecond());
+        // Ticker removals go through the map too, so a break never extends a dropped state
+        int[] result = new int[2];
+        combos.compute(uuid, (id, state) -> {
+            if (state == null) {
+                state = new ComboState();
+            }
+            synchronized (state) {
+                // The combo ran out before the ticker got to it
+                if (state.combo > 0 && now >= state.deadline) {
+                    result[1] = state.combo;
+                    state.combo = 0;
+                }
+                
+                result[0] = ++state.combo;
+                state.deadline = now + comboExpiryMillis;
+                state.lastWarning = -1;
+            }
+            return state;
+        });
+        int newCombo = result[0];
+        int expiredCombo = result[1];
         
-        // Cancel existing timeout task if it exists
-        if (comboTimeoutTasks.containsKey(uuid)) {
-            comboTimeoutTasks.get(uuid).cancel();
+        if (expiredCombo > 1) {
+            sendExpired(player, expiredCombo);
         }
-        
-        // Schedule new timeout task
-        scheduleComboTimeout(player);
+        // The state is in the map before this, so a ticker stopping concurrently sees it
+        startTicker();
+        plugin.getLeaderboardManager().record(player, newCombo);
         
         // Play effects based on combo level
         playComboEffects(player, newCombo);
@@ -117,50 +130,118 @@ public class ComboManager {
     }
     
     /**
-     * Schedule the combo timeout task
-     * @param player The player
+     * Start the shared ticker if it isn't already running
      */
-    private void scheduleComboTimeout(Player player) {
-        UUID uuid = player.getUniqueId();
+    private synchronized void startTicker() {
+        if (tickerTask != null) {
+            return;
+        }
+        
+        tickerTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> tick(), TICK_INTERVAL, TICK_INTERVAL);
+    }
+    
+    /**
+     * Send warnings for combos about to expire and drop expired combos
+     */
+    private void tick() {
+        long now = System.currentTimeMillis();
         
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                long now = Instant.now().getEpochSecond();
-                long last = lastMineTime.getOrDefault(uuid, 0L);
+        for (Map.Entry<UUID, ComboState> entry : combos.entrySet()) {
+            UUID uuid = entry.getKey();
+            ComboState state = entry.getValue();
+            
+            int combo;
+            long remaining;
+            boolean warn = false;
+            synchronized (state) {
+                combo = state.combo;
+                remaining = state.deadline - now;
                 
-                // If combo should expire
-                if (now - last >= comboExpiryTime) {
-                    // Send message only if they had a combo
-                    if (currentCombos.containsKey(uuid) && currentCombos.get(uuid) > 1) {
-                        Map<String, String> placeholders = new HashMap<>();
-                        placeholders.put("combo", String.valueOf(currentCombos.get(uuid)));
-                        plugin.getMessageManager().sendMessage(player, "combo.expired", placeholders);
+                if (remaining > 0 && remaining <= comboWarningMillis && combo > 1) {
+                    // Warn once per second left
+                    int secondsLeft = (int) ((remaining + 999L) / 1000L);
+                    if (secondsLeft != state.lastWarning) {
+                        state.lastWarning = secondsLeft;
+                        warn = true;
                     }
-                    
-                    // Reset combo
-                    resetCombo(uuid);
-                    this.cancel();
-                } 
-                // If about to expire, send warning
-                else if (now - last >= comboExpiryTime - comboExpireWarningTime) {
-                    // Only send warning for actual combos
-                    if (currentCombos.getOrDefault(uuid, 0) > 1) {
-                        Map<String, String> placeholders = new HashMap<>();
-                        int timeLeft = comboExpiryTime - (int)(now - last);
-                        placeholders.put("time", String.valueOf(timeLeft));
-                        plugin.getMessageManager().sendActionBar(player, "combo.warning", placeholders);
-                        
-                        // Play warning sound
-                        if (useSound && player.isOnline()) {
-                            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f, 0.5f);
-                        }
+                }
+            }
+            
+            if (remaining <= 0) {
+                // Only drop the state if no break extended it in the meantime
+                boolean[] removed = new boolean[1];
+                combos.computeIfPresent(uuid, (id, current) -> {
+                    if (current == state && current.deadline <= now) {
+                        removed[0] = true;
+                        return null;
                     }
+                    return current;
+                });
+                if (!removed[0]) {
+                    continue;
+                }
+                
+                Player player = Bukkit.getPlayer(uuid);
+                if (player != null && combo > 1) {
+                    sendExpired(player, combo);
+                }
+            } else if (warn) {
+                Player player = Bukkit.getPlayer(uuid);
+                if (player != null) {
+                    sendWarning(player, (int) ((remaining + 999L) / 1000L));
                 }
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Check every second
+        }
         
-        comboTimeoutTasks.put(uuid, task);
+        stopTickerIfIdle();
+    }
+    
+    /**
+     * Stop the ticker once no combos are running. Starting and stopping share this
+     * monitor, and emptiness is checked again after the task is cleared, so a combo
+     * started while the ticker stops is never left without one.
+     */
+    private synchronized void stopTickerIfIdle() {
+        if (tickerTask == null || !combos.isEmpty()) {
+            return;
+        }
+        
+        tickerTask.cancel();
+        tickerTask = null;
+        if (!combos.isEmpty()) {
+            startTicker();
+        }
+    }
+    
+    /**
+     * Tell a player their combo expired
+     * @param player The player
+     * @param combo The combo that expired
+     */
+    private void sendExpired(Player player, int combo) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("combo", String.valueOf(combo));
+        plugin.getMessageManager().sendMessage(player, "combo.expired", placeholders);
+    }
+    
+    /**
+     * Warn a player their combo is about to expire
+     * @param player The player
+     * @param timeLeft Seconds left
+     */
+    private void sendWarning(Player player, int timeLeft) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("time", String.valueOf(timeLeft));
+        plugin.getMessageManager().sendActionBar(player, "combo.warning", placeholders);
+        
+        // Play warning sound on the player's thread
+        if (useSound) {
+            plugin.getScheduler().executeFor(player, () -> {
+                if (player.isOnline()) {
+                    player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f, 0.5f);
+                }
+            });
+        }
     }
     
     /**
@@ -168,13 +249,7 @@ public class ComboManager {
      * @param uuid The player's UUID
      */
     public void resetCombo(UUID uuid) {
-        currentCombos.remove(uuid);
-        lastMineTime.remove(uuid);
-        
-        if (comboTimeoutTasks.containsKey(uuid)) {
-            comboTimeoutTasks.get(uuid).cancel();
-            comboTimeoutTasks.remove(uuid);
-        }
+        combos.remove(uuid);
     }
     
     /**
@@ -237,7 +312,15 @@ public class ComboManager {
      * @return The current combo count
      */
     public int getCurrentCombo(UUID uuid) {
-        return currentCombos.getOrDefault(uuid, 0);
+        ComboState state = combos.get(uuid);
+        if (state == null) {
+            return 0;
+        }
+        
+        synchronized (state) {
+            // Expired combos count as zero even before the ticker drops them
+            return System.currentTimeMillis() < state.deadline ? state.combo : 0;
+        }
     }
     
     /**
@@ -246,11 +329,22 @@ public class ComboManager {
      * @return The reward multiplier
      */
     public double getComboMultiplier(int combo) {
-        if (!comboEnabled || combo <= 1) {
+        return computeMultiplier(comboEnabled, baseRewardMultiplier, combo);
+    }
+    
+    /**
+     * Calculate the reward multiplier of a combo, also used by the reward simulator
+     * @param enabled Whether combos are enabled
+     * @param baseMultiplier Multiplier increment per combo
+     * @param combo The combo count
+     * @return The reward multiplier
+     */
+    public static double computeMultiplier(boolean enabled, double baseMultiplier, int combo) {
+        if (!enabled || combo <= 1) {
             return 1.0;
         }
         
-        return 1.0 + (baseRewardMultiplier * (combo - 1));
+        return 1.0 + (baseMultiplier * (combo - 1));
     }
     
     /**
@@ -265,12 +359,20 @@ public class ComboManager {
     /**
      * Clean up on plugin disable
      */
-    public void cancelAllTasks() {
-        for (BukkitTask task : comboTimeoutTasks.values()) {
-            task.cancel();
+    public synchronized void cancelAllTasks() {
+        if (tickerTask != null) {
+            tickerTask.cancel();
+            tickerTask = null;
         }
-        comboTimeoutTasks.clear();
-        currentCombos.clear();
-        lastMineTime.clear();
+        combos.clear();
+    }
+    
+    /**
+     * A player's combo and the moment it expires
+     */
+    private static class ComboState {
+        private int combo;
+        private long deadline;
+        private int lastWarning = -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.CrateKeyProvider;
+import id.rnggagib.rewards.CrateKeyReward;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delivers crate key rewards in batches: keys of the same type won by the same player
+ * within a short window are merged into a single delivery, and deliveries are drained
+ * under a per-tick budget
+ */
+public class CrateKeyDeliveryManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<String, PendingDelivery> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PendingDelivery> queue = new ConcurrentLinkedQueue<>();
+    private ScheduledTask deliveryTask;
+    private volatile CrateKeyProvider provider;
+    
+    // Configuration
+    private long windowMillis;
+    private int deliveriesPerTick;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public CrateKeyDeliveryManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        
+        // Pick up a crate plugin that registered a direct adapter
+        provider = Bukkit.getServicesManager().load(CrateKeyProvider.class);
+        if (provider != null) {
+            plugin.getLogger().info("Delivering crate keys through " + provider.getClass().getName());
+        }
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        windowMillis = Math.max(0L, config.getLong("crate-key-delivery.merge-window", 10L)) * 50L;
+        deliveriesPerTick = Math.max(1, config.getInt("crate-key-delivery.budget", 8));
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+    }
+    
+    /**
+     * Set the direct crate plugin adapter
+     * @param provider The adapter, or null to always dispatch commands
+     */
+    public void setProvider(CrateKeyProvider provider) {
+        this.provider = provider;
+    }
+    
+    /**
+     * Queue a crate key for a player, merging it with keys of the same type still waiting
+     * @param player The player
+     * @param reward The crate key reward
+     */
+    public void queue(Player player, CrateKeyReward reward) {
+        queue(player, reward, 1);
+    }
+    
+    /**
+     * Queue a number of crate keys for a player, merging them with keys of the same type still waiting
+     * @param player The player
+     * @param reward The crate key reward
+     * @param amount Number of keys
+     */
+    public void queue(Player player, CrateKeyReward reward, int amount) {
+        UUID playerId = player.getUniqueId();
+        String playerName = player.getName();
+        
+        pending.compute(playerId + ":" + reward.getName(), (key, delivery) -> {
+            if (delivery == null) {
+                delivery = new PendingDelivery(key, playerId, playerName, reward, System.currentTimeMillis() + windowMillis);
+                queue.add(delivery);
+            }
+            delivery.amount += amount;
+            return delivery;
+        });
+        
+        startDeliveryTask();
+    }
+    
+    /**
+     * Start the delivery task if it isn't already running
+     */
+    private synchronized void startDeliveryTask() {
+        if (deliveryTask != null) {
+            return;
+        }
+        
+        // Console commands have to run on the global thread on Folia
+        deliveryTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> drain(false), 1L, 1L);
+    }
+    
+    /**
+     * Deliver merged keys whose window has passed, up to the per-tick budget
+     * @param all True to deliver everything right away, ignoring window and budget
+     */
+    private void drain(boolean all) {
+        long now = System.currentTimeMillis();
+        int delivered = 0;
+        
+        PendingDelivery delivery;
+        while ((all || delivered < deliveriesPerTick) && (delivery = queue.peek()) != null) {
+            // The queue is ordered by window end, so nothing behind this one is due either
+            if (!all && delivery.readyAt > now) {
+                break;
+            }
+            queue.poll();
+            
+            // Close the delivery so later keys start a new one
+            int[] amount = new int[1];
+            pending.compute(delivery.key, (key, current) -> {
+                if (current != null) {
+                    amount[0] = current.amount;
+                }
+                return null;
+            });
+            
+            if (amount[0] > 0) {
+                deliver(delivery, amount[0]);
+                delivered++;
+            }
+        }
+        
+        synchronized (this) {
+            if (queue.isEmpty() && deliveryTask != null) {
+                deliveryTask.cancel();
+                deliveryTask = null;
+            }
+        }
+    }
+    
+    /**
+     * Give merged keys through the adapter or the configured command
+     * @param delivery The delivery
+     * @param amount Number of keys
+     */
+    private void deliver(PendingDelivery delivery, int amount) {
+        CrateKeyReward reward = delivery.reward;
+        
+        CrateKeyProvider provider = this.provider;
+        if (provider != null && provider.hasKey(reward.getName())) {
+            try {
+                if (provider.giveKeys(delivery.playerId, delivery.playerName, reward.getName(), amount)) {
+                    return;
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error giving crate keys through " + provider.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+        
+        String command = reward.getCommand().replace("%player%", delivery.playerName);
+        if (command.contains("%amount%")) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.replace("%amount%", String.valueOf(amount)));
+            return;
+        }
+        
+        // Commands without an amount placeholder can only give one key at a time
+        for (int i = 0; i < amount; i++) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        }
+    }
+    
+    /**
+     * Deliver all waiting keys right away and stop the delivery task
+     */
+    public void cancelAllTasks() {
+        drain(true);
+    }
+    
+    /**
+     * Keys of one type waiting to be delivered to one player
+     */
+    private static class PendingDelivery {
+        private final String key;
+        private final UUID playerId;
+        private final String playerName;
+        private final CrateKeyReward reward;
+        private final long readyAt;
+        private int amount;
+        
+        public PendingDelivery(String key, UUID playerId, String playerName, CrateKeyReward reward, long readyAt) {
+            this.key = key;
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.reward = reward;
+            this.readyAt = readyAt;
+        }
+    }
+}
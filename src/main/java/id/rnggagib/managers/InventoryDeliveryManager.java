@@ -0,0 +1,155 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers reward items per player and inserts them into the inventory once per tick.
+ * Similar stacks are merged before insertion, and items that don't fit are moved
+ * to the player's stash.
+ */
+public class InventoryDeliveryManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<UUID, PendingItems> pending = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public InventoryDeliveryManager(BlockParty plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Queue an item for a player, to be inserted with the other items of this tick
+     * @param player The player
+     * @param item The item
+     */
+    public void give(Player player, ItemStack item) {
+        if (item == null || item.getAmount() <= 0) {
+            return;
+        }
+        
+        PendingItems items = pending.computeIfAbsent(player.getUniqueId(), id -> new PendingItems());
+        boolean schedule;
+        synchronized (items) {
+            items.add(item.clone());
+            schedule = !items.flushScheduled;
+            items.flushScheduled = true;
+        }
+        
+        if (schedule) {
+            plugin.getScheduler().runForEntityLater(player, () -> flush(player), 1L);
+        }
+    }
+    
+    /**
+     * Insert all buffered items of a player in a single inventory update
+     * @param player The player
+     */
+    private void flush(Player player) {
+        UUID playerId = player.getUniqueId();
+        PendingItems items = pending.get(playerId);
+        if (items == null) {
+            return;
+        }
+        
+        ItemStack[] stacks;
+        synchronized (items) {
+            items.flushScheduled = false;
+            if (!player.isOnline() || items.stacks.isEmpty()) {
+                return;
+            }
+            stacks = items.stacks.toArray(new ItemStack[0]);
+            items.stacks.clear();
+        }
+        
+        Map<Integer, ItemStack> leftovers = player.getInventory().addItem(stacks);
+        
+        boolean notify;
+        synchronized (items) {
+            notify = !leftovers.isEmpty() && !items.full;
+            items.full = !leftovers.isEmpty();
+            if (!items.full && !items.flushScheduled) {
+                pending.remove(playerId, items);
+            }
+        }
+        
+        if (!leftovers.isEmpty()) {
+            plugin.getStashManager().add(playerId, leftovers.values());
+        }
+        if (notify) {
+            plugin.getMessageManager().sendMessage(player, "rewards.inventory-full");
+        }
+    }
+    
+    /**
+     * Move a player's buffered items to their stash, e.g. when they quit
+     * @param playerId The player's UUID
+     */
+    public void stashPending(UUID playerId) {
+        PendingItems items = pending.remove(playerId);
+        if (items == null) {
+            return;
+        }
+        
+        List<ItemStack> stacks;
+        synchronized (items) {
+            stacks = new ArrayList<>(items.stacks);
+            items.stacks.clear();
+        }
+        plugin.getStashManager().add(playerId, stacks);
+    }
+    
+    /**
+     * Move all buffered items to the stashes
+     */
+    public void cancelAllTasks() {
+        for (UUID playerId : new ArrayList<>(pending.keySet())) {
+            stashPending(playerId);
+        }
+    }
+    
+    /**
+     * Items waiting to be inserted into one player's inventory
+     */
+    private static class PendingItems {
+        private final List<ItemStack> stacks = new ArrayList<>();
+        private boolean flushScheduled;
+        private boolean full;
+        
+        /**
+         * Add an item, filling up similar stacks to the max stack size first
+         * @param item The item, owned by the buffer afterwards
+         */
+        private void add(ItemStack item) {
+            int maxStackSize = Math.max(1, item.getMaxStackSize());
+            int amount = item.getAmount();
+            
+            for (ItemStack stack : stacks) {
+                if (amount <= 0) {
+                    return;
+                }
+                if (stack.getAmount() < maxStackSize && stack.isSimilar(item)) {
+                    int moved = Math.min(amount, maxStackSize - stack.getAmount());
+                    stack.setAmount(stack.getAmount() + moved);
+                    amount -= moved;
+                }
+            }
+            
+            while (amount > 0) {
+                ItemStack stack = item.clone();
+                stack.setAmount(Math.min(amount, maxStackSize));
+                stacks.add(stack);
+                amount -= stack.getAmount();
+            }
+        }
+    }
+}
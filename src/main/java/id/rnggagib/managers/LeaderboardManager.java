@@ -0,0 +1,254 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.leaderboard.Leaderboard;
+import id.rnggagib.leaderboard.LeaderboardEntry;
+import id.rnggagib.leaderboard.LeaderboardPeriod;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Keeps the best combos of the day, the week and all time. Combos are submitted from
+ * {@link ComboManager#incrementCombo}, daily and weekly boards start over lazily once
+ * their period ends, and changed boards are saved asynchronously.
+ */
+public class LeaderboardManager {
+    private final BlockParty plugin;
+    private final Map<LeaderboardPeriod, Leaderboard> boards = new EnumMap<>(LeaderboardPeriod.class);
+    private final File file;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Object ioLock = new Object();
+    private ScheduledTask saveTask;
+    
+    // Configuration
+    private volatile boolean enabled;
+    private int size;
+    private int shown;
+    private ZoneId zone;
+    private DayOfWeek weekStart;
+    private long saveInterval;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public LeaderboardManager(BlockParty plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "leaderboards.yml");
+        loadConfiguration();
+        
+        long now = System.currentTimeMillis();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            boards.put(period, new Leaderboard(size, period.getEnd(now, zone, weekStart)));
+        }
+        load();
+        startSaveTask();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("leaderboards.enabled", true);
+        size = Math.max(1, config.getInt("leaderboards.size", 100));
+        shown = Math.max(1, config.getInt("leaderboards.shown", 10));
+        saveInterval = Math.max(20L, config.getLong("leaderboards.save-interval", 1200L));
+        
+        String timezone = config.getString("leaderboards.timezone", "");
+        try {
+            zone = timezone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(timezone);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Invalid leaderboards timezone: " + timezone + ". Using the server's timezone instead.");
+            zone = ZoneId.systemDefault();
+        }
+        
+        String day = config.getString("leaderboards.week-start", "MONDAY");
+        try {
+            weekStart = DayOfWeek.valueOf(day.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid leaderboards week-start: " + day + ". Using MONDAY instead.");
+            weekStart = DayOfWeek.MONDAY;
+        }
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+        for (Leaderboard board : boards.values()) {
+            board.setCapacity(size);
+        }
+        stopSaveTask();
+        startSaveTask();
+    }
+    
+    /**
+     * Submit a player's current combo to all leaderboards
+     * @param player The player
+     * @param combo The combo
+     */
+    public void record(Player player, int combo) {
+        if (!enabled) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (getBoard(period, now).submit(player.getUniqueId(), player.getName(), combo, now)) {
+                dirty.set(true);
+            }
+        }
+    }
+    
+    /**
+     * Get the highest entries of a leaderboard
+     * @param period The period
+     * @param limit Maximum number of entries
+     * @return The entries from the top down
+     */
+    public List<LeaderboardEntry> getTop(LeaderboardPeriod period, int limit) {
+        return getBoard(period, System.currentTimeMillis()).getTop(limit);
+    }
+    
+    /**
+     * Get the entry at a rank of a leaderboard
+     * @param period The period
+     * @param rank The rank, starting at 1
+     * @return The entry, or null if the rank is empty
+     */
+    public LeaderboardEntry getEntry(LeaderboardPeriod period, int rank) {
+        return getBoard(period, System.currentTimeMillis()).get(rank);
+    }
+    
+    /**
+     * Get the number of entries /bp top shows
+     * @return The number of entries
+     */
+    public int getShown() {
+        return shown;
+    }
+    
+    /**
+     * Get a leaderboard, starting it over first if its period ended
+     * @param period The period
+     * @param now Epoch milliseconds
+     * @return The leaderboard
+     */
+    private Leaderboard getBoard(LeaderboardPeriod period, long now) {
+        Leaderboard board = boards.get(period);
+        if (now >= board.getPeriodEnd() && board.rollOver(now, period.getEnd(now, zone, weekStart))) {
+            dirty.set(true);
+        }
+        return board;
+    }
+    
+    /**
+     * Load the leaderboards from file
+     */
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        
+        FileConfiguration data = YamlConfiguration.loadConfiguration(file);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            ConfigurationSection section = data.getConfigurationSection(period.getKey());
+            if (section == null) {
+                continue;
+            }
+            
+            // Boards of a period that already ended stay empty
+            if (section.getLong("period-end", Long.MAX_VALUE) <= System.currentTimeMillis()) {
+                continue;
+            }
+            
+            ConfigurationSection entries = section.getConfigurationSection("entries");
+            if (entries == null) {
+                continue;
+            }
+            
+            Leaderboard board = boards.get(period);
+            for (String key : entries.getKeys(false)) {
+                try {
+                    board.submit(UUID.fromString(key), entries.getString(key + ".name", "?"),
+                            entries.getInt(key + ".combo"), entries.getLong(key + ".time"));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid leaderboard entry: " + key);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Write the leaderboards to file if they changed
+     */
+    private void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        
+        FileConfiguration data = new YamlConfiguration();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            Leaderboard board = boards.get(period);
+            data.set(period.getKey() + ".period-end", board.getPeriodEnd());
+            for (LeaderboardEntry entry : board.getEntries()) {
+                String path = period.getKey() + ".entries." + entry.getUuid();
+                data.set(path + ".name", entry.getName());
+                data.set(path + ".combo", entry.getCombo());
+                data.set(path + ".time", entry.getAchievedAt());
+            }
+        }
+        
+        synchronized (ioLock) {
+            try {
+                data.save(file);
+            } catch (IOException e) {
+                dirty.set(true);
+                plugin.getLogger().log(Level.SEVERE, "Could not save leaderboards", e);
+            }
+        }
+    }
+    
+    /**
+     * Start the periodic save task
+     */
+    private synchronized void startSaveTask() {
+        if (saveTask == null) {
+            saveTask = plugin.getScheduler().runAsyncTimer(scheduledTask -> save(), saveInterval, saveInterval);
+        }
+    }
+    
+    /**
+     * Stop the periodic save task
+     */
+    private synchronized void stopSaveTask() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+    }
+    
+    /**
+     * Stop saving periodically and write the leaderboards if they changed
+     */
+    public void cancelAllTasks() {
+        stopSaveTask();
+        save();
+    }
+}
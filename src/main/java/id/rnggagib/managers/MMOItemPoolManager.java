@@ -0,0 +1,313 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.MMOItemReward;
+import id.rnggagib.rewards.RewardPool;
+import id.rnggagib.scheduler.ScheduledTask;
+import net.Indyuce.mmoitems.MMOItems;
+import net.Indyuce.mmoitems.api.item.mmoitem.MMOItem;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps pre-built MMOItems reward stacks so drops don't build items on the break path.
+ * Fixed-stat items are cloned from a single template, random-stat items are built
+ * ahead of time by a refill task that stays within a per-tick time budget. Items whose
+ * samples all matched are re-checked now and then, in case their stats are random after all.
+ */
+public class MMOItemPoolManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<String, ItemPool> pools = new ConcurrentHashMap<>();
+    private ScheduledTask refillTask;
+    
+    // Bumped on invalidation so items built for an old pool are thrown away
+    private final AtomicInteger generation = new AtomicInteger();
+    
+    // Configuration
+    private boolean enabled;
+    private int poolSize;
+    private long refillBudgetNanos;
+    private int detectSamples;
+    private int recheckInterval;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public MMOItemPoolManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        warmUp();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("mmoitems-pool.enabled", true);
+        poolSize = Math.max(1, config.getInt("mmoitems-pool.size", 4));
+        refillBudgetNanos = Math.max(1L, config.getLong("mmoitems-pool.refill-budget-ms", 2L)) * 1_000_000L;
+        detectSamples = Math.max(2, config.getInt("mmoitems-pool.detect-samples", 4));
+        recheckInterval = Math.max(1, config.getInt("mmoitems-pool.recheck-interval", 50));
+    }
+    
+    /**
+     * Reload configuration and rebuild all pools
+     */
+    public void reload() {
+        loadConfiguration();
+        invalidate();
+        warmUp();
+    }
+    
+    /**
+     * Drop all pooled items, e.g. after MMOItems reloaded its item configs
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        pools.clear();
+    }
+    
+    /**
+     * Create the pools of all configured MMOItems rewards and start filling them
+     */
+    public void warmUp() {
+        if (!enabled || !plugin.getRewardManager().getTable().isMmoItemsAvailable()) {
+            return;
+        }
+        
+        for (RewardPool rewards : plugin.getRewardManager().getTable().getPools()) {
+            for (MMOItemReward reward : rewards.getMmoItemRewards().getEntries()) {
+                if (reward.getResolvedType() != null) {
+                    getPool(reward);
+                }
+            }
+        }
+        startRefillTask();
+    }
+    
+    /**
+     * Take a ready item for a reward
+     * @param reward The reward
+     * @return The item, or null if MMOItems doesn't know the item
+     */
+    public ItemStack take(MMOItemReward reward) {
+        if (!enabled) {
+            return build(reward);
+        }
+        
+        ItemPool pool = getPool(reward);
+        ItemStack template = pool.template;
+        if (template != null) {
+            // Compare a fresh build with the template every so many drops, off the break path
+            if (pool.takes.incrementAndGet() % recheckInterval == 0) {
+                pool.recheck = true;
+                startRefillTask();
+            }
+            return template.clone();
+        }
+        
+        ItemStack item = pool.items.poll();
+        if (item != null) {
+            pool.size.decrementAndGet();
+            startRefillTask();
+            return item;
+        }
+        
+        // Pool ran dry, build this one on the spot
+        startRefillTask();
+        return build(reward);
+    }
+    
+    /**
+     * Get or create the pool of a reward
+     * @param reward The reward
+     * @return The pool
+     */
+    private ItemPool getPool(MMOItemReward reward) {
+        return pools.computeIfAbsent(reward.getType() + ":" + reward.getId(), key -> createPool(reward));
+    }
+    
+    /**
+     * Create a pool, detecting fixed-stat items by building several samples and comparing them.
+     * Narrow random ranges can still give matching samples, those are caught by the re-check.
+     * @param reward The reward
+     * @return The new pool
+     */
+    private ItemPool createPool(MMOItemReward reward) {
+        ItemPool pool = new ItemPool(reward, generation.get());
+        
+        List<ItemStack> samples = new ArrayList<>(detectSamples);
+        boolean fixed = true;
+        for (int i = 0; i < detectSamples; i++) {
+            ItemStack sample = build(reward);
+            if (sample == null) {
+                pool.invalid = true;
+                return pool;
+            }
+            
+            fixed &= samples.isEmpty() || samples.get(0).isSimilar(sample);
+            samples.add(sample);
+        }
+        
+        if (fixed) {
+            pool.template = samples.get(0);
+        } else {
+            pool.items.addAll(samples);
+            pool.size.addAndGet(samples.size());
+        }
+        return pool;
+    }
+    
+    /**
+     * Build a fresh item for a fixed-stat pool and switch the pool to pre-built items if it
+     * differs from the template
+     * @param pool The pool
+     */
+    private void recheck(ItemPool pool) {
+        pool.recheck = false;
+        ItemStack template = pool.template;
+        ItemStack item = build(pool.reward);
+        if (template == null || item == null || template.isSimilar(item)) {
+            return;
+        }
+        
+        // Both are valid rolls, keep them for the next drops
+        pool.items.add(template);
+        pool.items.add(item);
+        pool.size.addAndGet(2);
+        pool.template = null;
+        plugin.getLogger().info("MMOItem " + pool.reward.getType() + ":" + pool.reward.getId()
+                + " has random stats, building it ahead of time from now on");
+    }
+    
+    /**
+     * Build a fresh item for a reward
+     * @param reward The reward
+     * @return The item or null if MMOItems doesn't know it
+     */
+    private ItemStack build(MMOItemReward reward) {
+        if (reward.getResolvedType() == null) {
+            return null;
+        }
+        
+        MMOItem mmoItem = MMOItems.plugin.getMMOItem(reward.getResolvedType(), reward.getId());
+        return mmoItem != null ? mmoItem.newBuilder().build() : null;
+    }
+    
+    /**
+     * Start the refill task if it isn't already running
+     */
+    private synchronized void startRefillTask() {
+        if (refillTask != null) {
+            return;
+        }
+        
+        refillTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> refill(), 1L, 1L);
+    }
+    
+    /**
+     * Build items for pools below their target size until the tick budget is spent
+     */
+    private void refill() {
+        long deadline = System.nanoTime() + refillBudgetNanos;
+        int currentGeneration = generation.get();
+        boolean full = true;
+        
+        for (ItemPool pool : pools.values()) {
+            if (pool.recheck && pool.generation == currentGeneration) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                
+                try {
+                    recheck(pool);
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error building MMOItem: " + e.getMessage());
+                }
+            }
+            
+            while (pool.needsRefill(poolSize)) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                
+                ItemStack item;
+                try {
+                    item = build(pool.reward);
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error building MMOItem: " + e.getMessage());
+                    item = null;
+                }
+                
+                // Stop filling pools of unknown items or from before an invalidation
+                if (item == null) {
+                    pool.invalid = true;
+                    break;
+                }
+                if (pool.generation != currentGeneration) {
+                    break;
+                }
+                
+                pool.items.add(item);
+                pool.size.incrementAndGet();
+            }
+            
+            if (pool.needsRefill(poolSize)) {
+                full = false;
+            }
+        }
+        
+        if (full) {
+            stopRefillTask();
+        }
+    }
+    
+    /**
+     * Stop the refill task
+     */
+    private synchronized void stopRefillTask() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+    }
+    
+    /**
+     * Stop refilling and drop all pools
+     */
+    public void cancelAllTasks() {
+        stopRefillTask();
+        invalidate();
+    }
+    
+    /**
+     * Pre-built items of a single reward
+     */
+    private static class ItemPool {
+        private final MMOItemReward reward;
+        private final int generation;
+        private final ConcurrentLinkedQueue<ItemStack> items = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger takes = new AtomicInteger();
+        private volatile ItemStack template;
+        private volatile boolean invalid;
+        private volatile boolean recheck;
+        
+        public ItemPool(MMOItemReward reward, int generation) {
+            this.reward = reward;
+            this.generation = generation;
+        }
+        
+        public boolean needsRefill(int poolSize) {
+            return template == null && !invalid && size.get() < poolSize;
+        }
+    }
+}
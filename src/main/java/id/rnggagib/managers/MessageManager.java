@@ -120,6 +120,20 @@ public class MessageManager {
         }
     }
     
+    /**
+     * Send a message to every online player and the console. The message is
+     * rendered once and the same component is sent to every player.
+     * @param path The message path
+     * @param placeholders Placeholders to replace
+     */
+    public void broadcastMessage(String path, Map<String, String> placeholders) {
+        String message = prefix + replacePlaceholders(getMessage(path), placeholders);
+        Component component = formatMessage(message);
+        
+        adventure.players().sendMessage(component);
+        plugin.getServer().getConsoleSender().sendMessage(stripMiniMessage(message));
+    }
+    
     /**
      * Send a message to a player or command sender with prefix
      * @param sender The recipient
@@ -1,12 +1,11 @@
 package id.rnggagib.managers;
 
 import id.rnggagib.BlockParty;
+import id.rnggagib.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -20,8 +19,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MiningSessionManager {
     private final BlockParty plugin;
     private final ConcurrentHashMap<UUID, Long> activeSessions;
-    private final ConcurrentHashMap<UUID, BukkitTask> actionBarTasks;
-    private final ConcurrentHashMap<UUID, BukkitTask> sessionEndTasks;
+    private final ConcurrentHashMap<UUID, ScheduledTask> actionBarTasks;
+    private final ConcurrentHashMap<UUID, ScheduledTask> sessionEndTasks;
     
     // Configuration
     private int sessionDuration;
@@ -71,12 +70,9 @@ public class MiningSessionManager {
         plugin.getMessageManager().sendMessage(player, "timer.started");
         
         // Schedule session end
-        BukkitTask sessionEndTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                endSession(uuid, true); // true indicates the session expired naturally
-            }
-        }.runTaskLater(plugin, sessionDuration * 20L); // Convert seconds to ticks
+        ScheduledTask sessionEndTask = plugin.getScheduler().runForEntityLater(player, () -> {
+            endSession(uuid, true); // true indicates the session expired naturally
+        }, sessionDuration * 20L); // Convert seconds to ticks
         
         sessionEndTasks.put(uuid, sessionEndTask);
         
@@ -99,40 +95,31 @@ public class MiningSessionManager {
         UUID uuid = player.getUniqueId();
         
         // Warning at 60 seconds
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (hasActiveSession(uuid)) {
-                    Map<String, String> placeholders = new HashMap<>();
-                    placeholders.put("time", "60 seconds");
-                    plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
-                }
+        plugin.getScheduler().runForEntityLater(player, () -> {
+            if (hasActiveSession(uuid)) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("time", "60 seconds");
+                plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
             }
-        }.runTaskLater(plugin, (sessionDuration - 60) * 20L);
+        }, (sessionDuration - 60) * 20L);
         
         // Warning at 30 seconds
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (hasActiveSession(uuid)) {
-                    Map<String, String> placeholders = new HashMap<>();
-                    placeholders.put("time", "30 seconds");
-                    plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
-                }
+        plugin.getScheduler().runForEntityLater(player, () -> {
+            if (hasActiveSession(uuid)) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("time", "30 seconds");
+                plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
             }
-        }.runTaskLater(plugin, (sessionDuration - 30) * 20L);
+        }, (sessionDuration - 30) * 20L);
         
         // Warning at 10 seconds
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (hasActiveSession(uuid)) {
-                    Map<String, String> placeholders = new HashMap<>();
-                    placeholders.put("time", "10 seconds");
-                    plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
-                }
+        plugin.getScheduler().runForEntityLater(player, () -> {
+            if (hasActiveSession(uuid)) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("time", "10 seconds");
+                plugin.getMessageManager().sendMessage(player, "timer.warning", placeholders);
             }
-        }.runTaskLater(plugin, (sessionDuration - 10) * 20L);
+        }, (sessionDuration - 10) * 20L);
     }
     
     /**
@@ -142,39 +129,36 @@ public class MiningSessionManager {
     private void startActionBarTimer(Player player) {
         UUID uuid = player.getUniqueId();
         
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Check if session is still active
-                if (!hasActiveSession(uuid)) {
-                    this.cancel();
-                    return;
-                }
-                
-                // Get remaining time
-                long currentTime = Instant.now().getEpochSecond();
-                long endTime = activeSessions.get(uuid);
-                long timeRemaining = Math.max(0, endTime - currentTime);
-                
-                // Format time as minutes:seconds
-                String formattedTime = String.format("%d:%02d", timeRemaining / 60, timeRemaining % 60);
-                
-                // Send action bar with enhanced formatting
-                Map<String, String> placeholders = new HashMap<>();
-                placeholders.put("time", formattedTime);
+        ScheduledTask task = plugin.getScheduler().runForEntityTimer(player, scheduledTask -> {
+            // Check if session is still active
+            if (!hasActiveSession(uuid)) {
+                scheduledTask.cancel();
+                return;
+            }
+            
+            // Get remaining time
+            long currentTime = Instant.now().getEpochSecond();
+            long endTime = activeSessions.get(uuid);
+            long timeRemaining = Math.max(0, endTime - currentTime);
+            
+            // Format time as minutes:seconds
+            String formattedTime = String.format("%d:%02d", timeRemaining / 60, timeRemaining % 60);
+            
+            // Send action bar with enhanced formatting
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("time", formattedTime);
+            
+            Player onlinePlayer = Bukkit.getPlayer(uuid);
+            if (onlinePlayer != null && onlinePlayer.isOnline()) {
+                // Use more prominent formatting for the action bar timer
+                plugin.getMessageManager().sendActionBar(onlinePlayer, "timer.action-bar-enhanced", placeholders);
                 
-                Player onlinePlayer = Bukkit.getPlayer(uuid);
-                if (onlinePlayer != null && onlinePlayer.isOnline()) {
-                    // Use more prominent formatting for the action bar timer
-                    plugin.getMessageManager().sendActionBar(onlinePlayer, "timer.action-bar-enhanced", placeholders);
-                    
-                    // If time is running low (less than 30 seconds), play sound notification
-                    if (timeRemaining <= 30 && timeRemaining % 5 == 0) {
-                        onlinePlayer.playSound(onlinePlayer.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
-                    }
+                // If time is running low (less than 30 seconds), play sound notification
+                if (timeRemaining <= 30 && timeRemaining % 5 == 0) {
+                    onlinePlayer.playSound(onlinePlayer.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
                 }
             }
-        }.runTaskTimer(plugin, 0, timerUpdateFrequency);
+        }, 0, timerUpdateFrequency);
         
         actionBarTasks.put(uuid, task);
     }
@@ -0,0 +1,204 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.EconomyProvider;
+import id.rnggagib.rewards.StubEconomyProvider;
+import id.rnggagib.rewards.VaultEconomyProvider;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deposits money rewards in batches: amounts are summed per player in memory and
+ * handed to the economy provider every few seconds, so a block break never waits
+ * for the economy plugin
+ */
+public class MoneyDeliveryManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<UUID, Double> pending = new ConcurrentHashMap<>();
+    private ScheduledTask flushTask;
+    private volatile EconomyProvider provider;
+    
+    // Configuration
+    private long flushInterval;
+    private boolean async;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public MoneyDeliveryManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        
+        // Economy plugins register with Vault on enable, so look it up once all plugins are loaded
+        plugin.getScheduler().runGlobal(this::lookupProvider);
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        flushInterval = Math.max(1L, config.getLong("economy.flush-interval", 5L)) * 20L;
+        async = config.getBoolean("economy.async", false);
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+        stopFlushTask();
+        lookupProvider();
+    }
+    
+    /**
+     * Pick the economy provider configured in config.yml
+     */
+    private void lookupProvider() {
+        String name = plugin.getConfigManager().getConfig().getString("economy.provider", "vault");
+        EconomyProvider provider = null;
+        if (name.equalsIgnoreCase("stub")) {
+            provider = new StubEconomyProvider();
+        } else if (Bukkit.getPluginManager().getPlugin("Vault") != null) {
+            // Only touch the Vault classes when Vault is installed
+            provider = VaultEconomyProvider.lookup();
+        }
+        if (provider == null) {
+            plugin.getLogger().warning("No Vault economy found, money rewards won't be deposited");
+        } else if (this.provider == null || !this.provider.getName().equals(provider.getName())) {
+            plugin.getLogger().info("Depositing money rewards through " + provider.getName());
+        }
+        
+        // Keep the stub's balances across reloads
+        if (!(provider instanceof StubEconomyProvider && this.provider instanceof StubEconomyProvider)) {
+            this.provider = provider;
+        }
+        startFlushTask();
+    }
+    
+    /**
+     * Set the economy provider, e.g. a stub in tests
+     * @param provider The provider, or null to disable deposits
+     */
+    public void setProvider(EconomyProvider provider) {
+        this.provider = provider;
+    }
+    
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+    
+    /**
+     * Check if money rewards can be deposited
+     * @return True if there is an economy provider
+     */
+    public boolean isAvailable() {
+        return provider != null;
+    }
+    
+    /**
+     * Add money to a player's pending deposit
+     * @param playerId The player's UUID
+     * @param amount The amount
+     */
+    public void deposit(UUID playerId, double amount) {
+        pending.merge(playerId, amount, Double::sum);
+    }
+    
+    /**
+     * Start the flush task if it isn't already running
+     */
+    private synchronized void startFlushTask() {
+        if (flushTask != null || provider == null) {
+            return;
+        }
+        
+        // Vault and most economy plugins expect the main thread, async deposits are opt-in
+        if (async) {
+            flushTask = plugin.getScheduler().runAsyncTimer(scheduledTask -> flushAll(), flushInterval, flushInterval);
+        } else {
+            flushTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> flushAll(), flushInterval, flushInterval);
+        }
+    }
+    
+    /**
+     * Stop the flush task
+     */
+    private synchronized void stopFlushTask() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+    
+    /**
+     * Deposit the pending money of all players
+     */
+    private void flushAll() {
+        for (UUID playerId : new ArrayList<>(pending.keySet())) {
+            flush(playerId);
+        }
+    }
+    
+    /**
+     * Deposit a player's pending money, keeping it pending if the deposit fails
+     * @param playerId The player's UUID
+     */
+    private void flush(UUID playerId) {
+        EconomyProvider provider = this.provider;
+        if (provider == null) {
+            return;
+        }
+        
+        Double amount = pending.remove(playerId);
+        if (amount == null || amount <= 0) {
+            return;
+        }
+        
+        boolean deposited;
+        try {
+            deposited = provider.deposit(playerId, amount);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error depositing money through " + provider.getName() + ": " + e.getMessage());
+            deposited = false;
+        }
+        
+        if (!deposited) {
+            pending.merge(playerId, amount, Double::sum);
+        }
+    }
+    
+    /**
+     * Deposit a player's pending money on the flush thread, e.g. when they quit
+     * @param playerId The player's UUID
+     */
+    public void flushPlayer(UUID playerId) {
+        if (!pending.containsKey(playerId)) {
+            return;
+        }
+        
+        if (async) {
+            plugin.getScheduler().runAsync(() -> flush(playerId));
+        } else {
+            plugin.getScheduler().runGlobal(() -> flush(playerId));
+        }
+    }
+    
+    /**
+     * Stop the flush task and deposit everything that is still pending
+     */
+    public void cancelAllTasks() {
+        stopFlushTask();
+        flushAll();
+        
+        if (!pending.isEmpty()) {
+            plugin.getLogger().warning("Could not deposit money rewards for " + pending.size() + " players");
+        }
+    }
+}
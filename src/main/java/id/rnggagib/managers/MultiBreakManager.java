@@ -0,0 +1,492 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.scheduler.ScheduledTask;
+import id.rnggagib.utils.LongHashSet;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Breaks connected veins and square areas of BlockParty blocks, spread over ticks under a budget
+ */
+public class MultiBreakManager {
+    private static final BlockFace[] VEIN_FACES = {
+            BlockFace.UP, BlockFace.DOWN, BlockFace.NORTH,
+            BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST };
+    
+    private final BlockParty plugin;
+    private final ConcurrentLinkedQueue<BreakJob> jobs = new ConcurrentLinkedQueue<>();
+    // Set while a break event of an extra block is being fired on this thread
+    private final ThreadLocal<Boolean> firingEvent = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private ScheduledTask breakTask;
+    
+    // Configuration
+    private int blocksPerTick;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public MultiBreakManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        blocksPerTick = Math.max(1, plugin.getConfigManager().getConfig().getInt("regeneration.multi-break-budget", 32));
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+    }
+    
+    /**
+     * Queue the vein and area around a mined block for breaking
+     * @param player The player who mined the block
+     * @param origin The mined block
+     * @param material The material of the mined block
+     */
+    public void handleBreak(Player player, Block origin, Material material) {
+        BlockRegenerationManager regeneration = plugin.getBlockRegenerationManager();
+        int maxVeinSize = regeneration.isVeinMining(material) ? regeneration.getMaxVeinSize(material) : 1;
+        int areaSize = regeneration.getAreaSize(material);
+        if (maxVeinSize <= 1 && areaSize <= 1) {
+            return;
+        }
+        
+        LongHashSet visited = new LongHashSet(Math.max(maxVeinSize * 6, areaSize * areaSize));
+        visited.add(LongHashSet.packPosition(origin.getX(), origin.getY(), origin.getZ()));
+        
+        List<Block> targets = new ArrayList<>();
+        if (maxVeinSize > 1) {
+            collectVein(origin, material, maxVeinSize, visited, targets);
+        }
+        if (areaSize > 1) {
+            collectArea(player, origin, areaSize, visited, targets);
+        }
+        
+        if (targets.isEmpty()) {
+            return;
+        }
+        
+        ItemStack tool = player.getInventory().getItemInMainHand().clone();
+        jobs.add(new BreakJob(player.getUniqueId(), origin.getLocation(), tool, targets));
+        startBreakTask();
+    }
+    
+    /**
+     * Check if the current thread is firing the break event of an extra block, so the
+     * block break listener leaves that event alone
+     * @return True while an extra block's break event is being fired
+     */
+    public boolean isFiringEvent() {
+        return firingEvent.get();
+    }
+    
+    /**
+     * Collect connected blocks of the same material with an iterative breadth-first search
+     * @param origin The mined block
+     * @param material The material to follow
+     * @param maxSize Maximum vein size including the mined block
+     * @param visited Positions that were already checked
+     * @param targets Output list of blocks to break
+     */
+    private void collectVein(Block origin, Material material, int maxSize, LongHashSet visited, List<Block> targets) {
+        World world = origin.getWorld();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        
+        // Only matching blocks are queued, so the queue never holds more than the vein
+        long[] queue = new long[maxSize];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = LongHashSet.packPosition(origin.getX(), origin.getY(), origin.getZ());
+        
+        while (head < tail) {
+            long key = queue[head++];
+            int x = LongHashSet.unpackX(key);
+            int y = LongHashSet.unpackY(key);
+            int z = LongHashSet.unpackZ(key);
+            
+            for (BlockFace face : VEIN_FACES) {
+                int nx = x + face.getModX();
+                int ny = y + face.getModY();
+                int nz = z + face.getModZ();
+                
+                if (ny < minY || ny >= maxY) {
+                    continue;
+                }
+                
+                long neighbour = LongHashSet.packPosition(nx, ny, nz);
+                if (!visited.add(neighbour)) {
+                    continue;
+                }
+                
+                // Never load chunks just to follow a vein
+                if (!world.isChunkLoaded(nx >> 4, nz >> 4)) {
+                    continue;
+                }
+                
+                Block block = world.getBlockAt(nx, ny, nz);
+                if (block.getType() != material || !canBreak(block)) {
+                    continue;
+                }
+                
+                targets.add(block);
+                if (targets.size() >= maxSize - 1) {
+                    return;
+                }
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+    
+    /**
+     * Collect an NxN square of blocks around the mined block, facing the player
+     * @param player The player
+     * @param origin The mined block
+     * @param size Edge length of the square
+     * @param visited Positions that were already checked
+     * @param targets Output list of blocks to break
+     */
+    private void collectArea(Player player, Block origin, int size, LongHashSet visited, List<Block> targets) {
+        World world = origin.getWorld();
+        int low = -(size - 1) / 2;
+        int high = low + size - 1;
+        
+        // Mining up or down breaks a horizontal layer, otherwise a wall facing the player
+        float pitch = player.getLocation().getPitch();
+        BlockFace facing = player.getFacing();
+        boolean horizontal = Math.abs(pitch) > 45.0f;
+        boolean alongX = facing == BlockFace.EAST || facing == BlockFace.WEST;
+        
+        for (int u = low; u <= high; u++) {
+            for (int v = low; v <= high; v++) {
+                int x = origin.getX();
+                int y = origin.getY();
+                int z = origin.getZ();
+                
+                if (horizontal) {
+                    x += u;
+                    z += v;
+                } else if (alongX) {
+                    z += u;
+                    y += v;
+                } else {
+                    x += u;
+                    y += v;
+                }
+                
+                if (y < world.getMinHeight() || y >= world.getMaxHeight()) {
+                    continue;
+                }
+                
+                if (!visited.add(LongHashSet.packPosition(x, y, z)) || !world.isChunkLoaded(x >> 4, z >> 4)) {
+                    continue;
+                }
+                
+                Block block = world.getBlockAt(x, y, z);
+                if (canBreak(block)) {
+                    targets.add(block);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Check if a block may be broken by the engine
+     * @param block The block
+     * @return True if it is an enabled BlockParty block inside a mining region that isn't regenerating
+     */
+    private boolean canBreak(Block block) {
+        Material type = block.getType();
+        if (type.isAir() || !plugin.getRewardManager().isMinableBlock(type)) {
+            return false;
+        }
+        
+        Location location = block.getLocation();
+        if (plugin.getBlockRegenerationManager().isPending(location)) {
+            return false;
+        }
+        
+        return plugin.getRegionManager().getRegionNames().isEmpty() || plugin.getRegionManager().isInRegion(location);
+    }
+    
+    /**
+     * Start the break task if it isn't already running
+     */
+    private synchronized void startBreakTask() {
+        if (breakTask != null) {
+            return;
+        }
+        
+        breakTask = plugin.getScheduler().runGlobalTimer(scheduledTask -> processJobs(), 1L, 1L);
+    }
+    
+    /**
+     * Hand out up to the per-tick budget of queued blocks to the threads owning their regions
+     */
+    private void processJobs() {
+        int budget = blocksPerTick;
+        
+        while (budget > 0 && !jobs.isEmpty()) {
+            BreakJob job = jobs.peek();
+            Player player = Bukkit.getPlayer(job.playerId);
+            if (job.cancelled || player == null || !player.isOnline()
+                    || !plugin.getSessionManager().hasActiveSession(job.playerId)) {
+                jobs.poll();
+                continue;
+            }
+            
+            int start = job.index;
+            int end = Math.min(job.blocks.size(), start + budget);
+            budget -= end - start;
+            job.index = end;
+            
+            // The tool is checked on the player's thread, the blocks are broken on the block's thread
+            plugin.getScheduler().executeFor(player, () -> {
+                if (!canContinue(player, job)) {
+                    job.cancelled = true;
+                    return;
+                }
+                dispatchBatch(player, job, start, end);
+            });
+            
+            if (!job.hasNext()) {
+                jobs.poll();
+            }
+        }
+        
+        synchronized (this) {
+            if (jobs.isEmpty() && breakTask != null) {
+                breakTask.cancel();
+                breakTask = null;
+            }
+        }
+    }
+    
+    /**
+     * Check if the player may still mine with the job, called on the player's thread
+     * @param player The player
+     * @param job The job
+     * @return True if the player is online, in a session and holding a BlockParty pickaxe
+     */
+    private boolean canContinue(Player player, BreakJob job) {
+        return player.isOnline()
+                && plugin.getSessionManager().hasActiveSession(job.playerId)
+                && plugin.getAccessManager().isAccessItem(player.getInventory().getItemInMainHand());
+    }
+    
+    /**
+     * Split a slice of a job's blocks by chunk and hand each chunk to the thread owning it,
+     * since a vein or area may cross region borders on Folia
+     * @param player The player
+     * @param job The job
+     * @param start First block index, inclusive
+     * @param end Last block index, exclusive
+     */
+    private void dispatchBatch(Player player, BreakJob job, int start, int end) {
+        Map<Long, List<Block>> byChunk = new LinkedHashMap<>();
+        for (int i = start; i < end; i++) {
+            Block block = job.blocks.get(i);
+            long chunkKey = ((long) (block.getX() >> 4) << 32) | ((block.getZ() >> 4) & 0xFFFFFFFFL);
+            byChunk.computeIfAbsent(chunkKey, key -> new ArrayList<>()).add(block);
+        }
+        
+        for (List<Block> blocks : byChunk.values()) {
+            Location location = blocks.get(0).getLocation();
+            plugin.getScheduler().executeAt(location, () -> breakBatch(player, job, blocks, location));
+        }
+    }
+    
+    /**
+     * Break the blocks of a job that lie in one chunk
+     * @param player The player
+     * @param job The job
+     * @param blocks The blocks, all in the same chunk
+     * @param location Location in the chunk, where merged drops are spawned
+     */
+    private void breakBatch(Player player, BreakJob job, List<Block> blocks, Location location) {
+        int broken = 0;
+        Map<Material, Integer> mined = new EnumMap<>(Material.class);
+        List<ItemStack> drops = new ArrayList<>();
+        List<ItemStack> pickups = new ArrayList<>();
+        RewardManager rewardManager = plugin.getRewardManager();
+        
+        for (Block block : blocks) {
+            Material type = block.getType();
+            if (breakBlock(player, job, block, rewardManager.isAutoPickup(type) ? pickups : drops)) {
+                broken++;
+                mined.merge(type, 1, Integer::sum);
+            }
+        }
+        
+        finishBatch(player, job, broken, mined, drops, pickups, location);
+    }
+    
+    /**
+     * Break a single block of a job
+     * @param player The player
+     * @param job The job
+     * @param block The block
+     * @param drops Aggregated drops of the current batch
+     * @return True if the block was broken
+     */
+    private boolean breakBlock(Player player, BreakJob job, Block block, List<ItemStack> drops) {
+        // The block may have changed since it was collected
+        if (!canBreak(block)) {
+            return false;
+        }
+        
+        // Let protection plugins veto the extra block like a normal break
+        BlockBreakEvent event = new BlockBreakEvent(block, player);
+        firingEvent.set(Boolean.TRUE);
+        try {
+            Bukkit.getPluginManager().callEvent(event);
+        } finally {
+            firingEvent.set(Boolean.FALSE);
+        }
+        if (event.isCancelled()) {
+            return false;
+        }
+        
+        Material type = block.getType();
+        RewardManager rewards = plugin.getRewardManager();
+        if (event.isDropItems() && rewards.shouldDropVanilla(type)) {
+            for (ItemStack drop : block.getDrops(job.tool, player)) {
+                addDrop(drops, rewards.getTable().smelt(type, drop));
+            }
+        }
+        
+        BlockState state = block.getState();
+        block.setType(Material.AIR);
+        // This runs on the block's region thread, which may not own the player's random stream
+        plugin.getBlockRegenerationManager().scheduleRegeneration(block, state);
+        
+        return true;
+    }
+    
+    /**
+     * Merge a drop into the batch's drops
+     * @param drops Aggregated drops
+     * @param drop The drop to add
+     */
+    private void addDrop(List<ItemStack> drops, ItemStack drop) {
+        int remaining = drop.getAmount();
+        for (ItemStack stack : drops) {
+            if (remaining <= 0) {
+                return;
+            }
+            
+            if (stack.isSimilar(drop) && stack.getAmount() < stack.getMaxStackSize()) {
+                int added = Math.min(remaining, stack.getMaxStackSize() - stack.getAmount());
+                stack.setAmount(stack.getAmount() + added);
+                remaining -= added;
+            }
+        }
+        
+        if (remaining > 0) {
+            ItemStack stack = drop.clone();
+            stack.setAmount(remaining);
+            drops.add(stack);
+        }
+    }
+    
+    /**
+     * Apply the aggregated drops, rewards and statistics of a batch
+     * @param player The player
+     * @param job The job
+     * @param broken Number of blocks broken in this batch
+     * @param mined Number of blocks broken per material in this batch
+     * @param drops Aggregated drops
+     * @param pickups Aggregated drops of auto-pickup blocks
+     * @param location Location in the batch's chunk, owned by the current thread
+     */
+    private void finishBatch(Player player, BreakJob job, int broken, Map<Material, Integer> mined, List<ItemStack> drops, List<ItemStack> pickups, Location location) {
+        if (broken > 0) {
+            // Rewards and statistics touch the player, so they run on the player's thread
+            plugin.getScheduler().executeFor(player, () -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                
+                plugin.getPlayerDataManager().getPlayerData(player).incrementBlocksMined(broken);
+                // One aggregate roll for the whole batch instead of a roll per block
+                plugin.getRewardManager().giveAggregateRewards(player, mined, job.origin);
+                
+                // Auto-pickup drops were already smelted while breaking
+                int pickedUp = 0;
+                for (ItemStack pickup : pickups) {
+                    plugin.getInventoryDeliveryManager().give(player, pickup);
+                    pickedUp += pickup.getAmount();
+                }
+                plugin.getPlayerDataManager().getPlayerData(player).incrementItemsPickedUp(pickedUp);
+            });
+        }
+        
+        // Drop merged stacks once per chunk instead of one entity per block; the mined
+        // block may belong to another region's thread
+        World world = location.getWorld();
+        if (world != null) {
+            for (ItemStack drop : drops) {
+                world.dropItemNaturally(location, drop);
+            }
+        }
+    }
+    
+    /**
+     * Cancel all queued breaks
+     */
+    public synchronized void cancelAllTasks() {
+        if (breakTask != null) {
+            breakTask.cancel();
+            breakTask = null;
+        }
+        jobs.clear();
+    }
+    
+    /**
+     * A queued vein or area break
+     */
+    private static class BreakJob {
+        private final UUID playerId;
+        private final Location origin;
+        private final ItemStack tool;
+        private final List<Block> blocks;
+        private volatile int index;
+        private volatile boolean cancelled;
+        
+        public BreakJob(UUID playerId, Location origin, ItemStack tool, List<Block> blocks) {
+            this.playerId = playerId;
+            this.origin = origin;
+            this.tool = tool;
+            this.blocks = blocks;
+        }
+        
+        public boolean hasNext() {
+            return index < blocks.size();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.schedule.EventTimeline;
+import id.rnggagib.schedule.MultiplierEvent;
+import id.rnggagib.schedule.Multipliers;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the scheduled multiplier events from config.yml. The schedule is compiled into a
+ * timeline and a single task swaps the current multipliers at each boundary, so a block
+ * break only reads one field.
+ */
+public class MultiplierEventManager {
+    private static final int HORIZON_DAYS = 7;
+    // Ticks run slow under load, so the wall clock is checked at least once a minute
+    private static final long MAX_DELAY_TICKS = 1200L;
+    
+    private final BlockParty plugin;
+    private volatile Multipliers current = Multipliers.NONE;
+    private EventTimeline timeline;
+    private ScheduledTask boundaryTask;
+    
+    // Configuration
+    private List<MultiplierEvent> events = new ArrayList<>();
+    private ZoneId zone;
+    private boolean announce;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public MultiplierEventManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        start();
+    }
+    
+    /**
+     * Load the events from config.yml
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        announce = config.getBoolean("events.announce", true);
+        
+        String timezone = config.getString("events.timezone", "");
+        try {
+            zone = timezone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(timezone);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Invalid events timezone: " + timezone + ". Using the server's timezone instead.");
+            zone = ZoneId.systemDefault();
+        }
+        
+        List<MultiplierEvent> events = new ArrayList<>();
+        ConfigurationSection section = config.getConfigurationSection("events.list");
+        if (config.getBoolean("events.enabled", true) && section != null) {
+            for (String key : section.getKeys(false)) {
+                ConfigurationSection eventSection = section.getConfigurationSection(key);
+                if (eventSection == null || !eventSection.getBoolean("enabled", true)) {
+                    continue;
+                }
+                
+                try {
+                    events.add(MultiplierEvent.fromSection(key, eventSection));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid event " + key + ": " + e.getMessage());
+                }
+            }
+        }
+        this.events = events;
+    }
+    
+    /**
+     * Reload the events and rebuild the timeline
+     */
+    public void reload() {
+        stop();
+        loadConfiguration();
+        start();
+    }
+    
+    /**
+     * Compile the timeline and schedule the first boundary
+     */
+    private synchronized void start() {
+        if (events.isEmpty()) {
+            current = Multipliers.NONE;
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        timeline = EventTimeline.compile(events, now, zone, HORIZON_DAYS);
+        current = timeline.at(now);
+        scheduleNext(now);
+    }
+    
+    /**
+     * Cancel the boundary task
+     */
+    private synchronized void stop() {
+        if (boundaryTask != null) {
+            boundaryTask.cancel();
+            boundaryTask = null;
+        }
+        timeline = null;
+    }
+    
+    /**
+     * Schedule the task for the next boundary of the timeline, or for the next
+     * wall clock check if the boundary is further away
+     * @param now Current epoch milliseconds
+     */
+    private void scheduleNext(long now) {
+        long delay = Math.min(MAX_DELAY_TICKS, Math.max(1L, (timeline.nextBoundary(now) - now + 49L) / 50L));
+        boundaryTask = plugin.getScheduler().runGlobalLater(this::onBoundary, delay);
+    }
+    
+    /**
+     * Switch to the multipliers of the stretch the wall clock is in, which is
+     * unchanged if the task only fired for a check
+     */
+    private synchronized void onBoundary() {
+        if (timeline == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        if (now >= timeline.getEnd()) {
+            timeline = EventTimeline.compile(events, now, zone, HORIZON_DAYS);
+        }
+        
+        Multipliers previous = current;
+        current = timeline.at(now);
+        if (announce) {
+            announceChanges(previous, current);
+        }
+        scheduleNext(now);
+    }
+    
+    /**
+     * Announce events that started or ended
+     * @param previous Multipliers before the boundary
+     * @param next Multipliers after the boundary
+     */
+    private void announceChanges(Multipliers previous, Multipliers next) {
+        for (String event : previous.getActiveEvents()) {
+            if (!next.getActiveEvents().contains(event)) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("event", event);
+                plugin.getMessageManager().broadcastMessage("events.ended", placeholders);
+            }
+        }
+        for (String event : next.getActiveEvents()) {
+            if (!previous.getActiveEvents().contains(event)) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("event", event);
+                placeholders.put("reward_multiplier", String.format("%.1fx", next.getRewardMultiplier()));
+                placeholders.put("regen_multiplier", String.format("%.1fx", next.getRegenMultiplier()));
+                placeholders.put("drop_multiplier", String.format("%.1fx", next.getDropMultiplier()));
+                plugin.getMessageManager().broadcastMessage("events.started", placeholders);
+            }
+        }
+    }
+    
+    /**
+     * Get the multipliers of the events running right now
+     * @return The current multipliers
+     */
+    public Multipliers getCurrent() {
+        return current;
+    }
+    
+    /**
+     * Stop the boundary task
+     */
+    public void cancelAllTasks() {
+        stop();
+    }
+}
@@ -81,8 +81,9 @@ public class PlayerDataManager {
         int rewardsFound = config.getInt("stats.rewards-found", 0);
         int mmoItemsFound = config.getInt("stats.mmoitems-found", 0);
         int keysFound = config.getInt("stats.keys-found", 0);
+        int itemsPickedUp = config.getInt("stats.items-picked-up", 0);
         
-        return new PlayerData(uuid, blocksMined, rewardsFound, mmoItemsFound, keysFound);
+        return new PlayerData(uuid, blocksMined, rewardsFound, mmoItemsFound, keysFound, itemsPickedUp);
     }
     
     /**
@@ -104,6 +105,7 @@ public class PlayerDataManager {
         config.set("stats.rewards-found", data.getRewardsFound());
         config.set("stats.mmoitems-found", data.getMmoItemsFound());
         config.set("stats.keys-found", data.getKeysFound());
+        config.set("stats.items-picked-up", data.getItemsPickedUp());
         
         try {
             config.save(playerFile);
@@ -143,6 +145,7 @@ public class PlayerDataManager {
         placeholders.put("rewards_found", String.valueOf(data.getRewardsFound()));
         placeholders.put("mmoitems_found", String.valueOf(data.getMmoItemsFound()));
         placeholders.put("keys_found", String.valueOf(data.getKeysFound()));
+        placeholders.put("items_picked_up", String.valueOf(data.getItemsPickedUp()));
         
         return placeholders;
     }
@@ -156,13 +159,14 @@ public class PlayerDataManager {
         private int rewardsFound;
         private int mmoItemsFound;
         private int keysFound;
+        private int itemsPickedUp;
         
         /**
          * Constructor for new player data
          * @param uuid The player's UUID
          */
         public PlayerData(UUID uuid) {
-            this(uuid, 0, 0, 0, 0);
+            this(uuid, 0, 0, 0, 0, 0);
         }
         
         /**
@@ -172,13 +176,15 @@ public class PlayerDataManager {
          * @param rewardsFound Number of rewards found
          * @param mmoItemsFound Number of MMOItems found
          * @param keysFound Number of keys found
+         * @param itemsPickedUp Number of block drops picked up automatically
          */
-        public PlayerData(UUID uuid, int blocksMined, int rewardsFound, int mmoItemsFound, int keysFound) {
+        public PlayerData(UUID uuid, int blocksMined, int rewardsFound, int mmoItemsFound, int keysFound, int itemsPickedUp) {
             this.uuid = uuid;
             this.blocksMined = blocksMined;
             this.rewardsFound = rewardsFound;
             this.mmoItemsFound = mmoItemsFound;
             this.keysFound = keysFound;
+            this.itemsPickedUp = itemsPickedUp;
         }
         
         /**
@@ -188,6 +194,14 @@ public class PlayerDataManager {
             blocksMined++;
         }
         
+        /**
+         * Increment blocks mined counter by a batch of blocks
+         * @param amount Number of blocks mined
+         */
+        public void incrementBlocksMined(int amount) {
+            blocksMined += amount;
+        }
+        
         /**
          * Increment rewards found counter
          */
@@ -202,6 +216,14 @@ public class PlayerDataManager {
             mmoItemsFound++;
         }
         
+        /**
+         * Increment MMOItems found counter by a batch of finds
+         * @param amount Number of MMOItems found
+         */
+        public void incrementMmoItemsFound(int amount) {
+            mmoItemsFound += amount;
+        }
+        
         /**
          * Increment keys found counter
          */
@@ -209,6 +231,22 @@ public class PlayerDataManager {
             keysFound++;
         }
         
+        /**
+         * Increment keys found counter by a batch of finds
+         * @param amount Number of keys found
+         */
+        public void incrementKeysFound(int amount) {
+            keysFound += amount;
+        }
+        
+        /**
+         * Increment auto-picked up items counter
+         * @param amount Number of items picked up
+         */
+        public void incrementItemsPickedUp(int amount) {
+            itemsPickedUp += amount;
+        }
+        
         // Getters
         public int getBlocksMined() {
             return blocksMined;
@@ -226,6 +264,10 @@ public class PlayerDataManager {
             return keysFound;
         }
         
+        public int getItemsPickedUp() {
+            return itemsPickedUp;
+        }
+        
         public UUID getUuid() {
             return uuid;
         }
@@ -0,0 +1,115 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out per-player random streams for reward and regeneration rolls.
+ * Each stream is seeded from the server seed and the player's UUID, so the rolls
+ * of a session can be replayed from the seed when investigating drop rates.
+ * Streams aren't shared between threads: a player's stream is only used by the
+ * thread that owns the player. Work for a player that runs elsewhere, e.g. extra
+ * blocks of a multi-break on their region's thread, rolls with the thread's stream.
+ */
+public class RandomManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<UUID, SplittableRandom> playerStreams = new ConcurrentHashMap<>();
+    private final ThreadLocal<SplittableRandom> threadStreams;
+    private long serverSeed;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public RandomManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        
+        // Rolls that don't belong to a player get a stream per thread
+        SplittableRandom root = new SplittableRandom(serverSeed);
+        this.threadStreams = ThreadLocal.withInitial(() -> {
+            synchronized (root) {
+                return root.split();
+            }
+        });
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        serverSeed = plugin.getConfigManager().getConfig().getLong("random.seed", 0L);
+        if (serverSeed == 0L) {
+            serverSeed = ThreadLocalRandom.current().nextLong();
+        }
+        
+        plugin.getLogger().info("Using reward seed " + serverSeed);
+    }
+    
+    /**
+     * Reload configuration, restarting all player streams from the new seed
+     */
+    public void reload() {
+        loadConfiguration();
+        playerStreams.clear();
+    }
+    
+    /**
+     * Get the random stream of a player
+     * @param playerId The player's UUID
+     * @return The player's stream, created on first use
+     */
+    public SplittableRandom forPlayer(UUID playerId) {
+        return playerStreams.computeIfAbsent(playerId, id -> new SplittableRandom(getSeed(id)));
+    }
+    
+    /**
+     * Get the random stream of the current thread, for rolls without a player
+     * @return The thread's stream
+     */
+    public SplittableRandom forCurrentThread() {
+        return threadStreams.get();
+    }
+    
+    /**
+     * Create a stream for rolling a player's rewards ahead of time on another thread,
+     * separate from the player's main stream
+     * @param playerId The player's UUID
+     * @return A new stream derived from the player's seed
+     */
+    public SplittableRandom createBufferStream(UUID playerId) {
+        return new SplittableRandom(mix(getSeed(playerId) + 0x9E3779B97F4A7C15L));
+    }
+    
+    /**
+     * Restart a player's stream from its seed
+     * @param playerId The player's UUID
+     */
+    public void resetStream(UUID playerId) {
+        playerStreams.remove(playerId);
+    }
+    
+    /**
+     * Get the seed of a player's stream
+     * @param playerId The player's UUID
+     * @return The seed derived from the server seed and the UUID
+     */
+    public long getSeed(UUID playerId) {
+        return mix(serverSeed ^ mix(playerId.getMostSignificantBits()) ^ playerId.getLeastSignificantBits());
+    }
+    
+    /**
+     * Scramble the bits of a seed (SplitMix64 finalizer)
+     * @param value The value
+     * @return The mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -132,6 +132,29 @@ public class RegionManager {
         return new HashSet<>(regions.keySet());
     }
     
+    /**
+     * Get a region by name
+     * @param regionName Region name
+     * @return The region or null if it doesn't exist
+     */
+    public Region getRegion(String regionName) {
+        return regions.get(regionName.toLowerCase());
+    }
+    
+    /**
+     * Get the first mining region containing a location
+     * @param location Location to check
+     * @return The region or null if the location isn't in a mining region
+     */
+    public Region getRegionAt(Location location) {
+        for (Region region : regions.values()) {
+            if (region.contains(location)) {
+                return region;
+            }
+        }
+        return null;
+    }
+    
     /**
      * Check if a location is within any mining region
      * @param location Location to check
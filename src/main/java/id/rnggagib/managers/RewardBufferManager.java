@@ -0,0 +1,141 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.rewards.OutcomeBuffer;
+import id.rnggagib.rewards.RewardOutcome;
+import id.rnggagib.rewards.RewardTable;
+import id.rnggagib.scheduler.ScheduledTask;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a buffer of reward outcomes rolled ahead of time for every active miner, so a
+ * block break only takes the next outcome. A background task refills the buffers from
+ * a stream per player that is separate from the player's main stream.
+ */
+public class RewardBufferManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<UUID, OutcomeBuffer> buffers = new ConcurrentHashMap<>();
+    private ScheduledTask refillTask;
+    
+    // Configuration
+    private volatile boolean enabled;
+    private int size;
+    private long refillInterval;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public RewardBufferManager(BlockParty plugin) {
+        this.plugin = plugin;
+        loadConfiguration();
+        startRefillTask();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        enabled = config.getBoolean("reward-buffers.enabled", false);
+        size = Math.max(2, config.getInt("reward-buffers.size", 64));
+        refillInterval = Math.max(1L, config.getLong("reward-buffers.refill-interval", 5L));
+    }
+    
+    /**
+     * Reload configuration, discarding all buffers
+     */
+    public void reload() {
+        stopRefillTask();
+        loadConfiguration();
+        buffers.clear();
+        startRefillTask();
+    }
+    
+    /**
+     * Check if breaks take pre-rolled outcomes
+     * @return True if reward buffers are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Take the next pre-rolled outcome of a player
+     * @param playerId The player's UUID
+     * @param table The current reward table
+     * @return The outcome, or null if none is ready and the break has to roll itself
+     */
+    public RewardOutcome poll(UUID playerId, RewardTable table) {
+        OutcomeBuffer buffer = buffers.get(playerId);
+        if (buffer == null) {
+            // First break of this miner, the next refill fills the buffer
+            buffers.computeIfAbsent(playerId,
+                    id -> new OutcomeBuffer(table, plugin.getRandomManager().createBufferStream(id), size));
+            return null;
+        }
+        
+        // Outcomes of an older table are replaced by the next refill
+        return buffer.getTable() == table ? buffer.poll() : null;
+    }
+    
+    /**
+     * Discard a player's buffer, e.g. when they quit
+     * @param playerId The player's UUID
+     */
+    public void remove(UUID playerId) {
+        buffers.remove(playerId);
+    }
+    
+    /**
+     * Start the refill task if buffers are enabled
+     */
+    private synchronized void startRefillTask() {
+        if (!enabled || refillTask != null) {
+            return;
+        }
+        
+        refillTask = plugin.getScheduler().runAsyncTimer(scheduledTask -> refill(), refillInterval, refillInterval);
+    }
+    
+    /**
+     * Stop the refill task
+     */
+    private synchronized void stopRefillTask() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+    }
+    
+    /**
+     * Top up all buffers, replacing those rolled from an older table
+     */
+    private synchronized void refill() {
+        RewardTable table = plugin.getRewardManager().getTable();
+        for (Map.Entry<UUID, OutcomeBuffer> entry : buffers.entrySet()) {
+            OutcomeBuffer buffer = entry.getValue();
+            if (buffer.getTable() != table) {
+                // Keep rolling from the same stream, only this task ever uses it
+                OutcomeBuffer replacement = new OutcomeBuffer(table, buffer.getRandom(), size);
+                if (!buffers.replace(entry.getKey(), buffer, replacement)) {
+                    continue;
+                }
+                buffer = replacement;
+            }
+            buffer.fill();
+        }
+    }
+    
+    /**
+     * Stop the refill task and discard all buffers
+     */
+    public void cancelAllTasks() {
+        stopRefillTask();
+        buffers.clear();
+    }
+}
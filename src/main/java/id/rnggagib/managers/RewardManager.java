@@ -1,46 +1,46 @@
 package id.rnggagib.managers;
 
 import id.rnggagib.BlockParty;
-import io.lumine.mythic.lib.api.item.NBTItem;
-import net.Indyuce.mmoitems.MMOItems;
-import net.Indyuce.mmoitems.api.Type;
-import net.Indyuce.mmoitems.api.item.mmoitem.MMOItem;
-import org.bukkit.Bukkit;
+import id.rnggagib.audit.AuditRecord;
+import id.rnggagib.rewards.BlockConfig;
+import id.rnggagib.rewards.CrateKeyReward;
+import id.rnggagib.region.Region;
+import id.rnggagib.rewards.MMOItemReward;
+import id.rnggagib.rewards.MoneyReward;
+import id.rnggagib.rewards.RewardOutcome;
+import id.rnggagib.rewards.RewardPool;
+import id.rnggagib.rewards.RewardRules;
+import id.rnggagib.rewards.RewardTable;
+import id.rnggagib.rewards.VanillaItemReward;
+import id.rnggagib.rewards.WeightedReward;
+import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages rewards for Block Party plugin
  */
 public class RewardManager {
     private final BlockParty plugin;
-    private final Random random;
     
-    // Minable blocks configuration
-    private final Map<Material, BlockConfig> minableBlocks;
+    // Compiled blocks.yml, replaced as a whole on reload
+    private volatile RewardTable table;
     
-    // Reward type configurations
-    private boolean mmoItemsEnabled;
-    private double mmoItemsChance;
-    private List<MMOItemReward> mmoItemRewards;
-    
-    private boolean crateKeysEnabled;
-    private double crateKeysChance;
-    private List<CrateKeyReward> crateKeyRewards;
-    
-    private boolean vanillaItemsEnabled;
-    private double vanillaItemsChance;
-    private List<VanillaItemReward> vanillaItemRewards;
+    // Rule permissions of each player as a bit mask, re-checked after the refresh interval
+    private final ConcurrentHashMap<UUID, PermissionMask> permissionMasks = new ConcurrentHashMap<>();
+    private long permissionRefreshMillis;
     
     /**
      * Constructor
@@ -48,11 +48,6 @@ public class RewardManager {
      */
     public RewardManager(BlockParty plugin) {
         this.plugin = plugin;
-        this.random = new Random();
-        this.minableBlocks = new HashMap<>();
-        this.mmoItemRewards = new ArrayList<>();
-        this.crateKeyRewards = new ArrayList<>();
-        this.vanillaItemRewards = new ArrayList<>();
         
         loadConfiguration();
     }
@@ -61,84 +56,9 @@ public class RewardManager {
      * Load configuration from blocks.yml
      */
     private void loadConfiguration() {
-        FileConfiguration blocksConfig = plugin.getConfigManager().getBlocks();
-        
-        // Load minable blocks
-        minableBlocks.clear();
-        ConfigurationSection blocksSection = blocksConfig.getConfigurationSection("minable-blocks");
-        if (blocksSection != null) {
-            Set<String> blockKeys = blocksSection.getKeys(false);
-            for (String key : blockKeys) {
-                try {
-                    Material material = Material.valueOf(key);
-                    boolean enabled = blocksSection.getBoolean(key + ".enabled", true);
-                    double rewardChance = blocksSection.getDouble(key + ".reward-chance", 0.5);
-                    boolean dropVanilla = blocksSection.getBoolean(key + ".drop-vanilla", false);
-                    
-                    minableBlocks.put(material, new BlockConfig(enabled, rewardChance, dropVanilla));
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid material in blocks.yml: " + key);
-                }
-            }
-        }
-        
-        // Load MMOItems rewards
-        ConfigurationSection mmoItemsSection = blocksConfig.getConfigurationSection("rewards.mmoitems");
-        mmoItemsEnabled = mmoItemsSection != null && mmoItemsSection.getBoolean("enabled", true);
-        mmoItemsChance = mmoItemsSection != null ? mmoItemsSection.getDouble("chance", 0.3) : 0.3;
-        
-        mmoItemRewards.clear();
-        if (mmoItemsEnabled && mmoItemsSection != null) {
-            List<Map<?, ?>> items = mmoItemsSection.getMapList("items");
-            for (Map<?, ?> item : items) {
-                String type = item.get("type").toString();
-                String id = item.get("id").toString();
-                double chance = Double.parseDouble(item.get("chance").toString());
-                
-                mmoItemRewards.add(new MMOItemReward(type, id, chance));
-            }
-        }
-        
-        // Load crate key rewards
-        ConfigurationSection crateKeysSection = blocksConfig.getConfigurationSection("rewards.crate-keys");
-        crateKeysEnabled = crateKeysSection != null && crateKeysSection.getBoolean("enabled", true);
-        crateKeysChance = crateKeysSection != null ? crateKeysSection.getDouble("chance", 0.2) : 0.2;
-        
-        crateKeyRewards.clear();
-        if (crateKeysEnabled && crateKeysSection != null) {
-            List<Map<?, ?>> keys = crateKeysSection.getMapList("keys");
-            for (Map<?, ?> key : keys) {
-                String name = key.get("name").toString();
-                String command = key.get("command").toString();
-                double chance = Double.parseDouble(key.get("chance").toString());
-                String message = key.get("message").toString();
-                
-                crateKeyRewards.add(new CrateKeyReward(name, command, chance, message));
-            }
-        }
-        
-        // Load vanilla item rewards
-        ConfigurationSection vanillaItemsSection = blocksConfig.getConfigurationSection("rewards.vanilla-items");
-        vanillaItemsEnabled = vanillaItemsSection != null && vanillaItemsSection.getBoolean("enabled", true);
-        vanillaItemsChance = vanillaItemsSection != null ? vanillaItemsSection.getDouble("chance", 0.5) : 0.5;
-        
-        vanillaItemRewards.clear();
-        if (vanillaItemsEnabled && vanillaItemsSection != null) {
-            List<Map<?, ?>> items = vanillaItemsSection.getMapList("items");
-            for (Map<?, ?> item : items) {
-                String materialName = item.get("material").toString();
-                int minAmount = Integer.parseInt(item.get("min-amount").toString());
-                int maxAmount = Integer.parseInt(item.get("max-amount").toString());
-                double chance = Double.parseDouble(item.get("chance").toString());
-                
-                try {
-                    Material material = Material.valueOf(materialName);
-                    vanillaItemRewards.add(new VanillaItemReward(material, minAmount, maxAmount, chance));
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid material in vanilla rewards: " + materialName);
-                }
-            }
-        }
+        table = RewardTable.compile(plugin, table);
+        permissionRefreshMillis = Math.max(0L, plugin.getConfigManager().getConfig().getLong("reward-rules.permission-refresh", 5L)) * 1000L;
+        permissionMasks.clear();
     }
     
     /**
@@ -148,13 +68,22 @@ public class RewardManager {
         loadConfiguration();
     }
     
+    /**
+     * Get the compiled reward table
+     * @return The current reward table
+     */
+    public RewardTable getTable() {
+        return table;
+    }
+    
     /**
      * Check if a block is minable in BlockParty
      * @param material The block material
      * @return True if the block is minable
      */
     public boolean isMinableBlock(Material material) {
-        return minableBlocks.containsKey(material) && minableBlocks.get(material).isEnabled();
+        BlockConfig block = table.getBlock(material);
+        return block != null && block.isEnabled();
     }
     
     /**
@@ -163,7 +92,36 @@ public class RewardManager {
      * @return True if the block should drop its vanilla drops
      */
     public boolean shouldDropVanilla(Material material) {
-        return minableBlocks.containsKey(material) && minableBlocks.get(material).isDropVanilla();
+        BlockConfig block = table.getBlock(material);
+        return block != null && block.isDropVanilla();
+    }
+    
+    /**
+     * Check if a block's vanilla drops go straight into the inventory
+     * @param material The block material
+     * @return True if drops are picked up automatically
+     */
+    public boolean isAutoPickup(Material material) {
+        BlockConfig block = table.getBlock(material);
+        return block != null && block.isDropVanilla() && block.isAutoPickup();
+    }
+    
+    /**
+     * Put the vanilla drops of a block into a player's inventory, smelting them if configured
+     * @param player The player
+     * @param material The block material
+     * @param drops The drops
+     */
+    public void pickUpDrops(Player player, Material material, Collection<ItemStack> drops) {
+        RewardTable table = this.table;
+        int amount = 0;
+        for (ItemStack drop : drops) {
+            ItemStack item = table.smelt(material, drop);
+            plugin.getInventoryDeliveryManager().give(player, item);
+            amount += item.getAmount();
+        }
+        
+        plugin.getPlayerDataManager().getPlayerData(player).incrementItemsPickedUp(amount);
     }
     
     /**
@@ -172,12 +130,28 @@ public class RewardManager {
      * @return True if the block should give a reward
      */
     public boolean shouldGiveReward(Material material) {
-        if (!minableBlocks.containsKey(material)) {
-            return false;
-        }
-        
-        double chance = minableBlocks.get(material).getRewardChance();
-        return random.nextDouble() < chance;
+        return shouldGiveReward(plugin.getRandomManager().forCurrentThread(), material);
+    }
+    
+    /**
+     * Check if a block broken by a player should give a reward
+     * @param player The player who broke the block
+     * @param material The block material
+     * @return True if the block should give a reward
+     */
+    public boolean shouldGiveReward(Player player, Material material) {
+        return shouldGiveReward(plugin.getRandomManager().forPlayer(player.getUniqueId()), material);
+    }
+    
+    /**
+     * Roll the reward chance of a block
+     * @param random The random stream to roll with
+     * @param material The block material
+     * @return True if the block should give a reward
+     */
+    private boolean shouldGiveReward(SplittableRandom random, Material material) {
+        // Scaled by the running events, swapped in by the event timeline
+        return table.rollBlockReward(random, material, plugin.getMultiplierEventManager().getCurrent().getRewardMultiplier());
     }
     
     /**
@@ -196,305 +170,386 @@ public class RewardManager {
      * @return True if a reward was given
      */
     public boolean giveRandomReward(Player player, double multiplier) {
-        // Adjust chance based on combo multiplier
-        double adjustedChance = random.nextDouble() * multiplier;
+        return giveRandomReward(player, multiplier, null, player.getLocation());
+    }
+    
+    /**
+     * Give a random reward for a broken block, using the rewards of the first matching rule
+     * @param player The player to give the reward to
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param material The broken block's material, or null
+     * @param location The broken block's location
+     * @return True if a reward was given
+     */
+    public boolean giveRandomReward(Player player, double multiplier, Material material, Location location) {
+        RewardTable table = this.table;
+        SplittableRandom random = plugin.getRandomManager().forPlayer(player.getUniqueId());
+        
+        WeightedReward reward;
+        if (table.getRules().isEmpty()) {
+            reward = table.rollReward(random, multiplier, true);
+        } else {
+            Region region = plugin.getRegionManager().getRegionAt(location);
+            reward = table.rollReward(random, multiplier,
+                    material != null ? material.ordinal() : -1,
+                    region != null ? region.getId() : -1,
+                    plugin.getComboManager().getCurrentCombo(player.getUniqueId()),
+                    getPermissionMask(player, table.getRules()));
+        }
+        
+        return reward != null && giveReward(player, reward, random, 1);
+    }
+    
+    /**
+     * Roll and give the reward of a broken block. With reward buffers enabled the block
+     * takes the player's next pre-rolled outcome and only rolls itself when none is ready,
+     * a rule matches or the outcome's reward is capped.
+     * @param player The player who broke the block
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param material The broken block's material
+     * @param location The broken block's location
+     * @return True if a reward was given
+     */
+    public boolean rewardBreak(Player player, double multiplier, Material material, Location location) {
+        RewardTable table = this.table;
+        RewardBufferManager buffers = plugin.getRewardBufferManager();
+        RewardOutcome outcome = buffers.isEnabled() ? buffers.poll(player.getUniqueId(), table) : null;
+        if (outcome == null) {
+            return shouldGiveReward(player, material) && giveRandomReward(player, multiplier, material, location);
+        }
         
-        // Try MMOItems rewards first if enabled
-        if (mmoItemsEnabled && adjustedChance <= mmoItemsChance * multiplier && isMMOItemsAvailable()) {
-            if (giveMmoItemReward(player)) {
-                return true;
-            }
+        double eventMultiplier = plugin.getMultiplierEventManager().getCurrent().getRewardMultiplier();
+        if (!table.isBlockRewarded(material, outcome.getBlockRoll(), eventMultiplier)) {
+            return false;
         }
         
-        // Try crate key rewards if enabled
-        if (crateKeysEnabled && adjustedChance <= crateKeysChance * multiplier) {
-            if (giveCrateKeyReward(player)) {
-                return true;
+        // Outcomes are rolled from the default rewards, a matching rule rolls its own
+        if (!table.getRules().isEmpty()) {
+            Region region = plugin.getRegionManager().getRegionAt(location);
+            RewardPool pool = table.getPool(material.ordinal(), region != null ? region.getId() : -1,
+                    plugin.getComboManager().getCurrentCombo(player.getUniqueId()),
+                    getPermissionMask(player, table.getRules()));
+            if (pool != table.getRewards()) {
+                return giveRandomReward(player, multiplier, material, location);
             }
         }
         
-        // Try vanilla item rewards if enabled
-        if (vanillaItemsEnabled && adjustedChance <= vanillaItemsChance * multiplier) {
-            if (giveVanillaItemReward(player)) {
-                return true;
-            }
+        WeightedReward reward = outcome.getReward();
+        if (reward == null) {
+            return false;
+        }
+        if (!table.tryAcquire(reward)) {
+            // Capped, roll again with the caps like a break without buffer
+            return giveRandomReward(player, multiplier, material, location);
         }
         
-        // No reward was given
-        return false;
+        // Pre-rolled amounts are for a single find, extra finds of a drop event roll their own
+        boolean singleFind = plugin.getMultiplierEventManager().getCurrent().getDropMultiplier() == 1.0;
+        if (singleFind && reward instanceof VanillaItemReward vanillaItemReward) {
+            return giveVanillaItems(player, vanillaItemReward, outcome.getItemAmount(), 1);
+        }
+        if (singleFind && reward instanceof MoneyReward moneyReward) {
+            return giveMoney(player, moneyReward, outcome.getMoneyAmount(), 1);
+        }
+        return giveReward(player, reward, plugin.getRandomManager().forPlayer(player.getUniqueId()), 1);
     }
     
     /**
-     * Give an MMOItem reward to a player
-     * @param player The player
-     * @return True if successful
+     * Roll and give the rewards of many broken blocks at once, e.g. a vein or area break.
+     * The number of rewarded blocks is a binomial draw per material and the rewards are
+     * a multinomial draw per reward pool, so every picked reward is delivered once with
+     * its total amount instead of once per block.
+     * @param player The player to give the rewards to
+     * @param blocks Number of broken blocks per material
+     * @param location Location of the break
+     * @return Number of rewards given
      */
-    private boolean giveMmoItemReward(Player player) {
-        if (mmoItemRewards.isEmpty() || !isMMOItemsAvailable()) {
-            return false;
+    public int giveAggregateRewards(Player player, Map<Material, Integer> blocks, Location location) {
+        RewardTable table = this.table;
+        SplittableRandom random = plugin.getRandomManager().forPlayer(player.getUniqueId());
+        double eventMultiplier = plugin.getMultiplierEventManager().getCurrent().getRewardMultiplier();
+        
+        // Rule conditions other than the material are the same for the whole break
+        int region = -1;
+        int combo = 0;
+        long permissions = 0L;
+        if (!table.getRules().isEmpty()) {
+            Region at = plugin.getRegionManager().getRegionAt(location);
+            region = at != null ? at.getId() : -1;
+            combo = plugin.getComboManager().getCurrentCombo(player.getUniqueId());
+            permissions = getPermissionMask(player, table.getRules());
+        }
+        
+        // Rewarded blocks per pool
+        Map<RewardPool, Integer> rolls = new IdentityHashMap<>();
+        for (Map.Entry<Material, Integer> entry : blocks.entrySet()) {
+            int rewarded = table.rollBlockRewards(random, entry.getKey(), entry.getValue(), eventMultiplier);
+            if (rewarded > 0) {
+                rolls.merge(table.getPool(entry.getKey().ordinal(), region, combo, permissions), rewarded, Integer::sum);
+            }
         }
         
-        // Select a random MMOItem based on weights
-        MMOItemReward reward = selectRandomReward(mmoItemRewards);
-        if (reward == null) {
-            return false;
+        Map<WeightedReward, Integer> rewards = new LinkedHashMap<>();
+        for (Map.Entry<RewardPool, Integer> entry : rolls.entrySet()) {
+            table.rollRewards(entry.getKey(), random, entry.getValue(), true, rewards);
         }
         
-        try {
-            // Get type from string
-            Type type = Type.get(reward.getType());
-            if (type == null) {
-                plugin.getLogger().warning("Invalid MMOItems type: " + reward.getType());
-                return false;
-            }
-
-            // Create MMOItem using the updated API
-            MMOItem mmoItem = MMOItems.plugin.getMMOItem(type, reward.getId());
-            if (mmoItem == null) {
-                plugin.getLogger().warning("Invalid MMOItems id: " + reward.getId());
-                return false;
+        int given = 0;
+        for (Map.Entry<WeightedReward, Integer> entry : rewards.entrySet()) {
+            if (giveReward(player, entry.getKey(), random, entry.getValue())) {
+                given += entry.getValue();
             }
-
-            // Convert to ItemStack and give to player
-            ItemStack item = mmoItem.newBuilder().build();
-            player.getInventory().addItem(item);
-
-            // Increment MMOItems found counter
-            plugin.getPlayerDataManager().getPlayerData(player).incrementMmoItemsFound();
-
-            return true;
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error giving MMOItem: " + e.getMessage());
-            return false;
         }
+        return given;
     }
     
     /**
-     * Check if MMOItems is available
-     * @return True if MMOItems is available
-     */
-    private boolean isMMOItemsAvailable() {
-        return Bukkit.getPluginManager().getPlugin("MMOItems") != null;
-    }
-    
-    /**
-     * Give a crate key reward to a player
+     * Give a number of finds of a picked reward to a player as a single delivery
      * @param player The player
-     * @return True if successful
+     * @param reward The picked reward
+     * @param random The player's random stream
+     * @param count Number of finds
+     * @return True if the reward was given
      */
-    private boolean giveCrateKeyReward(Player player) {
-        if (crateKeyRewards.isEmpty()) {
+    private boolean giveReward(Player player, WeightedReward reward, SplittableRandom random, int count) {
+        count = scaleFinds(random, count);
+        if (count <= 0) {
             return false;
         }
         
-        // Select a random crate key based on weights
-        CrateKeyReward reward = selectRandomReward(crateKeyRewards);
-        if (reward == null) {
-            return false;
+        if (reward instanceof MMOItemReward mmoItemReward) {
+            return giveMmoItemReward(player, mmoItemReward, count);
+        }
+        if (reward instanceof CrateKeyReward crateKeyReward) {
+            return giveCrateKeyReward(player, crateKeyReward, count);
+        }
+        if (reward instanceof VanillaItemReward vanillaItemReward) {
+            return giveVanillaItemReward(player, vanillaItemReward, random, count);
+        }
+        if (reward instanceof MoneyReward moneyReward) {
+            return giveMoneyReward(player, moneyReward, random, count);
         }
         
-        // Execute command with player placeholder
-        String command = reward.getCommand().replace("%player%", player.getName());
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
-        
-        // Send message to player
-        plugin.getMessageManager().sendCustomMessage(player, reward.getMessage(), true, null);
-        
-        // Increment keys found counter
-        plugin.getPlayerDataManager().getPlayerData(player).incrementKeysFound();
-        
-        return true;
+        // No reward was given
+        return false;
     }
     
     /**
-     * Give a vanilla item reward to a player
-     * @param player The player
-     * @return True if successful
+     * Scale a number of finds by the drop multiplier of the running events,
+     * rounding the fraction up or down at random so the average is exact
+     * @param random The player's random stream
+     * @param count Number of finds
+     * @return The scaled number of finds
      */
-    private boolean giveVanillaItemReward(Player player) {
-        if (vanillaItemRewards.isEmpty()) {
-            return false;
+    private int scaleFinds(SplittableRandom random, int count) {
+        double multiplier = plugin.getMultiplierEventManager().getCurrent().getDropMultiplier();
+        if (multiplier == 1.0) {
+            return count;
         }
         
-        // Select a random vanilla item based on weights
-        VanillaItemReward reward = selectRandomReward(vanillaItemRewards);
-        if (reward == null) {
-            return false;
-        }
-        
-        // Calculate random amount within range
-        int amount = reward.getMinAmount();
-        if (reward.getMaxAmount() > reward.getMinAmount()) {
-            amount += random.nextInt(reward.getMaxAmount() - reward.getMinAmount() + 1);
-        }
-        
-        // Create and give item
-        ItemStack item = new ItemStack(reward.getMaterial(), amount);
-        player.getInventory().addItem(item);
-        
-        return true;
+        double scaled = count * multiplier;
+        int finds = (int) scaled;
+        return random.nextDouble() < scaled - finds ? finds + 1 : finds;
     }
     
     /**
-     * Select a random reward based on weights
-     * @param <T> The reward type
-     * @param rewards List of rewards
-     * @return Selected reward or null if list is empty
+     * Get the rule permissions a player has as a bit mask
+     * @param player The player
+     * @param rules The rules whose permissions to check
+     * @return The permission mask
      */
-    private <T extends WeightedReward> T selectRandomReward(List<T> rewards) {
-        if (rewards.isEmpty()) {
-            return null;
+    private long getPermissionMask(Player player, RewardRules rules) {
+        List<String> permissions = rules.getPermissions();
+        if (permissions.isEmpty()) {
+            return 0L;
         }
         
-        // Calculate total weight
-        double totalWeight = 0;
-        for (T reward : rewards) {
-            totalWeight += reward.getChance();
+        long now = System.currentTimeMillis();
+        PermissionMask cached = permissionMasks.get(player.getUniqueId());
+        if (cached != null && cached.rules == rules && cached.expiresAt > now) {
+            return cached.mask;
         }
         
-        // Roll random number
-        double roll = random.nextDouble() * totalWeight;
-        
-        // Find selected reward
-        double currentWeight = 0;
-        for (T reward : rewards) {
-            currentWeight += reward.getChance();
-            if (roll < currentWeight) {
-                return reward;
+        long mask = 0L;
+        for (int i = 0; i < permissions.size(); i++) {
+            if (player.hasPermission(permissions.get(i))) {
+                mask |= 1L << i;
             }
         }
-        
-        // Fallback to first reward
-        return rewards.get(0);
+        permissionMasks.put(player.getUniqueId(), new PermissionMask(rules, mask, now + permissionRefreshMillis));
+        return mask;
     }
     
     /**
-     * Block configuration class
+     * Forget a player's cached rule permissions, e.g. when they quit
+     * @param uuid The player's UUID
      */
-    private static class BlockConfig {
-        private final boolean enabled;
-        private final double rewardChance;
-        private final boolean dropVanilla;
-        
-        public BlockConfig(boolean enabled, double rewardChance, boolean dropVanilla) {
-            this.enabled = enabled;
-            this.rewardChance = rewardChance;
-            this.dropVanilla = dropVanilla;
-        }
-        
-        public boolean isEnabled() {
-            return enabled;
-        }
-        
-        public double getRewardChance() {
-            return rewardChance;
-        }
-        
-        public boolean isDropVanilla() {
-            return dropVanilla;
-        }
+    public void clearPermissionMask(UUID uuid) {
+        permissionMasks.remove(uuid);
     }
     
     /**
-     * Interface for weighted rewards
+     * Give MMOItem rewards to a player
+     * @param player The player
+     * @param reward The picked reward
+     * @param count Number of items
+     * @return True if successful
      */
-    private interface WeightedReward {
-        double getChance();
+    private boolean giveMmoItemReward(Player player, MMOItemReward reward, int count) {
+        try {
+            int given = 0;
+            int amount = 0;
+            for (int i = 0; i < count; i++) {
+                // Take a pre-built item from the pool, random-stat items differ per find
+                ItemStack item = plugin.getMMOItemPoolManager().take(reward);
+                if (item == null) {
+                    plugin.getLogger().warning("Invalid MMOItems id: " + reward.getId());
+                    break;
+                }
+                
+                plugin.getInventoryDeliveryManager().give(player, item);
+                amount += item.getAmount();
+                given++;
+            }
+            if (given == 0) {
+                return false;
+            }
+            
+            plugin.getAuditLogManager().record(player, AuditRecord.RewardType.MMOITEM,
+                    reward.getType() + ":" + reward.getId(), amount);
+            
+            // Increment MMOItems found counter
+            plugin.getPlayerDataManager().getPlayerData(player).incrementMmoItemsFound(given);
+            plugin.getBroadcastManager().announce(player, reward, reward.getId(), given);
+            
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error giving MMOItem: " + e.getMessage());
+            return false;
+        }
     }
     
     /**
-     * MMOItem reward class
+     * Give crate key rewards to a player
+     * @param player The player
+     * @param reward The picked reward
+     * @param count Number of keys
+     * @return True if successful
      */
-    private static class MMOItemReward implements WeightedReward {
-        private final String type;
-        private final String id;
-        private final double chance;
-        
-        public MMOItemReward(String type, String id, double chance) {
-            this.type = type;
-            this.id = id;
-            this.chance = chance;
-        }
+    private boolean giveCrateKeyReward(Player player, CrateKeyReward reward, int count) {
+        // Queue the keys, merged with other keys of this type found shortly after
+        plugin.getCrateKeyDeliveryManager().queue(player, reward, count);
+        plugin.getAuditLogManager().record(player, AuditRecord.RewardType.CRATE_KEY, reward.getName(), count);
         
-        public String getType() {
-            return type;
-        }
+        // Send message to player
+        plugin.getMessageManager().sendCustomMessage(player, reward.getMessage(), true, null);
         
-        public String getId() {
-            return id;
-        }
+        // Increment keys found counter
+        plugin.getPlayerDataManager().getPlayerData(player).incrementKeysFound(count);
+        plugin.getBroadcastManager().announce(player, reward, reward.getName() + " key", count);
         
-        @Override
-        public double getChance() {
-            return chance;
-        }
+        return true;
     }
     
     /**
-     * Crate key reward class
+     * Give vanilla item rewards to a player as one stack
+     * @param player The player
+     * @param reward The picked reward
+     * @param random The player's random stream
+     * @param count Number of finds, each with its own random amount
+     * @return True if successful
      */
-    private static class CrateKeyReward implements WeightedReward {
-        private final String name;
-        private final String command;
-        private final double chance;
-        private final String message;
-        
-        public CrateKeyReward(String name, String command, double chance, String message) {
-            this.name = name;
-            this.command = command;
-            this.chance = chance;
-            this.message = message;
-        }
-        
-        public String getName() {
-            return name;
+    private boolean giveVanillaItemReward(Player player, VanillaItemReward reward, SplittableRandom random, int count) {
+        // Create and give item with a random amount within range
+        int amount = 0;
+        for (int i = 0; i < count; i++) {
+            amount += reward.rollAmount(random);
         }
-        
-        public String getCommand() {
-            return command;
+        return giveVanillaItems(player, reward, amount, count);
+    }
+    
+    /**
+     * Give an amount of a vanilla item reward to a player
+     * @param player The player
+     * @param reward The picked reward
+     * @param amount Total item amount
+     * @param count Number of finds
+     * @return True if successful
+     */
+    private boolean giveVanillaItems(Player player, VanillaItemReward reward, int amount, int count) {
+        // Aggregated amounts can be far above a stack, so deliver them in full stacks
+        int maxStackSize = Math.max(1, reward.getMaterial().getMaxStackSize());
+        for (int left = amount; left > 0; left -= maxStackSize) {
+            plugin.getInventoryDeliveryManager().give(player, new ItemStack(reward.getMaterial(), Math.min(left, maxStackSize)));
         }
+        plugin.getAuditLogManager().record(player, AuditRecord.RewardType.VANILLA_ITEM,
+                reward.getMaterial().name(), amount);
+        plugin.getBroadcastManager().announce(player, reward, reward.getMaterial().name(), count);
         
-        public String getMessage() {
-            return message;
+        return true;
+    }
+    
+    /**
+     * Give money rewards to a player, deposited with the next economy flush
+     * @param player The player
+     * @param reward The picked reward
+     * @param random The player's random stream
+     * @param count Number of finds, each with its own random amount
+     * @return True if successful
+     */
+    private boolean giveMoneyReward(Player player, MoneyReward reward, SplittableRandom random, int count) {
+        if (!plugin.getMoneyDeliveryManager().isAvailable()) {
+            return false;
         }
         
-        @Override
-        public double getChance() {
-            return chance;
+        double amount = 0;
+        for (int i = 0; i < count; i++) {
+            amount += reward.rollAmount(random);
         }
+        return giveMoney(player, reward, Math.round(amount * 100.0) / 100.0, count);
     }
     
     /**
-     * Vanilla item reward class
+     * Give an amount of a money reward to a player, deposited with the next economy flush
+     * @param player The player
+     * @param reward The picked reward
+     * @param amount Total amount
+     * @param count Number of finds
+     * @return True if successful
      */
-    private static class VanillaItemReward implements WeightedReward {
-        private final Material material;
-        private final int minAmount;
-        private final int maxAmount;
-        private final double chance;
-        
-        public VanillaItemReward(Material material, int minAmount, int maxAmount, double chance) {
-            this.material = material;
-            this.minAmount = minAmount;
-            this.maxAmount = maxAmount;
-            this.chance = chance;
+    private boolean giveMoney(Player player, MoneyReward reward, double amount, int count) {
+        MoneyDeliveryManager money = plugin.getMoneyDeliveryManager();
+        if (!money.isAvailable()) {
+            return false;
         }
         
-        public Material getMaterial() {
-            return material;
-        }
+        money.deposit(player.getUniqueId(), amount);
+        plugin.getAuditLogManager().record(player, AuditRecord.RewardType.MONEY, "money", (int) Math.round(amount * 100.0));
         
-        public int getMinAmount() {
-            return minAmount;
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("amount", String.format(Locale.ROOT, "%.2f", amount));
+        if (reward.getMessage() != null) {
+            plugin.getMessageManager().sendCustomMessage(player, reward.getMessage(), true, placeholders);
+        } else {
+            plugin.getMessageManager().sendMessage(player, "rewards.money", placeholders);
         }
+        plugin.getBroadcastManager().announce(player, reward, placeholders.get("amount") + " coins", count);
         
-        public int getMaxAmount() {
-            return maxAmount;
-        }
+        return true;
+    }
+    
+    /**
+     * Cached rule permission mask of a player
+     */
+    private static class PermissionMask {
+        private final RewardRules rules;
+        private final long mask;
+        private final long expiresAt;
         
-        @Override
-        public double getChance() {
-            return chance;
+        public PermissionMask(RewardRules rules, long mask, long expiresAt) {
+            this.rules = rules;
+            this.mask = mask;
+            this.expiresAt = expiresAt;
         }
     }
-}
\ No newline at end of file
+}
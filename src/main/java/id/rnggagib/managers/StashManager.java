@@ -0,0 +1,283 @@
+package id.rnggagib.managers;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.scheduler.ScheduledTask;
+import id.rnggagib.stash.Stash;
+import id.rnggagib.stash.StashMenu;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+
+/**
+ * Keeps reward items that didn't fit into a player's inventory in a virtual stash,
+ * so they are never dropped on the ground. Stashes are loaded lazily and saved
+ * asynchronously next to the player data.
+ */
+public class StashManager {
+    private final BlockParty plugin;
+    private final ConcurrentHashMap<UUID, CompletableFuture<Stash>> stashes = new ConcurrentHashMap<>();
+    private final File dataFolder;
+    private final Executor asyncExecutor;
+    private final Object ioLock = new Object();
+    private ScheduledTask saveTask;
+    
+    // Configuration
+    private long saveInterval;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     */
+    public StashManager(BlockParty plugin) {
+        this.plugin = plugin;
+        this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
+        this.asyncExecutor = task -> plugin.getScheduler().runAsync(task);
+        loadConfiguration();
+        startSaveTask();
+    }
+    
+    /**
+     * Load configuration settings
+     */
+    private void loadConfiguration() {
+        saveInterval = Math.max(20L, plugin.getConfigManager().getConfig().getLong("stash.save-interval", 600L));
+    }
+    
+    /**
+     * Reload configuration
+     */
+    public void reload() {
+        loadConfiguration();
+        stopSaveTask();
+        startSaveTask();
+    }
+    
+    /**
+     * Get a player's stash, loading it asynchronously on first use
+     * @param uuid The player's UUID
+     * @return The stash once it is loaded
+     */
+    public CompletableFuture<Stash> getStash(UUID uuid) {
+        return stashes.computeIfAbsent(uuid, id -> CompletableFuture.supplyAsync(() -> read(id), asyncExecutor));
+    }
+    
+    /**
+     * Put items into a player's stash
+     * @param uuid The player's UUID
+     * @param items The items
+     */
+    public void add(UUID uuid, Collection<ItemStack> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        
+        getStash(uuid).thenAccept(stash -> addLoaded(uuid, stash, items));
+    }
+    
+    /**
+     * Put items into a loaded stash through its map entry, so unloading can't
+     * drop the stash between its last save and the items being added
+     * @param uuid The player's UUID
+     * @param stash The loaded stash
+     * @param items The items
+     */
+    private void addLoaded(UUID uuid, Stash stash, Collection<ItemStack> items) {
+        CompletableFuture<Stash> entry = stashes.compute(uuid, (id, current) -> {
+            if (current == null) {
+                // Unloaded meanwhile, the stash still matches its file so it can be kept as is
+                stash.add(items);
+                return CompletableFuture.completedFuture(stash);
+            }
+            if (current.getNow(null) == stash) {
+                stash.add(items);
+            }
+            return current;
+        });
+        
+        // The stash was unloaded and is being loaded again, add to the new one
+        if (entry.getNow(null) != stash) {
+            add(uuid, items);
+        }
+    }
+    
+    /**
+     * Open the stash menu for a player once the stash is loaded
+     * @param player The player
+     */
+    public void open(Player player) {
+        getStash(player.getUniqueId()).thenAccept(stash -> plugin.getScheduler().runForEntityLater(player, () -> {
+            if (stash.isEmpty()) {
+                plugin.getMessageManager().sendMessage(player, "stash.empty");
+                return;
+            }
+            player.openInventory(new StashMenu(plugin, stash, 0).getInventory());
+        }, 1L));
+    }
+    
+    /**
+     * Move one stack from the stash into the player's inventory
+     * @param player The player
+     * @param menu The open stash menu
+     * @param slot The clicked slot
+     */
+    public void claim(Player player, StashMenu menu, int slot) {
+        int index = menu.getIndex(slot);
+        if (index < 0) {
+            return;
+        }
+        
+        ItemStack item = menu.getStash().take(index, menu.getShown(slot));
+        if (item != null) {
+            keepLeftovers(player, menu.getStash(), player.getInventory().addItem(item));
+        }
+        menu.render();
+    }
+    
+    /**
+     * Move as much of the stash as fits into the player's inventory
+     * @param player The player
+     * @param menu The open stash menu
+     */
+    public void claimAll(Player player, StashMenu menu) {
+        List<ItemStack> items = menu.getStash().takeAll();
+        if (!items.isEmpty()) {
+            keepLeftovers(player, menu.getStash(), player.getInventory().addItem(items.toArray(new ItemStack[0])));
+        }
+        menu.render();
+    }
+    
+    /**
+     * Put items that didn't fit back into the stash
+     * @param player The player
+     * @param stash The stash
+     * @param leftovers Leftovers of the inventory insertion
+     */
+    private void keepLeftovers(Player player, Stash stash, Map<Integer, ItemStack> leftovers) {
+        if (!leftovers.isEmpty()) {
+            stash.add(leftovers.values());
+            plugin.getMessageManager().sendMessage(player, "stash.inventory-full");
+        }
+    }
+    
+    /**
+     * Save a player's stash and drop it from memory, e.g. when they quit
+     * @param uuid The player's UUID
+     */
+    public void unload(UUID uuid) {
+        CompletableFuture<Stash> future = stashes.get(uuid);
+        if (future == null) {
+            return;
+        }
+        
+        future.thenAcceptAsync(stash -> {
+            synchronized (ioLock) {
+                save(uuid, stash);
+                // Items are added inside the entry too, so items added while saving keep the stash loaded
+                stashes.computeIfPresent(uuid, (id, current) -> current == future && !stash.isDirty() ? null : current);
+            }
+        }, asyncExecutor);
+    }
+    
+    /**
+     * Read a stash from file
+     * @param uuid The player's UUID
+     * @return The stash, empty if it couldn't be read
+     */
+    private Stash read(UUID uuid) {
+        synchronized (ioLock) {
+            try {
+                return Stash.read(getFile(uuid));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not load stash for " + uuid, e);
+                return new Stash();
+            }
+        }
+    }
+    
+    /**
+     * Write a stash to file if it changed
+     * @param uuid The player's UUID
+     * @param stash The stash
+     */
+    private void save(UUID uuid, Stash stash) {
+        if (!stash.isDirty()) {
+            return;
+        }
+        
+        synchronized (ioLock) {
+            try {
+                stash.write(getFile(uuid));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save stash for " + uuid, e);
+            }
+        }
+    }
+    
+    /**
+     * Write all loaded stashes that changed
+     */
+    private void saveAll() {
+        Map<UUID, Stash> loaded = new HashMap<>();
+        stashes.forEach((uuid, future) -> {
+            Stash stash = future.getNow(null);
+            if (stash != null) {
+                loaded.put(uuid, stash);
+            }
+        });
+        loaded.forEach(this::save);
+    }
+    
+    /**
+     * Get the stash file of a player
+     * @param uuid The player's UUID
+     * @return The stash file
+     */
+    private File getFile(UUID uuid) {
+        return new File(dataFolder, uuid + ".stash");
+    }
+    
+    /**
+     * Start the periodic save task
+     */
+    private synchronized void startSaveTask() {
+        if (saveTask == null) {
+            saveTask = plugin.getScheduler().runAsyncTimer(scheduledTask -> saveAll(), saveInterval, saveInterval);
+        }
+    }
+    
+    /**
+     * Stop the periodic save task
+     */
+    private synchronized void stopSaveTask() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+    }
+    
+    /**
+     * Stop saving periodically and write all changed stashes
+     */
+    public void cancelAllTasks() {
+        stopSaveTask();
+        
+        // Async tasks may not run anymore, so finish stashes that are still loading here
+        stashes.forEach((uuid, future) -> {
+            if (!future.isDone()) {
+                future.complete(read(uuid));
+            }
+        });
+        saveAll();
+    }
+}
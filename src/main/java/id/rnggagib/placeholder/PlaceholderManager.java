@@ -1,6 +1,8 @@
 package id.rnggagib.placeholder;
 
 import id.rnggagib.BlockParty;
+import id.rnggagib.leaderboard.LeaderboardEntry;
+import id.rnggagib.leaderboard.LeaderboardPeriod;
 import id.rnggagib.managers.PlayerDataManager;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
@@ -52,6 +54,11 @@ public class PlaceholderManager extends PlaceholderExpansion {
      */
     @Override
     public String onRequest(OfflinePlayer player, String identifier) {
+        // Leaderboard placeholders don't depend on the player
+        if (identifier.toLowerCase().startsWith("top_combo_")) {
+            return getTopCombo(identifier.substring("top_combo_".length()).toLowerCase());
+        }
+        
         if (player == null || !player.isOnline()) {
             return "";
         }
@@ -73,6 +80,9 @@ public class PlaceholderManager extends PlaceholderExpansion {
             case "keys_found":
                 return String.valueOf(playerData.getKeysFound());
                 
+            case "items_picked_up":
+                return String.valueOf(playerData.getItemsPickedUp());
+                
             case "session_active":
                 return plugin.getSessionManager().hasActiveSession(player.getUniqueId()) ? "yes" : "no";
                 
@@ -83,6 +93,18 @@ public class PlaceholderManager extends PlaceholderExpansion {
                 long timeLeft = plugin.getSessionManager().getRemainingTime(player.getUniqueId());
                 return String.format("%d:%02d", timeLeft / 60, timeLeft % 60);
                 
+            case "event_active":
+                return plugin.getMultiplierEventManager().getCurrent().isActive() ? "yes" : "no";
+                
+            case "event_name":
+                return String.join(", ", plugin.getMultiplierEventManager().getCurrent().getActiveEvents());
+                
+            case "event_reward_multiplier":
+                return String.format("%.1fx", plugin.getMultiplierEventManager().getCurrent().getRewardMultiplier());
+                
+            case "event_drop_multiplier":
+                return String.format("%.1fx", plugin.getMultiplierEventManager().getCurrent().getDropMultiplier());
+                
             case "can_mine_here":
                 Player onlinePlayer = player.getPlayer();
                 if (onlinePlayer == null) {
@@ -94,5 +116,42 @@ public class PlaceholderManager extends PlaceholderExpansion {
         return null; // Placeholder not found
     }
     
+    /**
+     * Resolve a leaderboard placeholder: top_combo_[daily_|weekly_|alltime_]<rank>_<name|value>
+     * @param identifier The part after "top_combo_"
+     * @return The value, empty if the rank is empty, or null if the placeholder is invalid
+     */
+    private String getTopCombo(String identifier) {
+        String[] parts = identifier.split("_");
+        if (parts.length < 2 || parts.length > 3) {
+            return null;
+        }
+        
+        // All time unless a period is given
+        LeaderboardPeriod period = parts.length == 3 ? LeaderboardPeriod.fromKey(parts[0]) : LeaderboardPeriod.ALL_TIME;
+        if (period == null) {
+            return null;
+        }
+        
+        int rank;
+        try {
+            rank = Integer.parseInt(parts[parts.length - 2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        LeaderboardEntry entry = plugin.getLeaderboardManager().getEntry(period, rank);
+        switch (parts[parts.length - 1]) {
+            case "name":
+                return entry != null ? entry.getName() : "";
+                
+            case "value":
+                return entry != null ? String.valueOf(entry.getCombo()) : "";
+                
+            default:
+                return null;
+        }
+    }
+    
     // No need to override the register() method; use the inherited one from PlaceholderExpansion.
 }
\ No newline at end of file
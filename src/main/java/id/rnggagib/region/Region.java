@@ -4,11 +4,20 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a mining region for BlockParty
  */
 public class Region {
+    // Region names are mapped to small ints once, so reward rules compare ids instead of names
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    
     private final String name;
+    private final int id;
     private final String worldName;
     private final int minX, minY, minZ;
     private final int maxX, maxY, maxZ;
@@ -22,6 +31,7 @@ public class Region {
      */
     public Region(String name, World world, Location pos1, Location pos2) {
         this.name = name;
+        this.id = idOf(name);
         this.worldName = world.getName();
         
         // Ensure min is always smaller than max
@@ -41,6 +51,7 @@ public class Region {
      */
     public Region(String name, ConfigurationSection section) {
         this.name = name;
+        this.id = idOf(name);
         this.worldName = section.getString("world");
         this.minX = section.getInt("min.x");
         this.minY = section.getInt("min.y");
@@ -50,6 +61,15 @@ public class Region {
         this.maxZ = section.getInt("max.z");
     }
     
+    /**
+     * Get the id of a region name, assigning a new one on first use
+     * @param name Region name, case-insensitive
+     * @return The region id
+     */
+    public static int idOf(String name) {
+        return IDS.computeIfAbsent(name.toLowerCase(), key -> NEXT_ID.getAndIncrement());
+    }
+    
     /**
      * Check if a location is within this region
      * @param location Location to check
@@ -91,6 +111,10 @@ public class Region {
         return name;
     }
     
+    public int getId() {
+        return id;
+    }
+    
     /**
      * Get the world name of this region
      * @return World name
@@ -0,0 +1,40 @@
+package id.rnggagib.rewards;
+
+/**
+ * Reward settings of a minable block
+ */
+public class BlockConfig {
+    private final boolean enabled;
+    private final double rewardChance;
+    private final boolean dropVanilla;
+    private final boolean autoPickup;
+    private final boolean autoSmelt;
+    
+    public BlockConfig(boolean enabled, double rewardChance, boolean dropVanilla, boolean autoPickup, boolean autoSmelt) {
+        this.enabled = enabled;
+        this.rewardChance = rewardChance;
+        this.dropVanilla = dropVanilla;
+        this.autoPickup = autoPickup;
+        this.autoSmelt = autoSmelt;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public double getRewardChance() {
+        return rewardChance;
+    }
+    
+    public boolean isDropVanilla() {
+        return dropVanilla;
+    }
+    
+    public boolean isAutoPickup() {
+        return autoPickup;
+    }
+    
+    public boolean isAutoSmelt() {
+        return autoSmelt;
+    }
+}
@@ -0,0 +1,61 @@
+package id.rnggagib.rewards;
+
+/**
+ * Weighted reward that may be limited by a server-wide rate cap
+ */
+public abstract class CappedReward implements WeightedReward {
+    private RewardCap cap;
+    private double probability;
+    private Boolean broadcast;
+    
+    /**
+     * Get the key identifying this reward's cap across reloads
+     * @return The cap key
+     */
+    public abstract String getCapKey();
+    
+    /**
+     * Get the rate cap of this reward
+     * @return The cap or null if the reward isn't capped
+     */
+    public RewardCap getCap() {
+        return cap;
+    }
+    
+    void setCap(RewardCap cap) {
+        this.cap = cap;
+    }
+    
+    /**
+     * Get the chance of this reward per rewarded break: its category chance times
+     * its share of the category's weight. Used as the reward's rarity.
+     * @return The probability
+     */
+    public double getProbability() {
+        return probability;
+    }
+    
+    void setProbability(double probability) {
+        this.probability = probability;
+    }
+    
+    /**
+     * Get the configured broadcast override
+     * @return True or false to always or never broadcast, null to decide by rarity
+     */
+    public Boolean getBroadcast() {
+        return broadcast;
+    }
+    
+    void setBroadcast(Boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+    
+    /**
+     * Count a drop against this reward's cap
+     * @return True if the reward may drop
+     */
+    public boolean tryAcquireCap() {
+        return cap == null || cap.tryAcquire();
+    }
+}
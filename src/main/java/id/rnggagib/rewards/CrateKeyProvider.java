@@ -0,0 +1,28 @@
+package id.rnggagib.rewards;
+
+import java.util.UUID;
+
+/**
+ * Direct adapter to a crate plugin, used instead of dispatching the configured
+ * give command. Crate plugins can register an implementation with Bukkit's
+ * ServicesManager, or addons can set one on the CrateKeyDeliveryManager.
+ * Calls are made from the global scheduler thread.
+ */
+public interface CrateKeyProvider {
+    /**
+     * Check if this provider knows a key
+     * @param keyName The key name from blocks.yml
+     * @return True if the key can be given through this provider
+     */
+    boolean hasKey(String keyName);
+    
+    /**
+     * Give keys to a player
+     * @param playerId The player's UUID
+     * @param playerName The player's name
+     * @param keyName The key name from blocks.yml
+     * @param amount Number of keys
+     * @return True if the keys were given, false to fall back to the command
+     */
+    boolean giveKeys(UUID playerId, String playerName, String keyName, int amount);
+}
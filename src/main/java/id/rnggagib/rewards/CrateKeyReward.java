@@ -0,0 +1,40 @@
+package id.rnggagib.rewards;
+
+/**
+ * Crate key reward
+ */
+public class CrateKeyReward extends CappedReward {
+    private final String name;
+    private final String command;
+    private final double chance;
+    private final String message;
+    
+    public CrateKeyReward(String name, String command, double chance, String message) {
+        this.name = name;
+        this.command = command;
+        this.chance = chance;
+        this.message = message;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    @Override
+    public String getCapKey() {
+        return "crate-key:" + name;
+    }
+    
+    @Override
+    public double getChance() {
+        return chance;
+    }
+}
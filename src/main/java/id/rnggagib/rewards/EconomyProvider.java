@@ -0,0 +1,23 @@
+package id.rnggagib.rewards;
+
+import java.util.UUID;
+
+/**
+ * Economy that money rewards are deposited into. Deposits are batched per player,
+ * so an implementation is called at most once per player and flush interval.
+ */
+public interface EconomyProvider {
+    /**
+     * Get the name of the economy, for logging
+     * @return The name
+     */
+    String getName();
+    
+    /**
+     * Deposit money into a player's account
+     * @param playerId The player's UUID
+     * @param amount Amount to deposit
+     * @return True if the deposit succeeded, false to retry it with the next flush
+     */
+    boolean deposit(UUID playerId, double amount);
+}
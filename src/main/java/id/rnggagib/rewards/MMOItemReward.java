@@ -0,0 +1,56 @@
+package id.rnggagib.rewards;
+
+import net.Indyuce.mmoitems.api.Type;
+
+/**
+ * MMOItem reward
+ */
+public class MMOItemReward extends CappedReward {
+    private final String type;
+    private final String id;
+    private final double chance;
+    
+    // Resolved once when the reward table is compiled, null if MMOItems doesn't know the type
+    private Type resolvedType;
+    
+    public MMOItemReward(String type, String id, double chance) {
+        this.type = type;
+        this.id = id;
+        this.chance = chance;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    /**
+     * Get the MMOItems type handle
+     * @return The resolved type or null if it is unknown
+     */
+    public Type getResolvedType() {
+        return resolvedType;
+    }
+    
+    /**
+     * Look up the MMOItems type handle, only call this while MMOItems is installed
+     * @return True if the type exists
+     */
+    boolean resolve() {
+        resolvedType = Type.get(type);
+        return resolvedType != null;
+    }
+    
+    @Override
+    public String getCapKey() {
+        return "mmoitem:" + type + ":" + id;
+    }
+    
+    @Override
+    public double getChance() {
+        return chance;
+    }
+}
@@ -0,0 +1,59 @@
+package id.rnggagib.rewards;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Money reward, deposited through the economy provider
+ */
+public class MoneyReward extends CappedReward {
+    private final double minAmount;
+    private final double maxAmount;
+    private final double chance;
+    private final String message;
+    
+    public MoneyReward(double minAmount, double maxAmount, double chance, String message) {
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.chance = chance;
+        this.message = message;
+    }
+    
+    public double getMinAmount() {
+        return minAmount;
+    }
+    
+    public double getMaxAmount() {
+        return maxAmount;
+    }
+    
+    /**
+     * Get the message shown when the reward is found
+     * @return The message or null to use the default message
+     */
+    public String getMessage() {
+        return message;
+    }
+    
+    /**
+     * Roll a random amount within the configured range, rounded to cents
+     * @param random The random source
+     * @return The amount
+     */
+    public double rollAmount(RandomGenerator random) {
+        double amount = minAmount;
+        if (maxAmount > minAmount) {
+            amount += random.nextDouble() * (maxAmount - minAmount);
+        }
+        return Math.round(amount * 100.0) / 100.0;
+    }
+    
+    @Override
+    public String getCapKey() {
+        return "money:" + minAmount + "-" + maxAmount;
+    }
+    
+    @Override
+    public double getChance() {
+        return chance;
+    }
+}
@@ -0,0 +1,102 @@
+package id.rnggagib.rewards;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of reward outcomes rolled ahead of time for one player. A single
+ * background worker fills it from the player's own stream; the threads handling
+ * the player's breaks only take outcomes, without any locking.
+ */
+public class OutcomeBuffer {
+    private final RewardTable table;
+    private final SplittableRandom random;
+    private final RewardOutcome[] ring;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    
+    /**
+     * Constructor
+     * @param table The reward table outcomes are rolled from
+     * @param random The stream outcomes are rolled with, only used by the filling thread
+     * @param capacity Number of outcomes kept ready, rounded up to a power of two
+     */
+    public OutcomeBuffer(RewardTable table, SplittableRandom random, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.table = table;
+        this.random = random;
+        this.ring = new RewardOutcome[size];
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Roll outcomes until the buffer is full, called from the filling thread only
+     * @return Number of outcomes added
+     */
+    public int fill() {
+        int added = 0;
+        long t = tail.get();
+        while (t - head.get() < ring.length) {
+            ring[(int) t & mask] = roll();
+            // Publish the outcome only after it was written
+            tail.lazySet(++t);
+            added++;
+        }
+        return added;
+    }
+    
+    /**
+     * Roll one outcome from the default rewards. Caps aren't counted here, they are
+     * counted when the outcome is used.
+     * @return The outcome
+     */
+    private RewardOutcome roll() {
+        double blockRoll = random.nextDouble();
+        WeightedReward reward = table.rollReward(random, 1.0, false);
+        
+        int itemAmount = 0;
+        double moneyAmount = 0;
+        if (reward instanceof VanillaItemReward vanillaItemReward) {
+            itemAmount = vanillaItemReward.rollAmount(random);
+        } else if (reward instanceof MoneyReward moneyReward) {
+            moneyAmount = moneyReward.rollAmount(random);
+        }
+        return new RewardOutcome(blockRoll, reward, itemAmount, moneyAmount);
+    }
+    
+    /**
+     * Take the next outcome
+     * @return The outcome, or null if the buffer is empty
+     */
+    public RewardOutcome poll() {
+        while (true) {
+            long h = head.get();
+            if (h >= tail.get()) {
+                return null;
+            }
+            
+            // The slot isn't overwritten before head moves past it
+            RewardOutcome outcome = ring[(int) h & mask];
+            if (head.compareAndSet(h, h + 1)) {
+                return outcome;
+            }
+        }
+    }
+    
+    /**
+     * Get the number of outcomes ready
+     * @return The number of outcomes
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+    
+    public RewardTable getTable() {
+        return table;
+    }
+    
+    public SplittableRandom getRandom() {
+        return random;
+    }
+}
@@ -0,0 +1,138 @@
+package id.rnggagib.rewards;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-wide limit on how often a reward may drop within a sliding time window.
+ * The window is a ring of buckets, each counted with a striped LongAdder, so
+ * concurrent rolls never contend on a single counter. The sum of the closed buckets
+ * is cached per bucket tick, so a roll only reads the current bucket. The cap is
+ * soft: rolls racing on the last slot may overshoot it by a few drops.
+ */
+public class RewardCap {
+    private static final int BUCKETS = 60;
+    
+    private final long max;
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+    private volatile ClosedSum closed = new ClosedSum(-1L, 0L);
+    
+    /**
+     * Constructor
+     * @param max Maximum drops within the window
+     * @param windowMillis Window length in milliseconds
+     */
+    public RewardCap(long max, long windowMillis) {
+        this.max = max;
+        this.windowMillis = windowMillis;
+        this.bucketMillis = Math.max(1L, windowMillis / BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+            epochs.set(i, -1L);
+        }
+    }
+    
+    /**
+     * Count a drop if the cap isn't reached yet
+     * @return True if the drop is allowed
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (getCount(now) >= max) {
+            return false;
+        }
+        
+        bucket(now).increment();
+        return true;
+    }
+    
+    /**
+     * Check if the cap is reached
+     * @return True if no more drops are allowed right now
+     */
+    public boolean isExhausted() {
+        return getCount(System.currentTimeMillis()) >= max;
+    }
+    
+    /**
+     * Count the drops within the window
+     * @param now Current time in epoch millis
+     * @return Number of drops
+     */
+    public long getCount(long now) {
+        long epoch = now / bucketMillis;
+        ClosedSum sum = closed;
+        if (sum.epoch != epoch) {
+            sum = new ClosedSum(epoch, sumClosedBuckets(epoch));
+            closed = sum;
+        }
+        
+        int index = (int) (epoch % BUCKETS);
+        return epochs.get(index) == epoch ? sum.count + counts[index].sum() : sum.count;
+    }
+    
+    /**
+     * Sum the buckets within the window other than the current one
+     * @param epoch The current bucket epoch
+     * @return Number of drops
+     */
+    private long sumClosedBuckets(long epoch) {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long seen = epochs.get(i);
+            if (seen != epoch && epoch - seen < BUCKETS) {
+                count += counts[i].sum();
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Get the bucket of the current time, clearing it if it still holds an old epoch
+     * @param now Current time in epoch millis
+     * @return The bucket counter
+     */
+    private LongAdder bucket(long now) {
+        long epoch = now / bucketMillis;
+        int index = (int) (epoch % BUCKETS);
+        long seen = epochs.get(index);
+        if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+            counts[index].reset();
+        }
+        return counts[index];
+    }
+    
+    /**
+     * Check if this cap has the given limits
+     * @param max Maximum drops
+     * @param windowMillis Window length in milliseconds
+     * @return True if both match
+     */
+    public boolean hasLimits(long max, long windowMillis) {
+        return this.max == max && this.windowMillis == windowMillis;
+    }
+    
+    public long getMax() {
+        return max;
+    }
+    
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+    
+    /**
+     * Drops of the closed buckets as of a bucket epoch
+     */
+    private static final class ClosedSum {
+        private final long epoch;
+        private final long count;
+        
+        private ClosedSum(long epoch, long count) {
+            this.epoch = epoch;
+            this.count = count;
+        }
+    }
+}
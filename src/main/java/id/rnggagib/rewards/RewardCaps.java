@@ -0,0 +1,85 @@
+package id.rnggagib.rewards;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The caps of a reward table by key. Caps whose limits didn't change are carried
+ * over from the previous table, so a reload doesn't reset their windows.
+ */
+public class RewardCaps {
+    private final Map<String, RewardCap> caps = new HashMap<>();
+    private RewardCaps previous;
+    
+    /**
+     * Constructor
+     * @param previous Caps of the previous table, or null
+     */
+    public RewardCaps(RewardCaps previous) {
+        this.previous = previous;
+    }
+    
+    /**
+     * Drop the reference to the previous table's caps once compiling is done,
+     * so tables don't keep each other alive across reloads
+     */
+    void compiled() {
+        previous = null;
+    }
+    
+    /**
+     * Create the cap configured in a section
+     * @param key Unique key of the capped reward or category
+     * @param section Section with "cap" and "cap-window" (seconds), may be null
+     * @return The cap, or null if none is configured
+     */
+    public RewardCap fromSection(String key, ConfigurationSection section) {
+        if (section == null || !section.contains("cap")) {
+            return null;
+        }
+        return get(key, section.getLong("cap"), section.getLong("cap-window", 3600L));
+    }
+    
+    /**
+     * Create the cap configured in a list entry
+     * @param key Unique key of the capped reward
+     * @param entry Entry with "cap" and "cap-window" (seconds)
+     * @return The cap, or null if none is configured
+     */
+    public RewardCap fromEntry(String key, Map<?, ?> entry) {
+        Object max = entry.get("cap");
+        if (max == null) {
+            return null;
+        }
+        
+        Object window = entry.get("cap-window");
+        return get(key, Long.parseLong(max.toString()), window != null ? Long.parseLong(window.toString()) : 3600L);
+    }
+    
+    /**
+     * Get a cap, reusing the previous table's cap if its limits are unchanged
+     * @param key Unique key of the capped reward or category
+     * @param max Maximum drops within the window
+     * @param windowSeconds Window length in seconds
+     * @return The cap
+     */
+    private RewardCap get(String key, long max, long windowSeconds) {
+        long windowMillis = Math.max(1L, windowSeconds) * 1000L;
+        
+        // Rewards listed in several pools with the same limits share one cap
+        RewardCap cap = caps.get(key);
+        if (cap != null && cap.hasLimits(max, windowMillis)) {
+            return cap;
+        }
+        
+        cap = previous != null ? previous.caps.get(key) : null;
+        if (cap == null || !cap.hasLimits(max, windowMillis)) {
+            cap = new RewardCap(max, windowMillis);
+        }
+        
+        caps.put(key, cap);
+        return cap;
+    }
+}
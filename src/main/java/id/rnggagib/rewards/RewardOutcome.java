@@ -0,0 +1,41 @@
+package id.rnggagib.rewards;
+
+/**
+ * A reward roll made ahead of time: the block reward roll, the picked reward and its amount
+ */
+public class RewardOutcome {
+    private final double blockRoll;
+    private final WeightedReward reward;
+    private final int itemAmount;
+    private final double moneyAmount;
+    
+    /**
+     * Constructor
+     * @param blockRoll Uniform roll compared against the block's reward chance
+     * @param reward The picked reward, or null if the roll gives nothing
+     * @param itemAmount Item amount of a vanilla item reward
+     * @param moneyAmount Amount of a money reward
+     */
+    public RewardOutcome(double blockRoll, WeightedReward reward, int itemAmount, double moneyAmount) {
+        this.blockRoll = blockRoll;
+        this.reward = reward;
+        this.itemAmount = itemAmount;
+        this.moneyAmount = moneyAmount;
+    }
+    
+    public double getBlockRoll() {
+        return blockRoll;
+    }
+    
+    public WeightedReward getReward() {
+        return reward;
+    }
+    
+    public int getItemAmount() {
+        return itemAmount;
+    }
+    
+    public double getMoneyAmount() {
+        return moneyAmount;
+    }
+}
@@ -0,0 +1,592 @@
+package id.rnggagib.rewards;
+
+import id.rnggagib.utils.AliasSampler;
+import id.rnggagib.utils.BinomialSampler;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compiled reward categories of one rewards section: MMOItems, crate keys, vanilla items and money
+ */
+public class RewardPool {
+    // Item categories in the order they are tried, money has a roll of its own
+    private static final int MMOITEMS = 0;
+    private static final int CRATE_KEYS = 1;
+    private static final int VANILLA_ITEMS = 2;
+    private static final int MONEY = 3;
+    private static final int ITEM_CATEGORIES = 3;
+    
+    private boolean mmoItemsEnabled;
+    private boolean mmoItemsAvailable;
+    private boolean mmoItemTypesResolved;
+    private double mmoItemsChance;
+    private AliasSampler<MMOItemReward> mmoItemRewards;
+    private RewardCap mmoItemsCap;
+    
+    private boolean crateKeysEnabled;
+    private double crateKeysChance;
+    private AliasSampler<CrateKeyReward> crateKeyRewards;
+    private RewardCap crateKeysCap;
+    
+    private boolean vanillaItemsEnabled;
+    private double vanillaItemsChance;
+    private AliasSampler<VanillaItemReward> vanillaItemRewards;
+    private RewardCap vanillaItemsCap;
+    
+    private boolean moneyEnabled;
+    private double moneyChance;
+    private AliasSampler<MoneyReward> moneyRewards;
+    private RewardCap moneyCap;
+    
+    private RewardPool() {
+    }
+    
+    /**
+     * Compile a rewards section
+     * @param section The section holding the mmoitems, crate-keys and vanilla-items categories, may be null
+     * @param capPrefix Prefix of the category cap keys, so every pool has its own category caps
+     * @param caps Caps of the table being compiled
+     * @param logger Logger for invalid entries
+     * @param mmoItemsAvailable Whether MMOItems rewards can be given
+     * @param resolveTypes Whether to resolve MMOItems types, needs MMOItems to be installed
+     * @return The compiled pool
+     */
+    static RewardPool compile(ConfigurationSection section, String capPrefix, RewardCaps caps, Logger logger,
+                              boolean mmoItemsAvailable, boolean resolveTypes) {
+        RewardPool pool = new RewardPool();
+        
+        // Load MMOItems rewards
+        ConfigurationSection mmoItemsSection = section != null ? section.getConfigurationSection("mmoitems") : null;
+        pool.mmoItemsEnabled = mmoItemsSection != null && mmoItemsSection.getBoolean("enabled", true);
+        pool.mmoItemsChance = mmoItemsSection != null ? mmoItemsSection.getDouble("chance", 0.3) : 0.3;
+        pool.mmoItemsAvailable = mmoItemsAvailable;
+        pool.mmoItemTypesResolved = resolveTypes;
+        pool.mmoItemsCap = caps.fromSection(capPrefix + "mmoitems", mmoItemsSection);
+        
+        List<MMOItemReward> mmoItems = new ArrayList<>();
+        if (pool.mmoItemsEnabled && mmoItemsSection != null) {
+            for (Map<?, ?> item : mmoItemsSection.getMapList("items")) {
+                String type = item.get("type").toString();
+                String id = item.get("id").toString();
+                double chance = Double.parseDouble(item.get("chance").toString());
+                
+                MMOItemReward reward = new MMOItemReward(type, id, chance);
+                if (resolveTypes && !reward.resolve()) {
+                    logger.warning("Invalid MMOItems type: " + type);
+                }
+                reward.setCap(caps.fromEntry(reward.getCapKey(), item));
+                reward.setBroadcast(getBroadcast(item));
+                mmoItems.add(reward);
+            }
+        }
+        pool.mmoItemRewards = new AliasSampler<>(mmoItems, WeightedReward::getChance);
+        assignProbabilities(mmoItems, pool.mmoItemsChance);
+        
+        // Load crate key rewards
+        ConfigurationSection crateKeysSection = section != null ? section.getConfigurationSection("crate-keys") : null;
+        pool.crateKeysEnabled = crateKeysSection != null && crateKeysSection.getBoolean("enabled", true);
+        pool.crateKeysChance = crateKeysSection != null ? crateKeysSection.getDouble("chance", 0.2) : 0.2;
+        pool.crateKeysCap = caps.fromSection(capPrefix + "crate-keys", crateKeysSection);
+        
+        List<CrateKeyReward> crateKeys = new ArrayList<>();
+        if (pool.crateKeysEnabled && crateKeysSection != null) {
+            for (Map<?, ?> key : crateKeysSection.getMapList("keys")) {
+                String name = key.get("name").toString();
+                String command = key.get("command").toString();
+                double chance = Double.parseDouble(key.get("chance").toString());
+                String message = key.get("message").toString();
+                
+                CrateKeyReward reward = new CrateKeyReward(name, command, chance, message);
+                reward.setCap(caps.fromEntry(reward.getCapKey(), key));
+                reward.setBroadcast(getBroadcast(key));
+                crateKeys.add(reward);
+            }
+        }
+        pool.crateKeyRewards = new AliasSampler<>(crateKeys, WeightedReward::getChance);
+        assignProbabilities(crateKeys, pool.crateKeysChance);
+        
+        // Load vanilla item rewards
+        ConfigurationSection vanillaItemsSection = section != null ? section.getConfigurationSection("vanilla-items") : null;
+        pool.vanillaItemsEnabled = vanillaItemsSection != null && vanillaItemsSection.getBoolean("enabled", true);
+        pool.vanillaItemsChance = vanillaItemsSection != null ? vanillaItemsSection.getDouble("chance", 0.5) : 0.5;
+        pool.vanillaItemsCap = caps.fromSection(capPrefix + "vanilla-items", vanillaItemsSection);
+        
+        List<VanillaItemReward> vanillaItems = new ArrayList<>();
+        if (pool.vanillaItemsEnabled && vanillaItemsSection != null) {
+            for (Map<?, ?> item : vanillaItemsSection.getMapList("items")) {
+                String materialName = item.get("material").toString();
+                int minAmount = Integer.parseInt(item.get("min-amount").toString());
+                int maxAmount = Integer.parseInt(item.get("max-amount").toString());
+                double chance = Double.parseDouble(item.get("chance").toString());
+                
+                try {
+                    Material material = Material.valueOf(materialName);
+                    VanillaItemReward reward = new VanillaItemReward(material, minAmount, maxAmount, chance);
+                    reward.setCap(caps.fromEntry(reward.getCapKey(), item));
+                    reward.setBroadcast(getBroadcast(item));
+                    vanillaItems.add(reward);
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid material in vanilla rewards: " + materialName);
+                }
+            }
+        }
+        pool.vanillaItemRewards = new AliasSampler<>(vanillaItems, WeightedReward::getChance);
+        assignProbabilities(vanillaItems, pool.vanillaItemsChance);
+        
+        // Load money rewards
+        ConfigurationSection moneySection = section != null ? section.getConfigurationSection("money") : null;
+        pool.moneyEnabled = moneySection != null && moneySection.getBoolean("enabled", true);
+        pool.moneyChance = moneySection != null ? moneySection.getDouble("chance", 0.1) : 0.1;
+        pool.moneyCap = caps.fromSection(capPrefix + "money", moneySection);
+        
+        List<MoneyReward> money = new ArrayList<>();
+        if (pool.moneyEnabled && moneySection != null) {
+            for (Map<?, ?> entry : moneySection.getMapList("amounts")) {
+                double minAmount = Double.parseDouble(entry.get("min-amount").toString());
+                double maxAmount = Double.parseDouble(entry.get("max-amount").toString());
+                double chance = Double.parseDouble(entry.get("chance").toString());
+                Object message = entry.get("message");
+                
+                MoneyReward reward = new MoneyReward(minAmount, maxAmount, chance, message != null ? message.toString() : null);
+                reward.setCap(caps.fromEntry(reward.getCapKey(), entry));
+                reward.setBroadcast(getBroadcast(entry));
+                money.add(reward);
+            }
+        }
+        pool.moneyRewards = new AliasSampler<>(money, WeightedReward::getChance);
+        assignProbabilities(money, pool.moneyChance);
+        
+        return pool;
+    }
+    
+    /**
+     * Set each reward's probability to its category chance times its share of the weight
+     * @param rewards The category's rewards
+     * @param categoryChance The category chance
+     */
+    private static void assignProbabilities(List<? extends CappedReward> rewards, double categoryChance) {
+        double total = 0;
+        for (CappedReward reward : rewards) {
+            total += Math.max(0, reward.getChance());
+        }
+        
+        for (CappedReward reward : rewards) {
+            reward.setProbability(total > 0 ? categoryChance * Math.max(0, reward.getChance()) / total : 0);
+        }
+    }
+    
+    /**
+     * Read the optional broadcast override of an entry
+     * @param entry The reward entry
+     * @return The override or null if the entry has none
+     */
+    private static Boolean getBroadcast(Map<?, ?> entry) {
+        Object broadcast = entry.get("broadcast");
+        return broadcast != null ? Boolean.valueOf(broadcast.toString()) : null;
+    }
+    
+    /**
+     * Roll the reward category and pick a reward within it. Money is rolled first against
+     * its own chance, so it doesn't compete with the item categories for the same roll.
+     * Otherwise the item categories are tried in order MMOItems, crate keys, vanilla items
+     * on one roll; a category without a usable pick falls through to the next one.
+     * <p>
+     * With caps enforced, a category whose cap is reached is skipped, and a picked
+     * reward whose cap is reached falls back to the next rewards of its category.
+     * @param random The random source
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param enforceCaps Whether to check and count the rate caps
+     * @return The picked reward or null if there is none
+     */
+    public WeightedReward rollReward(RandomGenerator random, double multiplier, boolean enforceCaps) {
+        if (isTried(MONEY, enforceCaps) && random.nextDouble() < moneyChance) {
+            WeightedReward reward = rollCategory(MONEY, random, enforceCaps);
+            if (reward != null) {
+                return reward;
+            }
+        }
+        
+        // Adjust chance based on combo multiplier
+        double adjustedChance = random.nextDouble() * multiplier;
+        
+        for (int category = 0; category < ITEM_CATEGORIES; category++) {
+            if (adjustedChance <= getCategoryChance(category) * multiplier && isTried(category, enforceCaps)) {
+                WeightedReward reward = rollCategory(category, random, enforceCaps);
+                if (reward != null) {
+                    return reward;
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Roll the rewards of many rewarded breaks at once. The number of money rolls is a
+     * binomial draw, and the number of the other rolls landing in each item category and
+     * on each reward is drawn as a multinomial, so the cost depends on the number of
+     * distinct rewards rather than the number of rolls. Rolls whose reward can't be given
+     * fall back like a single roll would.
+     * @param random The random source
+     * @param count Number of rolls
+     * @param enforceCaps Whether to check and count the rate caps
+     * @param globalCap Cap over all rewards, may be null
+     * @param rewards Map the number of each picked reward is added to
+     */
+    public void rollRewards(RandomGenerator random, int count, boolean enforceCaps, RewardCap globalCap, Map<WeightedReward, Integer> rewards) {
+        // Money rolls that can't be paid out go on to the item categories
+        int itemRolls = count;
+        if (isTried(MONEY, enforceCaps)) {
+            int moneyRolls = BinomialSampler.sample(random, count, moneyChance);
+            if (moneyRolls > 0) {
+                int left = rollRewards(moneyRewards, r -> true, MONEY, moneyRolls, 0, 0,
+                        random, enforceCaps, globalCap, rewards);
+                if (left < 0) {
+                    return;
+                }
+                itemRolls = count - moneyRolls + left;
+            }
+        }
+        if (itemRolls <= 0) {
+            return;
+        }
+        
+        // A roll lands in the first tried item category whose chance covers it
+        double[] weights = new double[ITEM_CATEGORIES + 1];
+        double[] lower = new double[ITEM_CATEGORIES];
+        double covered = 0;
+        for (int category = 0; category < ITEM_CATEGORIES; category++) {
+            lower[category] = covered;
+            double chance = Math.min(1.0, getCategoryChance(category));
+            if (isTried(category, enforceCaps) && chance > covered) {
+                weights[category] = chance - covered;
+                covered = chance;
+            }
+        }
+        weights[ITEM_CATEGORIES] = 1.0 - covered;
+        
+        int[] categoryCounts = BinomialSampler.multinomial(random, itemRolls, weights);
+        for (int category = 0; category < ITEM_CATEGORIES; category++) {
+            if (categoryCounts[category] == 0) {
+                continue;
+            }
+            
+            int left = switch (category) {
+                case MMOITEMS -> rollRewards(mmoItemRewards, this::isUsable, category, categoryCounts[category],
+                        lower[category], weights[category], random, enforceCaps, globalCap, rewards);
+                case CRATE_KEYS -> rollRewards(crateKeyRewards, r -> true, category, categoryCounts[category],
+                        lower[category], weights[category], random, enforceCaps, globalCap, rewards);
+                default -> rollRewards(vanillaItemRewards, r -> true, category, categoryCounts[category],
+                        lower[category], weights[category], random, enforceCaps, globalCap, rewards);
+            };
+            if (left < 0) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Spread a category's rolls over its rewards and count them against the caps
+     * @param sampler The category's rewards
+     * @param usable Whether a reward can be given at all
+     * @param category The category
+     * @param count Number of rolls landing in the category
+     * @param lower Highest chance of the categories tried before this one
+     * @param width Share of the roll range landing in this category
+     * @param random The random source
+     * @param enforceCaps Whether to check and count the rate caps
+     * @param globalCap Cap over all rewards, may be null
+     * @param rewards Map the number of each picked reward is added to
+     * @return Number of rolls that gave nothing, or -1 if the global cap ran out
+     */
+    private <T extends CappedReward> int rollRewards(AliasSampler<T> sampler, Predicate<T> usable, int category, int count,
+                                                          double lower, double width, RandomGenerator random, boolean enforceCaps,
+                                                          RewardCap globalCap, Map<WeightedReward, Integer> rewards) {
+        RewardCap categoryCap = getCategoryCap(category);
+        boolean uncapped = !enforceCaps || (categoryCap == null && globalCap == null);
+        
+        int left = 0;
+        int[] counts = sampler.sampleCounts(random, count);
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] == 0) {
+                continue;
+            }
+            
+            T reward = sampler.get(index);
+            int given = 0;
+            if (usable.test(reward)) {
+                if (uncapped && (!enforceCaps || reward.getCap() == null)) {
+                    given = counts[index];
+                } else {
+                    while (given < counts[index] && (globalCap == null || !globalCap.isExhausted())
+                            && isOpen(categoryCap, true) && reward.tryAcquireCap()) {
+                        acquire(reward, categoryCap, true);
+                        if (globalCap != null) {
+                            globalCap.tryAcquire();
+                        }
+                        given++;
+                    }
+                }
+                if (given > 0) {
+                    rewards.merge(reward, given, Integer::sum);
+                }
+            }
+            
+            // Rolls whose reward is capped or unusable fall back one by one, like a single roll
+            for (int i = given; i < counts[index]; i++) {
+                if (enforceCaps && globalCap != null && globalCap.isExhausted()) {
+                    return -1;
+                }
+                
+                WeightedReward fallback = null;
+                if (usable.test(reward) && isOpen(categoryCap, enforceCaps)) {
+                    T picked = pickAt(sampler, index, enforceCaps, usable);
+                    fallback = picked != null ? acquire(picked, categoryCap, enforceCaps) : null;
+                }
+                if (fallback == null) {
+                    // The roll landed in this category, so it's uniform over the category's share
+                    double chance = lower + random.nextDouble() * width;
+                    for (int next = category + 1; next < ITEM_CATEGORIES && fallback == null; next++) {
+                        if (chance <= getCategoryChance(next) && isTried(next, enforceCaps)) {
+                            fallback = rollCategory(next, random, enforceCaps);
+                        }
+                    }
+                }
+                
+                if (fallback != null) {
+                    rewards.merge(fallback, 1, Integer::sum);
+                    if (enforceCaps && globalCap != null) {
+                        globalCap.tryAcquire();
+                    }
+                } else {
+                    left++;
+                }
+            }
+        }
+        return left;
+    }
+    
+    /**
+     * Count a reward picked without caps against its own cap and its category cap
+     * @param reward The reward, picked from this pool
+     * @return False if either cap is reached
+     */
+    public boolean tryAcquire(WeightedReward reward) {
+        int category;
+        if (reward instanceof MMOItemReward) {
+            category = MMOITEMS;
+        } else if (reward instanceof CrateKeyReward) {
+            category = CRATE_KEYS;
+        } else if (reward instanceof VanillaItemReward) {
+            category = VANILLA_ITEMS;
+        } else {
+            category = MONEY;
+        }
+        
+        RewardCap categoryCap = getCategoryCap(category);
+        if (!isOpen(categoryCap, true) || !((CappedReward) reward).tryAcquireCap()) {
+            return false;
+        }
+        acquire(reward, categoryCap, true);
+        return true;
+    }
+    
+    /**
+     * Check if a category is tried at all. Categories without rewards are skipped, so
+     * batched rolls don't spend multinomial weight on a category that can't give anything.
+     * @param category The category
+     * @param enforceCaps Whether caps are enforced
+     * @return True if the category is enabled, available, has rewards and is not capped
+     */
+    private boolean isTried(int category, boolean enforceCaps) {
+        return switch (category) {
+            case MMOITEMS -> mmoItemsEnabled && mmoItemsAvailable && !mmoItemRewards.isEmpty() && isOpen(mmoItemsCap, enforceCaps);
+            case CRATE_KEYS -> crateKeysEnabled && !crateKeyRewards.isEmpty() && isOpen(crateKeysCap, enforceCaps);
+            case VANILLA_ITEMS -> vanillaItemsEnabled && !vanillaItemRewards.isEmpty() && isOpen(vanillaItemsCap, enforceCaps);
+            default -> moneyEnabled && !moneyRewards.isEmpty() && isOpen(moneyCap, enforceCaps);
+        };
+    }
+    
+    /**
+     * Get the chance of a category
+     * @param category The category
+     * @return The chance
+     */
+    private double getCategoryChance(int category) {
+        return switch (category) {
+            case MMOITEMS -> mmoItemsChance;
+            case CRATE_KEYS -> crateKeysChance;
+            case VANILLA_ITEMS -> vanillaItemsChance;
+            default -> moneyChance;
+        };
+    }
+    
+    /**
+     * Get the cap of a category
+     * @param category The category
+     * @return The cap, may be null
+     */
+    private RewardCap getCategoryCap(int category) {
+        return switch (category) {
+            case MMOITEMS -> mmoItemsCap;
+            case CRATE_KEYS -> crateKeysCap;
+            case VANILLA_ITEMS -> vanillaItemsCap;
+            default -> moneyCap;
+        };
+    }
+    
+    /**
+     * Pick a reward within a category and count it against the category cap
+     * @param category The category
+     * @param random The random source
+     * @param enforceCaps Whether to check and count the rate caps
+     * @return The picked reward or null if the category has no usable pick
+     */
+    private WeightedReward rollCategory(int category, RandomGenerator random, boolean enforceCaps) {
+        WeightedReward reward = switch (category) {
+            case MMOITEMS -> pick(mmoItemRewards, random, enforceCaps, this::isUsable);
+            case CRATE_KEYS -> pick(crateKeyRewards, random, enforceCaps, r -> true);
+            case VANILLA_ITEMS -> pick(vanillaItemRewards, random, enforceCaps, r -> true);
+            default -> pick(moneyRewards, random, enforceCaps, r -> true);
+        };
+        return reward != null ? acquire(reward, getCategoryCap(category), enforceCaps) : null;
+    }
+    
+    /**
+     * Check if an MMOItem reward can be given
+     * @param reward The reward
+     * @return False if its type didn't resolve
+     */
+    private boolean isUsable(MMOItemReward reward) {
+        return reward.getResolvedType() != null || !mmoItemTypesResolved;
+    }
+    
+    /**
+     * Sample a reward, falling back to the following rewards in table order while
+     * the sampled one is capped
+     * @param sampler The category's rewards
+     * @param random The random source
+     * @param enforceCaps Whether to check and count the reward caps
+     * @param usable Whether a reward can be given at all
+     * @return The picked reward or null if none is usable
+     */
+    private static <T extends CappedReward> T pick(AliasSampler<T> sampler, RandomGenerator random, boolean enforceCaps, Predicate<T> usable) {
+        int index = sampler.sampleIndex(random);
+        return index >= 0 ? pickAt(sampler, index, enforceCaps, usable) : null;
+    }
+    
+    /**
+     * Take a sampled reward, falling back to the following rewards in table order while
+     * it is capped
+     * @param sampler The category's rewards
+     * @param index Index of the sampled reward
+     * @param enforceCaps Whether to check and count the reward caps
+     * @param usable Whether a reward can be given at all
+     * @return The picked reward or null if none is usable
+     */
+    private static <T extends CappedReward> T pickAt(AliasSampler<T> sampler, int index, boolean enforceCaps, Predicate<T> usable) {
+        T reward = sampler.get(index);
+        if (!usable.test(reward)) {
+            return null;
+        }
+        if (!enforceCaps || reward.tryAcquireCap()) {
+            return reward;
+        }
+        
+        int size = sampler.size();
+        for (int i = 1; i < size; i++) {
+            T next = sampler.get((index + i) % size);
+            if (next.getChance() > 0 && usable.test(next) && next.tryAcquireCap()) {
+                return next;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check if a category cap still allows drops
+     * @param cap The category cap, may be null
+     * @param enforceCaps Whether caps are enforced
+     * @return True if the category may drop
+     */
+    private static boolean isOpen(RewardCap cap, boolean enforceCaps) {
+        return !enforceCaps || cap == null || !cap.isExhausted();
+    }
+    
+    /**
+     * Count a picked reward against its category cap
+     * @param reward The picked reward
+     * @param categoryCap The category cap, may be null
+     * @param enforceCaps Whether caps are enforced
+     * @return The reward
+     */
+    private static WeightedReward acquire(WeightedReward reward, RewardCap categoryCap, boolean enforceCaps) {
+        if (enforceCaps && categoryCap != null) {
+            categoryCap.tryAcquire();
+        }
+        return reward;
+    }
+    
+    public boolean isMmoItemsEnabled() {
+        return mmoItemsEnabled;
+    }
+    
+    /**
+     * Check if MMOItems was installed when the table was compiled
+     * @return True if MMOItems is available
+     */
+    public boolean isMmoItemsAvailable() {
+        return mmoItemsAvailable;
+    }
+    
+    public double getMmoItemsChance() {
+        return mmoItemsChance;
+    }
+    
+    public AliasSampler<MMOItemReward> getMmoItemRewards() {
+        return mmoItemRewards;
+    }
+    
+    public boolean isCrateKeysEnabled() {
+        return crateKeysEnabled;
+    }
+    
+    public double getCrateKeysChance() {
+        return crateKeysChance;
+    }
+    
+    public AliasSampler<CrateKeyReward> getCrateKeyRewards() {
+        return crateKeyRewards;
+    }
+    
+    public boolean isVanillaItemsEnabled() {
+        return vanillaItemsEnabled;
+    }
+    
+    public double getVanillaItemsChance() {
+        return vanillaItemsChance;
+    }
+    
+    public AliasSampler<VanillaItemReward> getVanillaItemRewards() {
+        return vanillaItemRewards;
+    }
+    
+    public boolean isMoneyEnabled() {
+        return moneyEnabled;
+    }
+    
+    public double getMoneyChance() {
+        return moneyChance;
+    }
+    
+    public AliasSampler<MoneyReward> getMoneyRewards() {
+        return moneyRewards;
+    }
+}
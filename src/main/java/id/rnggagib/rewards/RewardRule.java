@@ -0,0 +1,76 @@
+package id.rnggagib.rewards;
+
+/**
+ * A compiled reward rule: conditions over precomputed ids and the rewards given when they all hold
+ */
+public class RewardRule {
+    private final String name;
+    private final int[] regions;
+    private final int minCombo;
+    private final long permissionBit;
+    private final int fromMinute;
+    private final int toMinute;
+    private final RewardPool rewards;
+    
+    /**
+     * Constructor
+     * @param name Rule name
+     * @param regions Region ids the rule applies in, or null for any region
+     * @param minCombo Minimum combo
+     * @param permissionBit Bit of the required permission in the permission mask, or 0
+     * @param fromMinute First minute of the day the rule applies, or -1 for any time
+     * @param toMinute Last minute of the day the rule applies, inclusive
+     * @param rewards Rewards given when the rule matches
+     */
+    public RewardRule(String name, int[] regions, int minCombo, long permissionBit, int fromMinute, int toMinute, RewardPool rewards) {
+        this.name = name;
+        this.regions = regions;
+        this.minCombo = minCombo;
+        this.permissionBit = permissionBit;
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+        this.rewards = rewards;
+    }
+    
+    /**
+     * Check the rule's conditions, the material was already matched by the caller
+     * @param region Region id of the break, or -1
+     * @param combo The player's combo
+     * @param permissions The player's permission mask
+     * @param minute Minute of the day
+     * @return True if all conditions hold
+     */
+    public boolean matches(int region, int combo, long permissions, int minute) {
+        if (combo < minCombo || (permissions & permissionBit) != permissionBit) {
+            return false;
+        }
+        
+        if (fromMinute >= 0) {
+            // Windows ending before they start wrap around midnight
+            boolean inWindow = fromMinute <= toMinute
+                    ? minute >= fromMinute && minute <= toMinute
+                    : minute >= fromMinute || minute <= toMinute;
+            if (!inWindow) {
+                return false;
+            }
+        }
+        
+        if (regions == null) {
+            return true;
+        }
+        for (int id : regions) {
+            if (id == region) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public RewardPool getRewards() {
+        return rewards;
+    }
+}
@@ -0,0 +1,215 @@
+package id.rnggagib.rewards;
+
+import id.rnggagib.region.Region;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Conditional reward rules of blocks.yml, compiled into a decision tree. The first
+ * level is an array indexed by material ordinal; each entry holds the rules that
+ * can apply to that material in config order, which only compare ints and bits.
+ * The first matching rule decides the rewards.
+ */
+public class RewardRules {
+    private static final Material[] MATERIALS = Material.values();
+    private static final RewardRule[] NONE = new RewardRule[0];
+    
+    // Minute of the day, cached per minute as (epoch minute << 11) | minute of day
+    private static volatile long cachedMinute = -1L;
+    
+    private final RewardRule[][] byMaterial = new RewardRule[MATERIALS.length][];
+    private RewardRule[] anyMaterial = NONE;
+    private final List<String> permissions = new ArrayList<>();
+    private final List<RewardPool> pools = new ArrayList<>();
+    
+    private RewardRules() {
+    }
+    
+    /**
+     * Compile the rules section
+     * @param section The rules section keyed by rule name, may be null
+     * @param caps Caps of the table being compiled
+     * @param logger Logger for invalid entries
+     * @param mmoItemsAvailable Whether MMOItems rewards can be given
+     * @param resolveTypes Whether to resolve MMOItems types
+     * @return The compiled rules
+     */
+    static RewardRules compile(ConfigurationSection section, RewardCaps caps, Logger logger, boolean mmoItemsAvailable, boolean resolveTypes) {
+        RewardRules rules = new RewardRules();
+        if (section == null) {
+            return rules;
+        }
+        
+        List<RewardRule> anyMaterial = new ArrayList<>();
+        List<List<RewardRule>> byMaterial = new ArrayList<>(MATERIALS.length);
+        for (int i = 0; i < MATERIALS.length; i++) {
+            byMaterial.add(null);
+        }
+        
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection ruleSection = section.getConfigurationSection(name);
+            if (ruleSection == null) {
+                continue;
+            }
+            
+            RewardRule rule = rules.compileRule(name, ruleSection, caps, logger, mmoItemsAvailable, resolveTypes);
+            if (rule == null) {
+                continue;
+            }
+            rules.pools.add(rule.getRewards());
+            
+            List<String> materials = ruleSection.getStringList("materials");
+            if (materials.isEmpty()) {
+                // Applies to every material, including those that get specific rules later
+                anyMaterial.add(rule);
+                for (List<RewardRule> list : byMaterial) {
+                    if (list != null) {
+                        list.add(rule);
+                    }
+                }
+                continue;
+            }
+            
+            for (String materialName : materials) {
+                try {
+                    int ordinal = Material.valueOf(materialName.toUpperCase()).ordinal();
+                    if (byMaterial.get(ordinal) == null) {
+                        byMaterial.set(ordinal, new ArrayList<>(anyMaterial));
+                    }
+                    byMaterial.get(ordinal).add(rule);
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid material in reward rule " + name + ": " + materialName);
+                }
+            }
+        }
+        
+        rules.anyMaterial = anyMaterial.toArray(NONE);
+        for (int i = 0; i < MATERIALS.length; i++) {
+            if (byMaterial.get(i) != null) {
+                rules.byMaterial[i] = byMaterial.get(i).toArray(NONE);
+            }
+        }
+        return rules;
+    }
+    
+    /**
+     * Compile the conditions and rewards of a single rule
+     * @param name Rule name
+     * @param section The rule's section
+     * @param caps Caps of the table being compiled
+     * @param logger Logger for invalid entries
+     * @param mmoItemsAvailable Whether MMOItems rewards can be given
+     * @param resolveTypes Whether to resolve MMOItems types
+     * @return The rule or null if it is invalid
+     */
+    private RewardRule compileRule(String name, ConfigurationSection section, RewardCaps caps, Logger logger,
+                                   boolean mmoItemsAvailable, boolean resolveTypes) {
+        int[] regions = null;
+        List<String> regionNames = section.getStringList("regions");
+        if (!regionNames.isEmpty()) {
+            regions = new int[regionNames.size()];
+            for (int i = 0; i < regions.length; i++) {
+                regions[i] = Region.idOf(regionNames.get(i));
+            }
+        }
+        
+        long permissionBit = 0L;
+        String permission = section.getString("permission");
+        if (permission != null && !permission.isEmpty()) {
+            int index = permissions.indexOf(permission);
+            if (index < 0) {
+                if (permissions.size() == Long.SIZE) {
+                    logger.warning("Too many different permissions in reward rules, skipping rule " + name);
+                    return null;
+                }
+                permissions.add(permission);
+                index = permissions.size() - 1;
+            }
+            permissionBit = 1L << index;
+        }
+        
+        int fromMinute = -1;
+        int toMinute = -1;
+        String time = section.getString("time");
+        if (time != null) {
+            String[] parts = time.split("-");
+            try {
+                fromMinute = LocalTime.parse(parts[0].trim()).get(ChronoField.MINUTE_OF_DAY);
+                toMinute = LocalTime.parse(parts[1].trim()).get(ChronoField.MINUTE_OF_DAY);
+            } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                logger.warning("Invalid time window in reward rule " + name + ": " + time + " (expected HH:mm-HH:mm)");
+                return null;
+            }
+        }
+        
+        RewardPool rewards = RewardPool.compile(section.getConfigurationSection("rewards"), "rule:" + name + ":",
+                caps, logger, mmoItemsAvailable, resolveTypes);
+        return new RewardRule(name, regions, section.getInt("min-combo", 0), permissionBit, fromMinute, toMinute, rewards);
+    }
+    
+    /**
+     * Find the rewards of the first rule matching a break
+     * @param material Ordinal of the broken block's material, or -1
+     * @param region Id of the region of the break, or -1
+     * @param combo The player's combo
+     * @param permissions The player's permission mask
+     * @param minute Minute of the day
+     * @return The rewards of the matching rule or null if no rule matches
+     */
+    public RewardPool match(int material, int region, int combo, long permissions, int minute) {
+        RewardRule[] candidates = material >= 0 && byMaterial[material] != null ? byMaterial[material] : anyMaterial;
+        for (RewardRule rule : candidates) {
+            if (rule.matches(region, combo, permissions, minute)) {
+                return rule.getRewards();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check if there are no rules
+     * @return True if every break uses the default rewards
+     */
+    public boolean isEmpty() {
+        return pools.isEmpty();
+    }
+    
+    /**
+     * Get the permissions used by the rules, in permission mask bit order
+     * @return The permissions
+     */
+    public List<String> getPermissions() {
+        return permissions;
+    }
+    
+    /**
+     * Get the rewards of every rule
+     * @return The reward pools in rule order
+     */
+    public List<RewardPool> getPools() {
+        return pools;
+    }
+    
+    /**
+     * Get the current minute of the day in server time, looked up once per minute
+     * @return Minute of the day, 0 - 1439
+     */
+    public static int currentMinuteOfDay() {
+        long epochMinute = System.currentTimeMillis() / 60000L;
+        long cached = cachedMinute;
+        if (cached >>> 11 == epochMinute) {
+            return (int) (cached & 0x7FF);
+        }
+        
+        int minute = LocalTime.now().get(ChronoField.MINUTE_OF_DAY);
+        cachedMinute = (epochMinute << 11) | minute;
+        return minute;
+    }
+}
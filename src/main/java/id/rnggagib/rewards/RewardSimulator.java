@@ -0,0 +1,253 @@
+package id.rnggagib.rewards;
+
+import id.rnggagib.managers.ComboManager;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntToDoubleFunction;
+import java.util.logging.Logger;
+
+/**
+ * Headless Monte-Carlo simulation of block breaks over a compiled reward table.
+ * Every minable material is simulated at every combo level, in chunks with
+ * independent random streams spread over a bounded pool of threads, using the same rolls as live mining. Rate caps
+ * depend on wall-clock time and are not applied, and only the default rewards are
+ * simulated since reward rules depend on the player.
+ */
+public class RewardSimulator {
+    private static final int CHUNK_SIZE = 100_000;
+    
+    private final RewardTable table;
+    private final IntToDoubleFunction comboMultiplier;
+    private final int[] comboLevels;
+    private final long seed;
+    
+    /**
+     * Constructor
+     * @param table The reward table to simulate
+     * @param comboMultiplier Reward multiplier of a combo count
+     * @param comboLevels Combo counts to simulate
+     * @param seed Seed of the simulation streams
+     */
+    public RewardSimulator(RewardTable table, IntToDoubleFunction comboMultiplier, int[] comboLevels, long seed) {
+        this.table = table;
+        this.comboMultiplier = comboMultiplier;
+        this.comboLevels = comboLevels.clone();
+        this.seed = seed;
+    }
+    
+    /**
+     * Run the simulation
+     * @param breaksPerCell Simulated breaks per material and combo level
+     * @param threads Number of threads to simulate on
+     * @return The results of all materials and combo levels
+     */
+    public List<Result> run(long breaksPerCell, int threads) {
+        List<Result> results = new ArrayList<>();
+        for (Material material : table.getMinableMaterials()) {
+            for (int combo : comboLevels) {
+                results.add(new Result(material, combo, comboMultiplier.applyAsDouble(combo)));
+            }
+        }
+        
+        // Split every cell into chunks with their own stream so cores never share state
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Chunk> chunks = new ArrayList<>();
+        for (Result result : results) {
+            for (long remaining = breaksPerCell; remaining > 0; remaining -= CHUNK_SIZE) {
+                chunks.add(new Chunk(result, (int) Math.min(CHUNK_SIZE, remaining), root.split()));
+            }
+        }
+        
+        // A dedicated pool, so a simulation never takes over the common pool other plugins use
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "BlockParty-Simulator");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks.size()];
+            for (int i = 0; i < futures.length; i++) {
+                Chunk chunk = chunks.get(i);
+                futures[i] = CompletableFuture.runAsync(() -> simulate(chunk), executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        for (Chunk chunk : chunks) {
+            chunk.result.add(chunk.counts);
+        }
+        return results;
+    }
+    
+    /**
+     * Simulate the breaks of one chunk
+     * @param chunk The chunk
+     */
+    private void simulate(Chunk chunk) {
+        Material material = chunk.result.material;
+        double multiplier = chunk.result.multiplier;
+        SplittableRandom random = chunk.random;
+        long[] counts = chunk.counts;
+        
+        for (int i = 0; i < chunk.breaks; i++) {
+            counts[Result.BREAKS]++;
+            if (!table.rollBlockReward(random, material)) {
+                continue;
+            }
+            
+            WeightedReward reward = table.rollReward(random, multiplier, false);
+            if (reward instanceof MMOItemReward) {
+                counts[Result.MMOITEMS]++;
+            } else if (reward instanceof CrateKeyReward) {
+                counts[Result.CRATE_KEYS]++;
+            } else if (reward instanceof VanillaItemReward vanillaItemReward) {
+                counts[Result.VANILLA_ITEMS]++;
+                counts[Result.VANILLA_AMOUNT] += vanillaItemReward.rollAmount(random);
+            } else if (reward instanceof MoneyReward moneyReward) {
+                counts[Result.MONEY_CENTS] += Math.round(moneyReward.rollAmount(random) * 100.0);
+            }
+        }
+    }
+    
+    /**
+     * Format results as report lines
+     * @param results The simulation results
+     * @param breaksPerHour Assumed breaks per player per hour
+     * @return One line per material and combo level
+     */
+    public static List<String> formatReport(List<Result> results, double breaksPerHour) {
+        List<String> lines = new ArrayList<>();
+        for (Result result : results) {
+            lines.add(String.format(Locale.ROOT, "%s x%d (%.2fx): %.2f MMOItems/h, %.2f crate keys/h, %.2f vanilla drops/h (%.1f items/h), %.2f money/h",
+                    result.material.name(), result.combo, result.multiplier,
+                    result.perHour(Result.MMOITEMS, breaksPerHour),
+                    result.perHour(Result.CRATE_KEYS, breaksPerHour),
+                    result.perHour(Result.VANILLA_ITEMS, breaksPerHour),
+                    result.perHour(Result.VANILLA_AMOUNT, breaksPerHour),
+                    result.perHour(Result.MONEY_CENTS, breaksPerHour) / 100.0));
+        }
+        return lines;
+    }
+    
+    /**
+     * Run the simulator without a server
+     * Usage: RewardSimulator blocks.yml [config.yml] [breaks-per-cell] [breaks-per-hour]
+     * @param args Command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: RewardSimulator <blocks.yml> [config.yml] [breaks-per-cell] [breaks-per-hour]");
+            System.exit(1);
+        }
+        
+        FileConfiguration blocks = YamlConfiguration.loadConfiguration(new File(args[0]));
+        FileConfiguration config = args.length >= 2 ? YamlConfiguration.loadConfiguration(new File(args[1])) : new YamlConfiguration();
+        long breaksPerCell = args.length >= 3 ? Long.parseLong(args[2]) : 1_000_000L;
+        double breaksPerHour = args.length >= 4 ? Double.parseDouble(args[3]) : config.getDouble("simulator.breaks-per-hour", 1800);
+        
+        // MMOItems isn't around, so every configured MMOItem counts as valid
+        RewardTable table = RewardTable.compile(blocks, Logger.getLogger("BlockParty"), true, false, null);
+        boolean comboEnabled = config.getBoolean("combo.enabled", true);
+        double baseMultiplier = config.getDouble("combo.base-multiplier", 0.1);
+        int[] comboLevels = getComboLevels(config);
+        
+        RewardSimulator simulator = new RewardSimulator(table,
+                combo -> ComboManager.computeMultiplier(comboEnabled, baseMultiplier, combo), comboLevels, System.nanoTime());
+        
+        long start = System.currentTimeMillis();
+        List<Result> results = simulator.run(breaksPerCell, Runtime.getRuntime().availableProcessors());
+        for (String line : formatReport(results, breaksPerHour)) {
+            System.out.println(line);
+        }
+        System.out.println("Simulated " + breaksPerCell * results.size() + " breaks in " + (System.currentTimeMillis() - start) + " ms");
+    }
+    
+    /**
+     * Read the combo levels to simulate
+     * @param config The main configuration
+     * @return The combo levels
+     */
+    public static int[] getComboLevels(FileConfiguration config) {
+        List<Integer> levels = config.getIntegerList("simulator.combo-levels");
+        if (levels.isEmpty()) {
+            return new int[] { 1, 5, 10, 25, 50 };
+        }
+        return levels.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Simulated totals of one material at one combo level
+     */
+    public static class Result {
+        private static final int BREAKS = 0;
+        private static final int MMOITEMS = 1;
+        private static final int CRATE_KEYS = 2;
+        private static final int VANILLA_ITEMS = 3;
+        private static final int VANILLA_AMOUNT = 4;
+        private static final int MONEY_CENTS = 5;
+        
+        private final Material material;
+        private final int combo;
+        private final double multiplier;
+        private final long[] totals = new long[6];
+        
+        public Result(Material material, int combo, double multiplier) {
+            this.material = material;
+            this.combo = combo;
+            this.multiplier = multiplier;
+        }
+        
+        private void add(long[] counts) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        
+        /**
+         * Scale a total to an hourly rate
+         * @param index The total to scale
+         * @param breaksPerHour Assumed breaks per hour
+         * @return The expected amount per hour
+         */
+        private double perHour(int index, double breaksPerHour) {
+            return totals[BREAKS] == 0 ? 0 : totals[index] * breaksPerHour / totals[BREAKS];
+        }
+        
+        public Material getMaterial() {
+            return material;
+        }
+        
+        public int getCombo() {
+            return combo;
+        }
+    }
+    
+    /**
+     * A slice of one cell's breaks, simulated on a single core
+     */
+    private static class Chunk {
+        private final Result result;
+        private final int breaks;
+        private final SplittableRandom random;
+        private final long[] counts = new long[6];
+        
+        public Chunk(Result result, int breaks, SplittableRandom random) {
+            this.result = result;
+            this.breaks = breaks;
+            this.random = random;
+        }
+    }
+}
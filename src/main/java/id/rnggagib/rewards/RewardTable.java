@@ -0,0 +1,356 @@
+package id.rnggagib.rewards;
+
+import id.rnggagib.BlockParty;
+import id.rnggagib.utils.BinomialSampler;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable, compiled form of blocks.yml. Block settings are stored in a flat array
+ * indexed by material ordinal, so a block break costs a single array read.
+ */
+public class RewardTable {
+    private static final Material[] MATERIALS = Material.values();
+    
+    private final BlockConfig[] blocks = new BlockConfig[MATERIALS.length];
+    private ItemStack[] smeltingResults;
+    private RewardCaps caps;
+    private RewardCap globalCap;
+    
+    private RewardPool rewards;
+    private RewardRules rules;
+    
+    private RewardTable() {
+    }
+    
+    /**
+     * Compile the current blocks.yml
+     * @param plugin The BlockParty plugin instance
+     * @param previous The table being replaced, whose unchanged caps are kept, or null
+     * @return The compiled table
+     */
+    public static RewardTable compile(BlockParty plugin, RewardTable previous) {
+        boolean mmoItemsAvailable = Bukkit.getPluginManager().getPlugin("MMOItems") != null;
+        RewardCaps previousCaps = previous != null ? previous.caps : null;
+        RewardTable table = compile(plugin.getConfigManager().getBlocks(), plugin.getLogger(), mmoItemsAvailable, mmoItemsAvailable, previousCaps);
+        
+        for (BlockConfig block : table.blocks) {
+            if (block != null && block.isAutoSmelt()) {
+                table.smeltingResults = buildSmeltingResults();
+                break;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Map every furnace input material to its result, indexed by material ordinal
+     * @return The furnace results
+     */
+    private static ItemStack[] buildSmeltingResults() {
+        ItemStack[] results = new ItemStack[MATERIALS.length];
+        Iterator<Recipe> recipes = Bukkit.recipeIterator();
+        while (recipes.hasNext()) {
+            if (!(recipes.next() instanceof FurnaceRecipe recipe)) {
+                continue;
+            }
+            
+            if (recipe.getInputChoice() instanceof RecipeChoice.MaterialChoice choice) {
+                for (Material input : choice.getChoices()) {
+                    if (results[input.ordinal()] == null) {
+                        results[input.ordinal()] = recipe.getResult();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Compile a blocks configuration
+     * @param blocksConfig The blocks.yml configuration
+     * @param logger Logger for invalid entries
+     * @param mmoItemsAvailable Whether MMOItems rewards can be given
+     * @param resolveTypes Whether to resolve MMOItems types, needs MMOItems to be installed
+     * @param previousCaps Caps to carry over where their limits are unchanged, or null
+     * @return The compiled table
+     */
+    public static RewardTable compile(FileConfiguration blocksConfig, Logger logger, boolean mmoItemsAvailable, boolean resolveTypes, RewardCaps previousCaps) {
+        RewardTable table = new RewardTable();
+        RewardCaps caps = new RewardCaps(previousCaps);
+        boolean autoPickup = blocksConfig.getBoolean("auto-pickup.enabled", false);
+        boolean autoSmelt = blocksConfig.getBoolean("auto-pickup.auto-smelt", false);
+        table.caps = caps;
+        table.globalCap = caps.fromSection("rewards", blocksConfig.getConfigurationSection("rewards"));
+        
+        // Load minable blocks
+        ConfigurationSection blocksSection = blocksConfig.getConfigurationSection("minable-blocks");
+        if (blocksSection != null) {
+            for (String key : blocksSection.getKeys(false)) {
+                try {
+                    Material material = Material.valueOf(key);
+                    boolean enabled = blocksSection.getBoolean(key + ".enabled", true);
+                    double rewardChance = blocksSection.getDouble(key + ".reward-chance", 0.5);
+                    boolean dropVanilla = blocksSection.getBoolean(key + ".drop-vanilla", false);
+                    boolean blockAutoPickup = blocksSection.getBoolean(key + ".auto-pickup", autoPickup);
+                    boolean blockAutoSmelt = blockAutoPickup && blocksSection.getBoolean(key + ".auto-smelt", autoSmelt);
+                    
+                    table.blocks[material.ordinal()] = new BlockConfig(enabled, rewardChance, dropVanilla, blockAutoPickup, blockAutoSmelt);
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid material in blocks.yml: " + key);
+                }
+            }
+        }
+        
+        // Load the default rewards and the conditional rules
+        table.rewards = RewardPool.compile(blocksConfig.getConfigurationSection("rewards"), "", caps, logger, mmoItemsAvailable, resolveTypes);
+        table.rules = RewardRules.compile(blocksConfig.getConfigurationSection("rules"), caps, logger, mmoItemsAvailable, resolveTypes);
+        caps.compiled();
+        
+        return table;
+    }
+    
+    /**
+     * Roll whether breaking a block gives a reward
+     * @param random The random source
+     * @param material The block material
+     * @return True if the block should give a reward
+     */
+    public boolean rollBlockReward(RandomGenerator random, Material material) {
+        return rollBlockReward(random, material, 1.0);
+    }
+    
+    /**
+     * Roll whether breaking a block gives a reward, with the block's chance scaled by an event multiplier
+     * @param random The random source
+     * @param material The block material
+     * @param multiplier Multiplier of the reward chance
+     * @return True if the block should give a reward
+     */
+    public boolean rollBlockReward(RandomGenerator random, Material material, double multiplier) {
+        return isBlockRewarded(material, random.nextDouble(), multiplier);
+    }
+    
+    /**
+     * Check a block reward roll made ahead of time against a block's reward chance
+     * @param material The block material
+     * @param roll Uniform roll between 0 and 1
+     * @param multiplier Multiplier of the reward chance
+     * @return True if the block should give a reward
+     */
+    public boolean isBlockRewarded(Material material, double roll, double multiplier) {
+        BlockConfig block = blocks[material.ordinal()];
+        return block != null && roll < block.getRewardChance() * multiplier;
+    }
+    
+    /**
+     * Roll how many of a number of broken blocks give a reward, as a single binomial draw
+     * @param random The random source
+     * @param material The block material
+     * @param blocks Number of broken blocks
+     * @param multiplier Multiplier of the reward chance
+     * @return Number of blocks that give a reward
+     */
+    public int rollBlockRewards(RandomGenerator random, Material material, int blocks, double multiplier) {
+        BlockConfig block = this.blocks[material.ordinal()];
+        if (block == null) {
+            return 0;
+        }
+        
+        return BinomialSampler.sample(random, blocks, block.getRewardChance() * multiplier);
+    }
+    
+    /**
+     * Roll a reward from the default rewards
+     * @param random The random source
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param enforceCaps Whether to check and count the rate caps
+     * @return The picked reward or null if there is none
+     * @see RewardPool#rollReward(RandomGenerator, double, boolean)
+     */
+    public WeightedReward rollReward(RandomGenerator random, double multiplier, boolean enforceCaps) {
+        return rollReward(rewards, random, multiplier, enforceCaps);
+    }
+    
+    /**
+     * Roll a reward from the pool of the first rule matching a break, or from the
+     * default rewards if no rule matches
+     * @param random The random source
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param material Ordinal of the broken block's material, or -1
+     * @param region Id of the region of the break, or -1
+     * @param combo The player's combo
+     * @param permissions The player's rule permission mask
+     * @return The picked reward or null if there is none
+     */
+    public WeightedReward rollReward(RandomGenerator random, double multiplier, int material, int region, int combo, long permissions) {
+        RewardPool pool = rules.match(material, region, combo, permissions, RewardRules.currentMinuteOfDay());
+        return rollReward(pool != null ? pool : rewards, random, multiplier, true);
+    }
+    
+    /**
+     * Get the pool of the first rule matching a break, or the default rewards if no rule matches
+     * @param material Ordinal of the broken block's material, or -1
+     * @param region Id of the region of the break, or -1
+     * @param combo The player's combo
+     * @param permissions The player's rule permission mask
+     * @return The pool
+     */
+    public RewardPool getPool(int material, int region, int combo, long permissions) {
+        if (rules.isEmpty()) {
+            return rewards;
+        }
+        
+        RewardPool pool = rules.match(material, region, combo, permissions, RewardRules.currentMinuteOfDay());
+        return pool != null ? pool : rewards;
+    }
+    
+    /**
+     * Roll the rewards of many rewarded breaks from a pool at once, counting them against the global cap
+     * @param pool The pool
+     * @param random The random source
+     * @param count Number of rewarded breaks
+     * @param enforceCaps Whether to check and count the rate caps
+     * @param rewards Map the number of each picked reward is added to
+     * @see RewardPool#rollRewards(RandomGenerator, int, boolean, RewardCap, Map)
+     */
+    public void rollRewards(RewardPool pool, RandomGenerator random, int count, boolean enforceCaps, Map<WeightedReward, Integer> rewards) {
+        if (enforceCaps && globalCap != null && globalCap.isExhausted()) {
+            return;
+        }
+        
+        pool.rollRewards(random, count, enforceCaps, enforceCaps ? globalCap : null, rewards);
+    }
+    
+    /**
+     * Count a reward rolled from the default rewards without caps against all caps
+     * @param reward The reward
+     * @return False if a cap is reached
+     */
+    public boolean tryAcquire(WeightedReward reward) {
+        if (globalCap != null && globalCap.isExhausted()) {
+            return false;
+        }
+        
+        if (!rewards.tryAcquire(reward)) {
+            return false;
+        }
+        if (globalCap != null) {
+            globalCap.tryAcquire();
+        }
+        return true;
+    }
+    
+    /**
+     * Roll a reward from a pool, counting it against the global cap
+     * @param pool The pool
+     * @param random The random source
+     * @param multiplier Combo multiplier to adjust reward chances
+     * @param enforceCaps Whether to check and count the rate caps
+     * @return The picked reward or null if there is none
+     */
+    private WeightedReward rollReward(RewardPool pool, RandomGenerator random, double multiplier, boolean enforceCaps) {
+        if (enforceCaps && globalCap != null && globalCap.isExhausted()) {
+            return null;
+        }
+        
+        WeightedReward reward = pool.rollReward(random, multiplier, enforceCaps);
+        if (reward != null && enforceCaps && globalCap != null) {
+            globalCap.tryAcquire();
+        }
+        return reward;
+    }
+    
+    /**
+     * Replace a drop of a block with its furnace result if the block auto-smelts
+     * @param material The block material
+     * @param drop The drop
+     * @return The smelted drop, or the drop itself if it can't be smelted
+     */
+    public ItemStack smelt(Material material, ItemStack drop) {
+        BlockConfig block = blocks[material.ordinal()];
+        if (smeltingResults == null || block == null || !block.isAutoSmelt()) {
+            return drop;
+        }
+        
+        ItemStack result = smeltingResults[drop.getType().ordinal()];
+        if (result == null) {
+            return drop;
+        }
+        
+        ItemStack smelted = result.clone();
+        smelted.setAmount(drop.getAmount() * result.getAmount());
+        return smelted;
+    }
+    
+    /**
+     * Get all materials that are enabled for mining
+     * @return The minable materials in ordinal order
+     */
+    public List<Material> getMinableMaterials() {
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] != null && blocks[i].isEnabled()) {
+                materials.add(MATERIALS[i]);
+            }
+        }
+        return materials;
+    }
+    
+    /**
+     * Get the settings of a block
+     * @param material The block material
+     * @return The block settings or null if the block isn't configured
+     */
+    public BlockConfig getBlock(Material material) {
+        return blocks[material.ordinal()];
+    }
+    
+    /**
+     * Get the default rewards, used when no rule matches
+     * @return The default reward pool
+     */
+    public RewardPool getRewards() {
+        return rewards;
+    }
+    
+    /**
+     * Get the conditional reward rules
+     * @return The compiled rules
+     */
+    public RewardRules getRules() {
+        return rules;
+    }
+    
+    /**
+     * Get the default rewards and the rewards of every rule
+     * @return All reward pools
+     */
+    public List<RewardPool> getPools() {
+        List<RewardPool> pools = new ArrayList<>();
+        pools.add(rewards);
+        pools.addAll(rules.getPools());
+        return pools;
+    }
+    
+    /**
+     * Check if MMOItems was installed when the table was compiled
+     * @return True if MMOItems is available
+     */
+    public boolean isMmoItemsAvailable() {
+        return rewards.isMmoItemsAvailable();
+    }
+}
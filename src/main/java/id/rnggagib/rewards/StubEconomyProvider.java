@@ -0,0 +1,32 @@
+package id.rnggagib.rewards;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory economy for test servers without an economy plugin. Balances are lost on restart.
+ */
+public class StubEconomyProvider implements EconomyProvider {
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    
+    @Override
+    public String getName() {
+        return "stub";
+    }
+    
+    @Override
+    public boolean deposit(UUID playerId, double amount) {
+        balances.merge(playerId, amount, Double::sum);
+        return true;
+    }
+    
+    /**
+     * Get the balance of a player
+     * @param playerId The player's UUID
+     * @return The balance
+     */
+    public double getBalance(UUID playerId) {
+        return balances.getOrDefault(playerId, 0.0);
+    }
+}
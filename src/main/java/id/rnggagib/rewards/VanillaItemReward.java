@@ -0,0 +1,57 @@
+package id.rnggagib.rewards;
+
+import org.bukkit.Material;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Vanilla item reward
+ */
+public class VanillaItemReward extends CappedReward {
+    private final Material material;
+    private final int minAmount;
+    private final int maxAmount;
+    private final double chance;
+    
+    public VanillaItemReward(Material material, int minAmount, int maxAmount, double chance) {
+        this.material = material;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.chance = chance;
+    }
+    
+    public Material getMaterial() {
+        return material;
+    }
+    
+    public int getMinAmount() {
+        return minAmount;
+    }
+    
+    public int getMaxAmount() {
+        return maxAmount;
+    }
+    
+    /**
+     * Roll a random amount within the configured range
+     * @param random The random source
+     * @return The amount
+     */
+    public int rollAmount(RandomGenerator random) {
+        int amount = minAmount;
+        if (maxAmount > minAmount) {
+            amount += random.nextInt(maxAmount - minAmount + 1);
+        }
+        return amount;
+    }
+    
+    @Override
+    public String getCapKey() {
+        return "vanilla-item:" + material.name();
+    }
+    
+    @Override
+    public double getChance() {
+        return chance;
+    }
+}
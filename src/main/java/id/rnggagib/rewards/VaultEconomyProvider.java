@@ -0,0 +1,43 @@
+package id.rnggagib.rewards;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import java.util.UUID;
+
+/**
+ * Economy provider backed by the Economy service registered through Vault
+ */
+public class VaultEconomyProvider implements EconomyProvider {
+    private final Economy economy;
+    
+    private VaultEconomyProvider(Economy economy) {
+        this.economy = economy;
+    }
+    
+    /**
+     * Look up the Vault economy
+     * @return The provider or null if Vault or an economy plugin is missing
+     */
+    public static VaultEconomyProvider lookup() {
+        if (Bukkit.getPluginManager().getPlugin("Vault") == null) {
+            return null;
+        }
+        
+        RegisteredServiceProvider<Economy> registration = Bukkit.getServicesManager().getRegistration(Economy.class);
+        return registration != null ? new VaultEconomyProvider(registration.getProvider()) : null;
+    }
+    
+    @Override
+    public String getName() {
+        return "Vault (" + economy.getName() + ")";
+    }
+    
+    @Override
+    public boolean deposit(UUID playerId, double amount) {
+        EconomyResponse response = economy.depositPlayer(Bukkit.getOfflinePlayer(playerId), amount);
+        return response.transactionSuccess();
+    }
+}
@@ -0,0 +1,12 @@
+package id.rnggagib.rewards;
+
+/**
+ * Interface for weighted rewards
+ */
+public interface WeightedReward {
+    /**
+     * Get the weight of this reward within its category
+     * @return The weight
+     */
+    double getChance();
+}
@@ -0,0 +1,151 @@
+package id.rnggagib.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cron-like start schedule with five fields: minute, hour, day of month, month and
+ * day of week. Fields accept "*", numbers, ranges ("1-5"), lists ("0,30") and steps ("0-59/15").
+ * Day of week is 0-7 with both 0 and 7 meaning Sunday
+ */
+public class CronSchedule {
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+    
+    private CronSchedule(long minutes, long hours, long daysOfMonth, long months, long daysOfWeek,
+                         boolean anyDayOfMonth, boolean anyDayOfWeek) {
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.anyDayOfMonth = anyDayOfMonth;
+        this.anyDayOfWeek = anyDayOfWeek;
+    }
+    
+    /**
+     * Parse a schedule
+     * @param expression The expression, e.g. "0 18 * * 5,6"
+     * @return The schedule
+     * @throws IllegalArgumentException If the expression is invalid
+     */
+    public static CronSchedule parse(String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 fields but got " + fields.length + ": " + expression);
+        }
+        
+        long daysOfWeek = parseField(fields[4], 0, 7);
+        // Sunday can be written as 0 or 7
+        if ((daysOfWeek & (1L << 7)) != 0) {
+            daysOfWeek |= 1L;
+        }
+        
+        return new CronSchedule(
+                parseField(fields[0], 0, 59),
+                parseField(fields[1], 0, 23),
+                parseField(fields[2], 1, 31),
+                parseField(fields[3], 1, 12),
+                daysOfWeek,
+                fields[2].equals("*"),
+                fields[4].equals("*"));
+    }
+    
+    /**
+     * Parse one field into a bit mask of the allowed values
+     * @param field The field
+     * @param min Lowest allowed value
+     * @param max Highest allowed value
+     * @return The bit mask
+     */
+    private static long parseField(String field, int min, int max) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = Integer.parseInt(part.substring(slash + 1));
+                part = part.substring(0, slash);
+                if (step <= 0) {
+                    throw new IllegalArgumentException("Invalid step in " + field);
+                }
+            }
+            
+            int from;
+            int to;
+            if (part.equals("*")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash >= 0) {
+                    from = Integer.parseInt(part.substring(0, dash));
+                    to = Integer.parseInt(part.substring(dash + 1));
+                } else {
+                    from = Integer.parseInt(part);
+                    // "5/10" runs from 5 to the end of the range
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            
+            if (from < min || to > max || from > to) {
+                throw new IllegalArgumentException("Value out of range " + min + "-" + max + " in " + field);
+            }
+            for (int value = from; value <= to; value += step) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * Check if the schedule has start times on a day
+     * @param date The day
+     * @return True if the day matches
+     */
+    public boolean matchesDay(LocalDate date) {
+        if ((months & (1L << date.getMonthValue())) == 0) {
+            return false;
+        }
+        
+        boolean dayOfMonth = (daysOfMonth & (1L << date.getDayOfMonth())) != 0;
+        boolean dayOfWeek = (daysOfWeek & (1L << (date.getDayOfWeek().getValue() % 7))) != 0;
+        
+        // Like cron, a restricted day of month and day of week match if either matches
+        if (!anyDayOfMonth && !anyDayOfWeek) {
+            return dayOfMonth || dayOfWeek;
+        }
+        return dayOfMonth && dayOfWeek;
+    }
+    
+    /**
+     * Get all start times on a day
+     * @param date The day
+     * @return The start times in order, empty if the day doesn't match
+     */
+    public List<LocalDateTime> startsOn(LocalDate date) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        if (!matchesDay(date)) {
+            return starts;
+        }
+        
+        for (int hour = 0; hour < 24; hour++) {
+            if ((hours & (1L << hour)) == 0) {
+                continue;
+            }
+            for (int minute = 0; minute < 60; minute++) {
+                if ((minutes & (1L << minute)) != 0) {
+                    starts.add(date.atTime(hour, minute));
+                }
+            }
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,133 @@
+package id.rnggagib.schedule;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The event schedule compiled into consecutive stretches of constant multipliers, from
+ * the moment it was built up to a fixed horizon. Overlapping events multiply.
+ */
+public class EventTimeline {
+    private final long[] boundaries;
+    private final Multipliers[] segments;
+    
+    private EventTimeline(long[] boundaries, Multipliers[] segments) {
+        this.boundaries = boundaries;
+        this.segments = segments;
+    }
+    
+    /**
+     * Compile the timeline of a set of events
+     * @param events The events
+     * @param now Start of the timeline in epoch milliseconds
+     * @param zone Time zone the schedules are written in
+     * @param horizonDays Days the timeline covers
+     * @return The timeline
+     */
+    public static EventTimeline compile(List<MultiplierEvent> events, long now, ZoneId zone, int horizonDays) {
+        long end = now + horizonDays * 86400000L;
+        
+        // Collect every run overlapping the timeline, including runs that started before it
+        List<long[]> runs = new ArrayList<>();
+        List<MultiplierEvent> runEvents = new ArrayList<>();
+        for (MultiplierEvent event : events) {
+            LocalDate first = Instant.ofEpochMilli(now - event.getDurationMillis()).atZone(zone).toLocalDate();
+            LocalDate last = Instant.ofEpochMilli(end).atZone(zone).toLocalDate();
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                for (LocalDateTime start : event.getSchedule().startsOn(date)) {
+                    long startMillis = start.atZone(zone).toInstant().toEpochMilli();
+                    long endMillis = startMillis + event.getDurationMillis();
+                    if (endMillis > now && startMillis < end) {
+                        runs.add(new long[] {startMillis, endMillis});
+                        runEvents.add(event);
+                    }
+                }
+            }
+        }
+        
+        // Every start and end inside the timeline is a boundary
+        long[] points = new long[runs.size() * 2 + 2];
+        int count = 0;
+        points[count++] = now;
+        points[count++] = end;
+        for (long[] run : runs) {
+            for (long point : run) {
+                if (point > now && point < end) {
+                    points[count++] = point;
+                }
+            }
+        }
+        Arrays.sort(points, 0, count);
+        
+        long[] boundaries = new long[count];
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || points[i] != boundaries[unique - 1]) {
+                boundaries[unique++] = points[i];
+            }
+        }
+        boundaries = Arrays.copyOf(boundaries, unique);
+        
+        // Combine the events running during each stretch
+        Multipliers[] segments = new Multipliers[unique - 1];
+        for (int i = 0; i < segments.length; i++) {
+            long at = boundaries[i];
+            double reward = 1.0;
+            double regen = 1.0;
+            double drop = 1.0;
+            List<String> active = new ArrayList<>();
+            for (int j = 0; j < runs.size(); j++) {
+                long[] run = runs.get(j);
+                if (run[0] <= at && at < run[1]) {
+                    MultiplierEvent event = runEvents.get(j);
+                    reward *= event.getRewardMultiplier();
+                    regen *= event.getRegenMultiplier();
+                    drop *= event.getDropMultiplier();
+                    if (!active.contains(event.getName())) {
+                        active.add(event.getName());
+                    }
+                }
+            }
+            segments[i] = active.isEmpty() ? Multipliers.NONE : new Multipliers(reward, regen, drop, active);
+        }
+        
+        return new EventTimeline(boundaries, segments);
+    }
+    
+    /**
+     * Get the multipliers at a moment
+     * @param time Epoch milliseconds
+     * @return The multipliers, or none if the moment is outside the timeline
+     */
+    public Multipliers at(long time) {
+        int index = Arrays.binarySearch(boundaries, time);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && index < segments.length ? segments[index] : Multipliers.NONE;
+    }
+    
+    /**
+     * Get the first boundary after a moment
+     * @param time Epoch milliseconds
+     * @return The next boundary, or the end of the timeline
+     */
+    public long nextBoundary(long time) {
+        int index = Arrays.binarySearch(boundaries, time);
+        index = index < 0 ? -index - 1 : index + 1;
+        return index < boundaries.length ? boundaries[index] : getEnd();
+    }
+    
+    /**
+     * Get the end of the timeline, after which it has to be compiled again
+     * @return Epoch milliseconds
+     */
+    public long getEnd() {
+        return boundaries[boundaries.length - 1];
+    }
+}
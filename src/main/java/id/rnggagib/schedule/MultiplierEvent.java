@@ -0,0 +1,86 @@
+package id.rnggagib.schedule;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * A scheduled event that changes the reward chance, the number of finds per reward
+ * and the regeneration delay while it runs
+ */
+public class MultiplierEvent {
+    private final String name;
+    private final CronSchedule schedule;
+    private final long durationMillis;
+    private final double rewardMultiplier;
+    private final double regenMultiplier;
+    private final double dropMultiplier;
+    
+    /**
+     * Constructor
+     * @param name Display name
+     * @param schedule Start times
+     * @param durationMillis How long the event runs after each start
+     * @param rewardMultiplier Multiplier of the chance a block gives a reward
+     * @param regenMultiplier Multiplier of block regeneration delays
+     * @param dropMultiplier Multiplier of the number of finds of a given reward
+     */
+    public MultiplierEvent(String name, CronSchedule schedule, long durationMillis, double rewardMultiplier, double regenMultiplier,
+                           double dropMultiplier) {
+        this.name = name;
+        this.schedule = schedule;
+        this.durationMillis = durationMillis;
+        this.rewardMultiplier = rewardMultiplier;
+        this.regenMultiplier = regenMultiplier;
+        this.dropMultiplier = dropMultiplier;
+    }
+    
+    /**
+     * Load an event from its config section
+     * @param key The section key
+     * @param section The section
+     * @return The event
+     * @throws IllegalArgumentException If the schedule or duration is invalid
+     */
+    public static MultiplierEvent fromSection(String key, ConfigurationSection section) {
+        String schedule = section.getString("schedule");
+        if (schedule == null) {
+            throw new IllegalArgumentException("Missing schedule");
+        }
+        
+        long duration = section.getLong("duration", 60L);
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        
+        return new MultiplierEvent(
+                section.getString("name", key),
+                CronSchedule.parse(schedule),
+                duration * 60000L,
+                Math.max(0.0, section.getDouble("reward-multiplier", 1.0)),
+                Math.max(0.0, section.getDouble("regen-multiplier", 1.0)),
+                Math.max(0.0, section.getDouble("drop-multiplier", 1.0)));
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public CronSchedule getSchedule() {
+        return schedule;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public double getRewardMultiplier() {
+        return rewardMultiplier;
+    }
+    
+    public double getRegenMultiplier() {
+        return regenMultiplier;
+    }
+    
+    public double getDropMultiplier() {
+        return dropMultiplier;
+    }
+}
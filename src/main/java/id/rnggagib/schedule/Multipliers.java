@@ -0,0 +1,53 @@
+package id.rnggagib.schedule;
+
+import java.util.List;
+
+/**
+ * The combined multipliers of all events active during a stretch of the timeline
+ */
+public class Multipliers {
+    public static final Multipliers NONE = new Multipliers(1.0, 1.0, 1.0, List.of());
+    
+    private final double rewardMultiplier;
+    private final double regenMultiplier;
+    private final double dropMultiplier;
+    private final List<String> activeEvents;
+    
+    /**
+     * Constructor
+     * @param rewardMultiplier Multiplier of the chance a block gives a reward
+     * @param regenMultiplier Multiplier of block regeneration delays
+     * @param dropMultiplier Multiplier of the number of finds of a given reward
+     * @param activeEvents Names of the active events
+     */
+    public Multipliers(double rewardMultiplier, double regenMultiplier, double dropMultiplier, List<String> activeEvents) {
+        this.rewardMultiplier = rewardMultiplier;
+        this.regenMultiplier = regenMultiplier;
+        this.dropMultiplier = dropMultiplier;
+        this.activeEvents = List.copyOf(activeEvents);
+    }
+    
+    public double getRewardMultiplier() {
+        return rewardMultiplier;
+    }
+    
+    public double getRegenMultiplier() {
+        return regenMultiplier;
+    }
+    
+    public double getDropMultiplier() {
+        return dropMultiplier;
+    }
+    
+    public List<String> getActiveEvents() {
+        return activeEvents;
+    }
+    
+    /**
+     * Check if any event is active
+     * @return True if at least one event is active
+     */
+    public boolean isActive() {
+        return !activeEvents.isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+package id.rnggagib.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.function.Consumer;
+
+/**
+ * Task scheduler running everything on the Bukkit main thread
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+    private final Plugin plugin;
+    
+    /**
+     * Constructor
+     * @param plugin The plugin owning the tasks
+     */
+    public BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public ScheduledTask runGlobal(Runnable task) {
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+    
+    @Override
+    public ScheduledTask runGlobalLater(Runnable task, long delay) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delay));
+    }
+    
+    @Override
+    public ScheduledTask runGlobalTimer(Consumer<ScheduledTask> task, long delay, long period) {
+        BukkitScheduledTask handle = new BukkitScheduledTask();
+        handle.setTask(Bukkit.getScheduler().runTaskTimer(plugin, () -> task.accept(handle), delay, period));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAtLocation(Location location, Runnable task) {
+        return runGlobal(task);
+    }
+    
+    @Override
+    public ScheduledTask runAtLocationLater(Location location, Runnable task, long delay) {
+        return runGlobalLater(task, delay);
+    }
+    
+    @Override
+    public ScheduledTask runAtLocationTimer(Location location, Consumer<ScheduledTask> task, long delay, long period) {
+        return runGlobalTimer(task, delay, period);
+    }
+    
+    @Override
+    public ScheduledTask runForEntityLater(Entity entity, Runnable task, long delay) {
+        return runGlobalLater(task, delay);
+    }
+    
+    @Override
+    public ScheduledTask runForEntityTimer(Entity entity, Consumer<ScheduledTask> task, long delay, long period) {
+        return runGlobalTimer(task, delay, period);
+    }
+    
+    @Override
+    public ScheduledTask runAsync(Runnable task) {
+        return wrap(Bukkit.getScheduler().runTaskAsynchronously(plugin, task));
+    }
+    
+    @Override
+    public ScheduledTask runAsyncTimer(Consumer<ScheduledTask> task, long delay, long period) {
+        BukkitScheduledTask handle = new BukkitScheduledTask();
+        handle.setTask(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> task.accept(handle), delay, period));
+        return handle;
+    }
+    
+    @Override
+    public boolean isOwnedByCurrentRegion(Location location) {
+        return Bukkit.isPrimaryThread();
+    }
+    
+    @Override
+    public boolean isOwnedByCurrentRegion(Entity entity) {
+        return Bukkit.isPrimaryThread();
+    }
+    
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+    
+    /**
+     * Wrap a Bukkit task
+     * @param task The Bukkit task
+     * @return The scheduled task
+     */
+    private ScheduledTask wrap(BukkitTask task) {
+        BukkitScheduledTask handle = new BukkitScheduledTask();
+        handle.setTask(task);
+        return handle;
+    }
+    
+    /**
+     * Scheduled task backed by a Bukkit task
+     */
+    private static class BukkitScheduledTask implements ScheduledTask {
+        private volatile BukkitTask task;
+        private volatile boolean cancelled;
+        
+        /**
+         * Attach the Bukkit task, cancelling it if the handle was cancelled before
+         * @param task The Bukkit task
+         */
+        private void setTask(BukkitTask task) {
+            this.task = task;
+            if (cancelled) {
+                task.cancel();
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            BukkitTask current = task;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            BukkitTask current = task;
+            return cancelled || (current != null && current.isCancelled());
+        }
+    }
+}
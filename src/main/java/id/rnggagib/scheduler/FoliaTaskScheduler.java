@@ -0,0 +1,286 @@
+package id.rnggagib.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Task scheduler for Folia's region threaded schedulers.
+ * The plugin compiles against the Spigot API, so the Folia schedulers are resolved reflectively once.
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+    private static final String SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+    private static final long MILLIS_PER_TICK = 50L;
+    
+    private final Plugin plugin;
+    
+    // Scheduler instances
+    private final Object globalScheduler;
+    private final Object regionScheduler;
+    private final Object asyncScheduler;
+    
+    // Scheduler methods
+    private final Method globalRun;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method globalCancelTasks;
+    private final Method regionRun;
+    private final Method regionRunDelayed;
+    private final Method regionRunAtFixedRate;
+    private final Method entityGetScheduler;
+    private final Method entityRunDelayed;
+    private final Method entityRunAtFixedRate;
+    private final Method asyncRunNow;
+    private final Method asyncRunAtFixedRate;
+    private final Method asyncCancelTasks;
+    private final Method taskCancel;
+    private final Method taskIsCancelled;
+    private final Method ownsLocation;
+    private final Method ownsEntity;
+    
+    /**
+     * Constructor
+     * @param plugin The plugin owning the tasks
+     * @throws ReflectiveOperationException If the Folia schedulers aren't available
+     */
+    public FoliaTaskScheduler(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+        
+        Class<?> globalClass = Class.forName(SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+        Class<?> regionClass = Class.forName(SCHEDULER_PACKAGE + "RegionScheduler");
+        Class<?> entityClass = Class.forName(SCHEDULER_PACKAGE + "EntityScheduler");
+        Class<?> asyncClass = Class.forName(SCHEDULER_PACKAGE + "AsyncScheduler");
+        Class<?> taskClass = Class.forName(SCHEDULER_PACKAGE + "ScheduledTask");
+        
+        globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        regionScheduler = Bukkit.class.getMethod("getRegionScheduler").invoke(null);
+        asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler").invoke(null);
+        
+        globalRun = globalClass.getMethod("run", Plugin.class, Consumer.class);
+        globalRunDelayed = globalClass.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+        globalRunAtFixedRate = globalClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+        globalCancelTasks = globalClass.getMethod("cancelTasks", Plugin.class);
+        
+        regionRun = regionClass.getMethod("run", Plugin.class, Location.class, Consumer.class);
+        regionRunDelayed = regionClass.getMethod("runDelayed", Plugin.class, Location.class, Consumer.class, long.class);
+        regionRunAtFixedRate = regionClass.getMethod("runAtFixedRate", Plugin.class, Location.class, Consumer.class, long.class, long.class);
+        
+        entityGetScheduler = Entity.class.getMethod("getScheduler");
+        entityRunDelayed = entityClass.getMethod("runDelayed", Plugin.class, Consumer.class, Runnable.class, long.class);
+        entityRunAtFixedRate = entityClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, Runnable.class, long.class, long.class);
+        
+        asyncRunNow = asyncClass.getMethod("runNow", Plugin.class, Consumer.class);
+        asyncRunAtFixedRate = asyncClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class);
+        asyncCancelTasks = asyncClass.getMethod("cancelTasks", Plugin.class);
+        
+        taskCancel = taskClass.getMethod("cancel");
+        taskIsCancelled = taskClass.getMethod("isCancelled");
+        
+        ownsLocation = Bukkit.class.getMethod("isOwnedByCurrentRegion", Location.class);
+        ownsEntity = Bukkit.class.getMethod("isOwnedByCurrentRegion", Entity.class);
+    }
+    
+    /**
+     * Check if the server runs Folia
+     * @return True if region threading is available
+     */
+    public static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public ScheduledTask runGlobal(Runnable task) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(globalRun, globalScheduler, plugin, consumer(handle, task)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runGlobalLater(Runnable task, long delay) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(globalRunDelayed, globalScheduler, plugin, consumer(handle, task), ticks(delay)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runGlobalTimer(Consumer<ScheduledTask> task, long delay, long period) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(globalRunAtFixedRate, globalScheduler, plugin, consumer(handle, task), ticks(delay), ticks(period)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAtLocation(Location location, Runnable task) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(regionRun, regionScheduler, plugin, location, consumer(handle, task)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAtLocationLater(Location location, Runnable task, long delay) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(regionRunDelayed, regionScheduler, plugin, location, consumer(handle, task), ticks(delay)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAtLocationTimer(Location location, Consumer<ScheduledTask> task, long delay, long period) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(regionRunAtFixedRate, regionScheduler, plugin, location, consumer(handle, task), ticks(delay), ticks(period)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runForEntityLater(Entity entity, Runnable task, long delay) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        Object scheduler = invoke(entityGetScheduler, entity);
+        // A null handle means the entity was already removed
+        handle.setHandle(invoke(entityRunDelayed, scheduler, plugin, consumer(handle, task), null, ticks(delay)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runForEntityTimer(Entity entity, Consumer<ScheduledTask> task, long delay, long period) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        Object scheduler = invoke(entityGetScheduler, entity);
+        handle.setHandle(invoke(entityRunAtFixedRate, scheduler, plugin, consumer(handle, task), null, ticks(delay), ticks(period)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAsync(Runnable task) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(asyncRunNow, asyncScheduler, plugin, consumer(handle, task)));
+        return handle;
+    }
+    
+    @Override
+    public ScheduledTask runAsyncTimer(Consumer<ScheduledTask> task, long delay, long period) {
+        FoliaScheduledTask handle = new FoliaScheduledTask();
+        handle.setHandle(invoke(asyncRunAtFixedRate, asyncScheduler, plugin, consumer(handle, task),
+                ticks(delay) * MILLIS_PER_TICK, ticks(period) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        return handle;
+    }
+    
+    @Override
+    public boolean isOwnedByCurrentRegion(Location location) {
+        return (Boolean) invoke(ownsLocation, null, location);
+    }
+    
+    @Override
+    public boolean isOwnedByCurrentRegion(Entity entity) {
+        return (Boolean) invoke(ownsEntity, null, entity);
+    }
+    
+    @Override
+    public void cancelAll() {
+        invoke(globalCancelTasks, globalScheduler, plugin);
+        invoke(asyncCancelTasks, asyncScheduler, plugin);
+    }
+    
+    /**
+     * Folia rejects delays below one tick
+     * @param ticks Delay or period in ticks
+     * @return The clamped value
+     */
+    private static long ticks(long ticks) {
+        return Math.max(1L, ticks);
+    }
+    
+    /**
+     * Create a Folia task consumer running a one-shot task
+     * @param handle Our handle of the task
+     * @param task The task
+     * @return The consumer passed to Folia
+     */
+    private Consumer<Object> consumer(FoliaScheduledTask handle, Runnable task) {
+        return foliaTask -> {
+            handle.setHandle(foliaTask);
+            task.run();
+        };
+    }
+    
+    /**
+     * Create a Folia task consumer running a repeating task
+     * @param handle Our handle of the task
+     * @param task The task
+     * @return The consumer passed to Folia
+     */
+    private Consumer<Object> consumer(FoliaScheduledTask handle, Consumer<ScheduledTask> task) {
+        return foliaTask -> {
+            handle.setHandle(foliaTask);
+            task.accept(handle);
+        };
+    }
+    
+    /**
+     * Invoke a resolved scheduler method
+     * @param method The method
+     * @param target The target instance, null for static methods
+     * @param args The arguments
+     * @return The result
+     */
+    private Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Folia scheduler call failed: " + method.getName(), cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Folia scheduler call failed: " + method.getName(), e);
+        }
+    }
+    
+    /**
+     * Scheduled task backed by a Folia scheduled task
+     */
+    private class FoliaScheduledTask implements ScheduledTask {
+        private volatile Object handle;
+        private volatile boolean cancelled;
+        
+        /**
+         * Attach the Folia task, cancelling it if the handle was cancelled before
+         * @param handle The Folia task, or null if it couldn't be scheduled
+         */
+        private void setHandle(Object handle) {
+            if (handle == null) {
+                cancelled |= this.handle == null;
+                return;
+            }
+            
+            this.handle = handle;
+            if (cancelled) {
+                invoke(taskCancel, handle);
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Object current = handle;
+            if (current != null) {
+                invoke(taskCancel, current);
+            }
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            Object current = handle;
+            return cancelled || (current != null && (Boolean) invoke(taskIsCancelled, current));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package id.rnggagib.scheduler;
+
+/**
+ * Handle of a task scheduled through a {@link TaskScheduler}
+ */
+public interface ScheduledTask {
+    /**
+     * Cancel the task
+     */
+    void cancel();
+    
+    /**
+     * Check if the task has been cancelled
+     * @return True if the task is cancelled
+     */
+    boolean isCancelled();
+}
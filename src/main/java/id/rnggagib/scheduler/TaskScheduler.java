@@ -0,0 +1,145 @@
+package id.rnggagib.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.function.Consumer;
+
+/**
+ * Schedules plugin tasks on the thread that owns the affected world data.
+ * On Bukkit everything runs on the main thread, on Folia block work runs on the
+ * region that owns the location and player work on the thread that owns the entity.
+ * Delays and periods are in ticks.
+ */
+public interface TaskScheduler {
+    /**
+     * Run a task on the global thread on the next tick
+     * @param task The task
+     * @return The scheduled task
+     */
+    ScheduledTask runGlobal(Runnable task);
+    
+    /**
+     * Run a task on the global thread after a delay
+     * @param task The task
+     * @param delay Delay in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runGlobalLater(Runnable task, long delay);
+    
+    /**
+     * Run a repeating task on the global thread
+     * @param task The task, receiving its own handle so it can cancel itself
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runGlobalTimer(Consumer<ScheduledTask> task, long delay, long period);
+    
+    /**
+     * Run a task on the thread owning a location
+     * @param location The location
+     * @param task The task
+     * @return The scheduled task
+     */
+    ScheduledTask runAtLocation(Location location, Runnable task);
+    
+    /**
+     * Run a task on the thread owning a location after a delay
+     * @param location The location
+     * @param task The task
+     * @param delay Delay in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runAtLocationLater(Location location, Runnable task, long delay);
+    
+    /**
+     * Run a repeating task on the thread owning a location
+     * @param location The location
+     * @param task The task, receiving its own handle so it can cancel itself
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runAtLocationTimer(Location location, Consumer<ScheduledTask> task, long delay, long period);
+    
+    /**
+     * Run a task on the thread owning an entity after a delay
+     * @param entity The entity
+     * @param task The task
+     * @param delay Delay in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runForEntityLater(Entity entity, Runnable task, long delay);
+    
+    /**
+     * Run a repeating task on the thread owning an entity
+     * @param entity The entity
+     * @param task The task, receiving its own handle so it can cancel itself
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runForEntityTimer(Entity entity, Consumer<ScheduledTask> task, long delay, long period);
+    
+    /**
+     * Run a task off the server threads
+     * @param task The task
+     * @return The scheduled task
+     */
+    ScheduledTask runAsync(Runnable task);
+    
+    /**
+     * Run a repeating task off the server threads
+     * @param task The task, receiving its own handle so it can cancel itself
+     * @param delay Initial delay in ticks
+     * @param period Period in ticks
+     * @return The scheduled task
+     */
+    ScheduledTask runAsyncTimer(Consumer<ScheduledTask> task, long delay, long period);
+    
+    /**
+     * Check if the current thread owns a location
+     * @param location The location
+     * @return True if the location may be modified from the current thread
+     */
+    boolean isOwnedByCurrentRegion(Location location);
+    
+    /**
+     * Check if the current thread owns an entity
+     * @param entity The entity
+     * @return True if the entity may be modified from the current thread
+     */
+    boolean isOwnedByCurrentRegion(Entity entity);
+    
+    /**
+     * Cancel all tasks of the plugin
+     */
+    void cancelAll();
+    
+    /**
+     * Run a task at a location right away if the current thread owns it, otherwise schedule it
+     * @param location The location
+     * @param task The task
+     */
+    default void executeAt(Location location, Runnable task) {
+        if (isOwnedByCurrentRegion(location)) {
+            task.run();
+        } else {
+            runAtLocation(location, task);
+        }
+    }
+    
+    /**
+     * Run a task for an entity right away if the current thread owns it, otherwise schedule it
+     * @param entity The entity
+     * @param task The task
+     */
+    default void executeFor(Entity entity, Runnable task) {
+        if (isOwnedByCurrentRegion(entity)) {
+            task.run();
+        } else {
+            runForEntityLater(entity, task, 1L);
+        }
+    }
+}
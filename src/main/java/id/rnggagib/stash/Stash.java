@@ -0,0 +1,182 @@
+package id.rnggagib.stash;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Virtual storage for reward items that didn't fit into a player's inventory.
+ * Stored as a gzipped stream of serialized item stacks.
+ */
+public class Stash {
+    private static final int MAGIC = 0x42505331; // "BPS1"
+    
+    private final List<ItemStack> items = new ArrayList<>();
+    private boolean dirty;
+    
+    /**
+     * Add items, filling up similar stacks first
+     * @param stacks The items
+     */
+    public synchronized void add(Collection<ItemStack> stacks) {
+        for (ItemStack stack : stacks) {
+            add(stack.clone());
+        }
+    }
+    
+    /**
+     * Add an item, filling up similar stacks first
+     * @param item The item, owned by the stash afterwards
+     */
+    private void add(ItemStack item) {
+        int maxStackSize = Math.max(1, item.getMaxStackSize());
+        int amount = item.getAmount();
+        
+        for (ItemStack stack : items) {
+            if (amount <= 0) {
+                break;
+            }
+            if (stack.getAmount() < maxStackSize && stack.isSimilar(item)) {
+                int moved = Math.min(amount, maxStackSize - stack.getAmount());
+                stack.setAmount(stack.getAmount() + moved);
+                amount -= moved;
+            }
+        }
+        
+        while (amount > 0) {
+            ItemStack stack = item.clone();
+            stack.setAmount(Math.min(amount, maxStackSize));
+            items.add(stack);
+            amount -= stack.getAmount();
+        }
+        dirty = true;
+    }
+    
+    /**
+     * Remove the item at an index if it is still the one that was shown
+     * @param index The index
+     * @param expected The item that was shown at the index
+     * @return The removed item or null if the stash changed
+     */
+    public synchronized ItemStack take(int index, ItemStack expected) {
+        if (index < 0 || index >= items.size() || !items.get(index).equals(expected)) {
+            return null;
+        }
+        
+        dirty = true;
+        return items.remove(index);
+    }
+    
+    /**
+     * Remove all items
+     * @return The removed items
+     */
+    public synchronized List<ItemStack> takeAll() {
+        List<ItemStack> taken = new ArrayList<>(items);
+        items.clear();
+        dirty = true;
+        return taken;
+    }
+    
+    /**
+     * Get a copy of the items
+     * @return The items in stash order
+     */
+    public synchronized List<ItemStack> getItems() {
+        List<ItemStack> copy = new ArrayList<>(items.size());
+        for (ItemStack item : items) {
+            copy.add(item.clone());
+        }
+        return copy;
+    }
+    
+    public synchronized int size() {
+        return items.size();
+    }
+    
+    public synchronized boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Read a stash from file
+     * @param file The stash file
+     * @return The stash, empty if the file doesn't exist
+     * @throws IOException If the file can't be read
+     */
+    public static Stash read(File file) throws IOException {
+        Stash stash = new Stash();
+        if (!file.exists()) {
+            return stash;
+        }
+        
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(
+                new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a stash file: " + file.getName());
+            }
+            
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                stash.items.add((ItemStack) in.readObject());
+            }
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Corrupt stash file: " + file.getName(), e);
+        }
+        return stash;
+    }
+    
+    /**
+     * Write the stash to file, replacing it atomically. An empty stash deletes the file.
+     * @param file The stash file
+     * @throws IOException If the file can't be written
+     */
+    public void write(File file) throws IOException {
+        List<ItemStack> snapshot;
+        synchronized (this) {
+            snapshot = getItems();
+            dirty = false;
+        }
+        
+        try {
+            if (snapshot.isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                return;
+            }
+            
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(
+                    new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(snapshot.size());
+                for (ItemStack item : snapshot) {
+                    out.writeObject(item);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            throw e;
+        }
+    }
+}
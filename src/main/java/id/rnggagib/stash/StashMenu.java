@@ -0,0 +1,141 @@
+package id.rnggagib.stash;
+
+import id.rnggagib.BlockParty;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+
+/**
+ * Paged chest view of a stash. The top five rows show the items of the page,
+ * the bottom row holds the navigation and claim-all buttons.
+ */
+public class StashMenu implements InventoryHolder {
+    public static final int PAGE_SIZE = 45;
+    public static final int PREVIOUS_SLOT = 45;
+    public static final int CLAIM_ALL_SLOT = 49;
+    public static final int NEXT_SLOT = 53;
+    
+    private final BlockParty plugin;
+    private final Stash stash;
+    private final Inventory inventory;
+    private int page;
+    private int pages;
+    private List<ItemStack> shown;
+    
+    /**
+     * Constructor
+     * @param plugin The BlockParty plugin instance
+     * @param stash The stash to show
+     * @param page The page to show first, starting at 0
+     */
+    public StashMenu(BlockParty plugin, Stash stash, int page) {
+        this.plugin = plugin;
+        this.stash = stash;
+        this.inventory = Bukkit.createInventory(this, 54, label("stash.title", 0));
+        this.page = page;
+        render();
+    }
+    
+    /**
+     * Fill the inventory with the current page of the stash
+     */
+    public void render() {
+        List<ItemStack> items = stash.getItems();
+        pages = Math.max(1, (items.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        page = Math.max(0, Math.min(page, pages - 1));
+        
+        int from = page * PAGE_SIZE;
+        shown = items.subList(Math.min(from, items.size()), Math.min(from + PAGE_SIZE, items.size()));
+        
+        inventory.clear();
+        for (int i = 0; i < shown.size(); i++) {
+            inventory.setItem(i, shown.get(i));
+        }
+        
+        if (page > 0) {
+            inventory.setItem(PREVIOUS_SLOT, button(Material.ARROW, label("stash.previous-page", items.size())));
+        }
+        inventory.setItem(CLAIM_ALL_SLOT, button(Material.CHEST, label("stash.claim-all", items.size())));
+        if (page < pages - 1) {
+            inventory.setItem(NEXT_SLOT, button(Material.ARROW, label("stash.next-page", items.size())));
+        }
+    }
+    
+    /**
+     * Get a plain menu label from messages.yml
+     * @param path The message path
+     * @param count Number of stacks in the stash
+     * @return The label without formatting tags
+     */
+    private String label(String path, int count) {
+        String message = plugin.getMessageManager().getMessage(path)
+                .replace("{page}", String.valueOf(page + 1))
+                .replace("{pages}", String.valueOf(pages))
+                .replace("{count}", String.valueOf(count));
+        return MiniMessage.miniMessage().stripTags(message);
+    }
+    
+    /**
+     * Create a navigation button
+     * @param material The button material
+     * @param name The button name
+     * @return The button item
+     */
+    private static ItemStack button(Material material, String name) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        item.setItemMeta(meta);
+        return item;
+    }
+    
+    /**
+     * Get the stash index of a slot on the current page
+     * @param slot The inventory slot
+     * @return The stash index or -1 if the slot doesn't show an item
+     */
+    public int getIndex(int slot) {
+        return slot >= 0 && slot < shown.size() ? page * PAGE_SIZE + slot : -1;
+    }
+    
+    /**
+     * Get the item shown in a slot
+     * @param slot The inventory slot
+     * @return The shown item
+     */
+    public ItemStack getShown(int slot) {
+        return shown.get(slot);
+    }
+    
+    /**
+     * Turn the page
+     * @param delta Number of pages to move
+     */
+    public void turnPage(int delta) {
+        page += delta;
+        render();
+    }
+    
+    public Stash getStash() {
+        return stash;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public int getPages() {
+        return pages;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
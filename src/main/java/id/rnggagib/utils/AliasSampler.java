@@ -0,0 +1,151 @@
+package id.rnggagib.utils;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted random picker using Vose's alias method: building the tables is O(n),
+ * every pick afterwards costs one random int and one random double
+ * @param <T> The entry type
+ */
+public class AliasSampler<T> {
+    private final List<T> entries;
+    private final double[] probability;
+    private final int[] alias;
+    private final double[] weights;
+    
+    /**
+     * Build the alias tables for a list of entries
+     * @param entries The entries to pick from
+     * @param weight Function returning the weight of an entry, weights below zero count as zero
+     */
+    public AliasSampler(List<T> entries, ToDoubleFunction<T> weight) {
+        this.entries = List.copyOf(entries);
+        int size = this.entries.size();
+        this.probability = new double[size];
+        this.alias = new int[size];
+        this.weights = new double[size];
+        
+        if (size == 0) {
+            return;
+        }
+        
+        double totalWeight = 0;
+        double[] scaled = new double[size];
+        for (int i = 0; i < size; i++) {
+            scaled[i] = Math.max(0, weight.applyAsDouble(this.entries.get(i)));
+            weights[i] = scaled[i];
+            totalWeight += scaled[i];
+        }
+        
+        // Without any weight every column aliases the first entry
+        if (totalWeight <= 0) {
+            return;
+        }
+        
+        // Scale weights so the average column holds exactly 1
+        ArrayDeque<Integer> small = new ArrayDeque<>();
+        ArrayDeque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = scaled[i] * size / totalWeight;
+            if (scaled[i] < 1.0) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+        
+        // Fill each under-full column with the remainder of an over-full one
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            
+            probability[less] = scaled[less];
+            alias[less] = more;
+            
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+        
+        // Whatever is left is full up to rounding errors
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+    }
+    
+    /**
+     * Pick a random entry
+     * @param random The random source
+     * @return The picked entry or null if there are no entries
+     */
+    public T sample(RandomGenerator random) {
+        int index = sampleIndex(random);
+        return index >= 0 ? entries.get(index) : null;
+    }
+    
+    /**
+     * Pick the index of a random entry
+     * @param random The random source
+     * @return The picked index or -1 if there are no entries
+     */
+    public int sampleIndex(RandomGenerator random) {
+        if (entries.isEmpty()) {
+            return -1;
+        }
+        
+        int column = random.nextInt(entries.size());
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+    
+    /**
+     * Pick n random entries at once
+     * @param random The random source
+     * @param n Number of picks
+     * @return Number of picks per entry index, all on the first entry if no entry has weight
+     */
+    public int[] sampleCounts(RandomGenerator random, int n) {
+        return BinomialSampler.multinomial(random, n, weights);
+    }
+    
+    /**
+     * Get an entry by index
+     * @param index The index
+     * @return The entry
+     */
+    public T get(int index) {
+        return entries.get(index);
+    }
+    
+    /**
+     * Get all entries, including those without weight
+     * @return Unmodifiable list of entries
+     */
+    public List<T> getEntries() {
+        return entries;
+    }
+    
+    /**
+     * Get the number of entries
+     * @return The size
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Check if there are no entries
+     * @return True if empty
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package id.rnggagib.utils;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws the outcome of many independent rolls at once: the number of successes
+ * of n rolls, or how n rolls spread over a set of outcomes
+ */
+public final class BinomialSampler {
+    // Above this mean the normal approximation is used instead of counting successes
+    private static final double NORMAL_THRESHOLD = 30.0;
+    
+    private BinomialSampler() {
+    }
+    
+    /**
+     * Draw the number of successes of n rolls with the same chance
+     * @param random The random source
+     * @param n Number of rolls
+     * @param p Chance of each roll
+     * @return Number of successes between 0 and n
+     */
+    public static int sample(RandomGenerator random, int n, double p) {
+        if (n <= 0 || p <= 0) {
+            return 0;
+        }
+        if (p >= 1) {
+            return n;
+        }
+        if (p > 0.5) {
+            return n - sample(random, n, 1.0 - p);
+        }
+        
+        double mean = n * p;
+        if (mean >= NORMAL_THRESHOLD) {
+            double x = Math.round(mean + Math.sqrt(mean * (1.0 - p)) * random.nextGaussian());
+            return (int) Math.max(0, Math.min(n, x));
+        }
+        
+        // Jump over the failures between successes, costs one draw per success
+        double logFailure = Math.log1p(-p);
+        int successes = 0;
+        long position = 0;
+        while (true) {
+            position += (long) (Math.log(1.0 - random.nextDouble()) / logFailure) + 1;
+            if (position > n) {
+                return successes;
+            }
+            successes++;
+        }
+    }
+    
+    /**
+     * Draw how n rolls spread over a set of outcomes, as a chain of binomial draws
+     * @param random The random source
+     * @param n Number of rolls
+     * @param weights Weight of each outcome, need not sum to one; all weight on the first if none is positive
+     * @return Number of rolls per outcome
+     */
+    public static int[] multinomial(RandomGenerator random, int n, double[] weights) {
+        int[] counts = new int[weights.length];
+        if (n <= 0 || weights.length == 0) {
+            return counts;
+        }
+        
+        double remaining = 0;
+        int last = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                remaining += weights[i];
+                last = i;
+            }
+        }
+        
+        for (int i = 0; i < last && n > 0; i++) {
+            if (weights[i] <= 0) {
+                continue;
+            }
+            
+            int count = sample(random, n, weights[i] / remaining);
+            counts[i] = count;
+            n -= count;
+            remaining -= weights[i];
+        }
+        
+        // The last outcome takes whatever is left
+        counts[last] += n;
+        return counts;
+    }
+}
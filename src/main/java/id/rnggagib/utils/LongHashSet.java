@@ -0,0 +1,175 @@
+package id.rnggagib.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of primitive longs, used for block position keys
+ * without boxing every visited position
+ */
+public class LongHashSet {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+    
+    private long[] table;
+    private int size;
+    private boolean containsEmpty;
+    
+    /**
+     * Create a set with room for the expected number of entries
+     * @param expectedSize Expected number of entries
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+    
+    /**
+     * Create a set with the default capacity
+     */
+    public LongHashSet() {
+        this(16);
+    }
+    
+    /**
+     * Add a value to the set
+     * @param value The value
+     * @return True if the value wasn't in the set yet
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        table[index] = value;
+        size++;
+        
+        if (size > table.length * LOAD_FACTOR) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+    
+    /**
+     * Check if a value is in the set
+     * @param value The value
+     * @return True if the set contains the value
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+    
+    /**
+     * Get the number of values in the set
+     * @return The size
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Remove all values from the set
+     */
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+    
+    /**
+     * Grow the table and re-insert all values
+     * @param capacity The new capacity, a power of two
+     */
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value == EMPTY) {
+                continue;
+            }
+            
+            int index = mix(value) & mask;
+            while (table[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            table[index] = value;
+        }
+    }
+    
+    /**
+     * Spread the bits of a key so neighbouring block positions don't cluster
+     * @param value The value
+     * @return The hash
+     */
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    /**
+     * Pack block coordinates into a single key (26 bits x, 26 bits z, 12 bits y)
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @return The packed key
+     */
+    public static long packPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+    
+    /**
+     * Get the X coordinate of a packed key
+     * @param key The packed key
+     * @return Block X coordinate
+     */
+    public static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+    
+    /**
+     * Get the Y coordinate of a packed key
+     * @param key The packed key
+     * @return Block Y coordinate
+     */
+    public static int unpackY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+    
+    /**
+     * Get the Z coordinate of a packed key
+     * @param key The packed key
+     * @return Block Z coordinate
+     */
+    public static int unpackZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+}
@@ -0,0 +1,96 @@
+package id.rnggagib.rewards;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the category rolls of the shipped blocks.yml rewards
+ */
+public class RewardPoolTest {
+    private static final int ROLLS = 200_000;
+    private static final double MONEY_CHANCE = 0.1;
+
+    @Test
+    public void moneyPaysOutWithTheDefaultTable() {
+        RewardPool pool = compileDefaultRewards();
+        SplittableRandom random = new SplittableRandom(21L);
+
+        int money = 0;
+        int vanillaItems = 0;
+        for (int i = 0; i < ROLLS; i++) {
+            WeightedReward reward = pool.rollReward(random, 1.0, false);
+            if (reward instanceof MoneyReward) {
+                money++;
+            } else if (reward instanceof VanillaItemReward) {
+                vanillaItems++;
+            }
+        }
+
+        assertRate("money rolls", MONEY_CHANCE, money);
+        assertTrue("item categories still roll", vanillaItems > 0);
+    }
+
+    @Test
+    public void batchedRollsPayMoneyLikeSingleRolls() {
+        RewardPool pool = compileDefaultRewards();
+        Map<WeightedReward, Integer> rewards = new HashMap<>();
+
+        pool.rollRewards(new SplittableRandom(22L), ROLLS, false, null, rewards);
+
+        int money = 0;
+        for (Map.Entry<WeightedReward, Integer> entry : rewards.entrySet()) {
+            if (entry.getKey() instanceof MoneyReward) {
+                money += entry.getValue();
+            }
+        }
+        assertRate("batched money rolls", MONEY_CHANCE, money);
+    }
+
+    @Test
+    public void moneyProbabilitiesSumToItsChance() {
+        RewardPool pool = compileDefaultRewards();
+
+        double total = 0;
+        for (int i = 0; i < pool.getMoneyRewards().size(); i++) {
+            total += pool.getMoneyRewards().get(i).getProbability();
+        }
+        assertEquals(MONEY_CHANCE, total, 1e-9);
+    }
+
+    /**
+     * Compile the rewards section of the shipped blocks.yml with money enabled
+     * @return The compiled pool
+     */
+    private static RewardPool compileDefaultRewards() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(
+                RewardPoolTest.class.getResourceAsStream("/blocks.yml"), StandardCharsets.UTF_8));
+        config.set("rewards.money.enabled", true);
+        assertEquals(MONEY_CHANCE, config.getDouble("rewards.money.chance"), 1e-9);
+
+        ConfigurationSection rewards = config.getConfigurationSection("rewards");
+        return RewardPool.compile(rewards, "", new RewardCaps(null), Logger.getLogger("RewardPoolTest"), false, false);
+    }
+
+    /**
+     * Assert a count of rolls lies within five standard deviations of its expected rate
+     * @param message Failure message
+     * @param chance Expected rate per roll
+     * @param count Observed count
+     */
+    private static void assertRate(String message, double chance, int count) {
+        double expected = ROLLS * chance;
+        double tolerance = 5 * Math.sqrt(ROLLS * chance * (1 - chance));
+        assertEquals(message, expected, count, tolerance);
+    }
+}
@@ -0,0 +1,82 @@
+package id.rnggagib.schedule;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks parsing and matching of cron-like event schedules
+ */
+public class CronScheduleTest {
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate SUNDAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    public void listsRangesAndSteps() {
+        CronSchedule schedule = CronSchedule.parse("0,30 9-17/4 * * *");
+
+        List<LocalDateTime> expected = Arrays.asList(
+                MONDAY.atTime(9, 0), MONDAY.atTime(9, 30),
+                MONDAY.atTime(13, 0), MONDAY.atTime(13, 30),
+                MONDAY.atTime(17, 0), MONDAY.atTime(17, 30));
+        assertEquals(expected, schedule.startsOn(MONDAY));
+    }
+
+    @Test
+    public void stepFromValueRunsToTheEndOfTheRange() {
+        CronSchedule schedule = CronSchedule.parse("45/5 0 * * *");
+
+        List<LocalDateTime> expected = Arrays.asList(
+                MONDAY.atTime(0, 45), MONDAY.atTime(0, 50), MONDAY.atTime(0, 55));
+        assertEquals(expected, schedule.startsOn(MONDAY));
+    }
+
+    @Test
+    public void sundayIsZeroOrSeven() {
+        assertTrue(CronSchedule.parse("0 12 * * 0").matchesDay(SUNDAY));
+        assertTrue(CronSchedule.parse("0 12 * * 7").matchesDay(SUNDAY));
+        assertFalse(CronSchedule.parse("0 12 * * 7").matchesDay(MONDAY));
+        assertTrue(CronSchedule.parse("0 12 * * 1-5").matchesDay(MONDAY));
+    }
+
+    @Test
+    public void restrictedDayOfMonthOrDayOfWeekMatches() {
+        // Like cron: the 1st of the month or any Monday
+        CronSchedule schedule = CronSchedule.parse("0 0 1 * 1");
+
+        assertTrue(schedule.matchesDay(MONDAY));
+        assertTrue(schedule.matchesDay(LocalDate.of(2026, 11, 1)));
+        assertFalse(schedule.matchesDay(LocalDate.of(2026, 11, 3)));
+    }
+
+    @Test
+    public void monthRestrictsBothDayFields() {
+        CronSchedule schedule = CronSchedule.parse("0 0 * 12 *");
+
+        assertFalse(schedule.matchesDay(MONDAY));
+        assertTrue(schedule.matchesDay(LocalDate.of(2026, 12, 24)));
+        assertTrue(schedule.startsOn(MONDAY).isEmpty());
+    }
+
+    @Test
+    public void invalidExpressionsAreRejected() {
+        for (String expression : new String[] {
+                "0 12 * *", "0 12 * * * *", "60 * * * *", "* 24 * * *",
+                "* * 0 * *", "* * * 13 *", "* * * * 8", "*/0 * * * *", "30-10 * * * *", "a * * * *" }) {
+            try {
+                CronSchedule.parse(expression);
+                fail("accepted " + expression);
+            } catch (IllegalArgumentException expected) {
+                // Rejected as it should be
+            }
+        }
+    }
+}
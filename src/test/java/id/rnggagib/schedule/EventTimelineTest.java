@@ -0,0 +1,101 @@
+package id.rnggagib.schedule;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that compiled timelines switch multipliers at the right moments
+ */
+public class EventTimelineTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final double DELTA = 1e-9;
+
+    private static final MultiplierEvent MORNING = new MultiplierEvent("Morning",
+            CronSchedule.parse("0 10 * * *"), 60 * 60000L, 2.0, 0.5, 2.0);
+    private static final MultiplierEvent LATE_MORNING = new MultiplierEvent("Late Morning",
+            CronSchedule.parse("30 10 * * *"), 60 * 60000L, 3.0, 1.0, 1.5);
+
+    @Test
+    public void multipliersApplyWhileAnEventRuns() {
+        long midnight = at(0, 0);
+        EventTimeline timeline = EventTimeline.compile(Collections.singletonList(MORNING), midnight, UTC, 7);
+
+        assertSame(Multipliers.NONE, timeline.at(at(9, 59)));
+        Multipliers running = timeline.at(at(10, 0));
+        assertEquals(2.0, running.getRewardMultiplier(), DELTA);
+        assertEquals(0.5, running.getRegenMultiplier(), DELTA);
+        assertEquals(2.0, running.getDropMultiplier(), DELTA);
+        assertEquals(Collections.singletonList("Morning"), running.getActiveEvents());
+        assertSame(running, timeline.at(at(10, 59)));
+        assertSame(Multipliers.NONE, timeline.at(at(11, 0)));
+
+        assertEquals(at(10, 0), timeline.nextBoundary(midnight));
+        assertEquals(at(11, 0), timeline.nextBoundary(at(10, 0)));
+    }
+
+    @Test
+    public void overlappingEventsMultiply() {
+        List<MultiplierEvent> events = Arrays.asList(MORNING, LATE_MORNING);
+        EventTimeline timeline = EventTimeline.compile(events, at(0, 0), UTC, 7);
+
+        Multipliers both = timeline.at(at(10, 45));
+        assertEquals(6.0, both.getRewardMultiplier(), DELTA);
+        assertEquals(0.5, both.getRegenMultiplier(), DELTA);
+        assertEquals(3.0, both.getDropMultiplier(), DELTA);
+        assertEquals(Arrays.asList("Morning", "Late Morning"), both.getActiveEvents());
+
+        Multipliers late = timeline.at(at(11, 15));
+        assertEquals(3.0, late.getRewardMultiplier(), DELTA);
+        assertEquals(Collections.singletonList("Late Morning"), late.getActiveEvents());
+
+        assertEquals(at(10, 30), timeline.nextBoundary(at(10, 0)));
+        assertEquals(at(11, 0), timeline.nextBoundary(at(10, 30)));
+        assertEquals(at(11, 30), timeline.nextBoundary(at(11, 0)));
+    }
+
+    @Test
+    public void runStartedBeforeTheTimelineIsIncluded() {
+        long now = at(10, 15);
+        EventTimeline timeline = EventTimeline.compile(Collections.singletonList(MORNING), now, UTC, 7);
+
+        assertEquals(2.0, timeline.at(now).getRewardMultiplier(), DELTA);
+        assertEquals(at(11, 0), timeline.nextBoundary(now));
+    }
+
+    @Test
+    public void timelineEndsAfterTheHorizon() {
+        long now = at(0, 0);
+        EventTimeline timeline = EventTimeline.compile(Collections.singletonList(MORNING), now, UTC, 2);
+
+        long end = now + 2 * 86400000L;
+        assertEquals(end, timeline.getEnd());
+        assertEquals(end, timeline.nextBoundary(at(11, 0) + 86400000L));
+        assertSame(Multipliers.NONE, timeline.at(end + at(10, 0) - now));
+        assertSame(Multipliers.NONE, timeline.at(now - 1));
+    }
+
+    @Test
+    public void withoutEventsNothingIsActive() {
+        EventTimeline timeline = EventTimeline.compile(Collections.emptyList(), at(0, 0), UTC, 7);
+
+        assertFalse(timeline.at(at(10, 0)).isActive());
+        assertEquals(timeline.getEnd(), timeline.nextBoundary(at(0, 0)));
+    }
+
+    /**
+     * Epoch milliseconds of a time on Monday, 19 October 2026 in UTC
+     */
+    private static long at(int hour, int minute) {
+        return ZonedDateTime.of(2026, 10, 19, hour, minute, 0, 0, UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,102 @@
+package id.rnggagib.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that alias table picks follow the configured weights
+ */
+public class AliasSamplerTest {
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    public void picksFollowWeights() {
+        List<Double> weights = Arrays.asList(1.0, 2.0, 3.0, 4.0, 0.0, 10.0);
+        AliasSampler<Double> sampler = new AliasSampler<>(weights, Double::doubleValue);
+        SplittableRandom random = new SplittableRandom(1234L);
+
+        int[] counts = new int[weights.size()];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.sampleIndex(random)]++;
+        }
+
+        assertFollowsWeights(weights, counts, DRAWS);
+        assertEquals("zero weight entries are never picked", 0, counts[4]);
+    }
+
+    @Test
+    public void skewedWeightsOfManyEntries() {
+        Double[] weights = new Double[1000];
+        for (int i = 0; i < weights.length; i++) {
+            // A few heavy entries and a long tail of rare ones
+            weights[i] = i < 5 ? 100.0 : 0.01 * (i % 7 + 1);
+        }
+        List<Double> list = Arrays.asList(weights);
+        AliasSampler<Double> sampler = new AliasSampler<>(list, Double::doubleValue);
+        SplittableRandom random = new SplittableRandom(99L);
+
+        int[] counts = new int[list.size()];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.sampleIndex(random)]++;
+        }
+
+        assertFollowsWeights(list, counts, DRAWS);
+    }
+
+    @Test
+    public void sampleCountsFollowWeights() {
+        List<Double> weights = Arrays.asList(5.0, 0.0, 1.0, 0.5);
+        AliasSampler<Double> sampler = new AliasSampler<>(weights, Double::doubleValue);
+
+        int[] counts = sampler.sampleCounts(new SplittableRandom(7L), DRAWS);
+
+        assertEquals(DRAWS, Arrays.stream(counts).sum());
+        assertEquals(0, counts[1]);
+        assertFollowsWeights(weights, counts, DRAWS);
+    }
+
+    @Test
+    public void emptySamplerPicksNothing() {
+        AliasSampler<Double> sampler = new AliasSampler<>(Collections.emptyList(), Double::doubleValue);
+        SplittableRandom random = new SplittableRandom(1L);
+
+        assertTrue(sampler.isEmpty());
+        assertEquals(-1, sampler.sampleIndex(random));
+        assertNull(sampler.sample(random));
+    }
+
+    @Test
+    public void withoutWeightTheFirstEntryIsPicked() {
+        AliasSampler<Double> sampler = new AliasSampler<>(Arrays.asList(0.0, 0.0, -1.0), Double::doubleValue);
+        SplittableRandom random = new SplittableRandom(1L);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, sampler.sampleIndex(random));
+        }
+        assertEquals(3, sampler.sampleCounts(random, 3)[0]);
+    }
+
+    /**
+     * Assert every count lies within five standard deviations of its expected value
+     * @param weights The weights
+     * @param counts Picks per entry
+     * @param draws Number of picks
+     */
+    static void assertFollowsWeights(List<Double> weights, int[] counts, int draws) {
+        double total = weights.stream().mapToDouble(w -> Math.max(0, w)).sum();
+        for (int i = 0; i < counts.length; i++) {
+            double p = Math.max(0, weights.get(i)) / total;
+            double expected = draws * p;
+            double tolerance = 5 * Math.sqrt(draws * p * (1 - p)) + 1;
+            assertEquals("picks of entry " + i, expected, counts[i], tolerance);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package id.rnggagib.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that batched draws follow the binomial and multinomial distributions
+ */
+public class BinomialSamplerTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void smallMeanFollowsBinomial() {
+        // Mean 3, counted success by success
+        assertMoments(new SplittableRandom(11L), 100, 0.03);
+    }
+
+    @Test
+    public void largeMeanFollowsBinomial() {
+        // Mean 2000, normal approximation
+        assertMoments(new SplittableRandom(12L), 10_000, 0.2);
+    }
+
+    @Test
+    public void highChanceIsMirrored() {
+        assertMoments(new SplittableRandom(13L), 50, 0.9);
+    }
+
+    @Test
+    public void smallMeanMatchesProbabilities() {
+        SplittableRandom random = new SplittableRandom(14L);
+        int n = 10;
+        double p = 0.2;
+
+        int[] counts = new int[n + 1];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[BinomialSampler.sample(random, n, p)]++;
+        }
+
+        for (int k = 0; k <= n; k++) {
+            double probability = choose(n, k) * Math.pow(p, k) * Math.pow(1 - p, n - k);
+            double expected = SAMPLES * probability;
+            double tolerance = 5 * Math.sqrt(SAMPLES * probability * (1 - probability)) + 1;
+            assertEquals("draws of " + k + " successes", expected, counts[k], tolerance);
+        }
+    }
+
+    @Test
+    public void edgeCases() {
+        SplittableRandom random = new SplittableRandom(15L);
+
+        assertEquals(0, BinomialSampler.sample(random, 0, 0.5));
+        assertEquals(0, BinomialSampler.sample(random, -5, 0.5));
+        assertEquals(0, BinomialSampler.sample(random, 100, 0.0));
+        assertEquals(100, BinomialSampler.sample(random, 100, 1.0));
+        for (int i = 0; i < 10_000; i++) {
+            int successes = BinomialSampler.sample(random, 40, 0.8);
+            assertTrue(successes >= 0 && successes <= 40);
+        }
+    }
+
+    @Test
+    public void multinomialFollowsWeights() {
+        SplittableRandom random = new SplittableRandom(16L);
+        double[] weights = {0.1, 0.0, 0.25, 0.05, 0.6};
+        int rolls = 1_000_000;
+
+        int[] counts = BinomialSampler.multinomial(random, rolls, weights);
+
+        assertEquals(rolls, Arrays.stream(counts).sum());
+        assertEquals("zero weight outcomes get no rolls", 0, counts[1]);
+        AliasSamplerTest.assertFollowsWeights(Arrays.asList(0.1, 0.0, 0.25, 0.05, 0.6), counts, rolls);
+    }
+
+    @Test
+    public void multinomialSumsOverManyDraws() {
+        SplittableRandom random = new SplittableRandom(17L);
+        double[] weights = {3.0, 1.0, 0.0, 6.0};
+
+        long[] totals = new long[weights.length];
+        int draws = 20_000;
+        for (int i = 0; i < draws; i++) {
+            int[] counts = BinomialSampler.multinomial(random, 50, weights);
+            assertEquals(50, Arrays.stream(counts).sum());
+            for (int j = 0; j < counts.length; j++) {
+                totals[j] += counts[j];
+            }
+        }
+
+        int[] sums = Arrays.stream(totals).mapToInt(total -> (int) total).toArray();
+        AliasSamplerTest.assertFollowsWeights(Arrays.asList(3.0, 1.0, 0.0, 6.0), sums, draws * 50);
+    }
+
+    @Test
+    public void multinomialWithoutWeightPutsEverythingFirst() {
+        int[] counts = BinomialSampler.multinomial(new SplittableRandom(18L), 25, new double[] {0.0, -1.0, 0.0});
+
+        assertEquals(25, counts[0]);
+        assertEquals(0, counts[1] + counts[2]);
+        assertEquals(0, BinomialSampler.multinomial(new SplittableRandom(18L), 0, new double[] {1.0})[0]);
+    }
+
+    /**
+     * Assert the mean and variance of many draws match the binomial's
+     * @param random The random source
+     * @param n Number of rolls per draw
+     * @param p Chance of each roll
+     */
+    private static void assertMoments(SplittableRandom random, int n, double p) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int successes = BinomialSampler.sample(random, n, p);
+            assertTrue("successes within 0.." + n, successes >= 0 && successes <= n);
+            sum += successes;
+            sumOfSquares += (double) successes * successes;
+        }
+
+        double mean = n * p;
+        double variance = n * p * (1 - p);
+        double sampleMean = sum / SAMPLES;
+        double sampleVariance = sumOfSquares / SAMPLES - sampleMean * sampleMean;
+
+        assertEquals("mean", mean, sampleMean, 5 * Math.sqrt(variance / SAMPLES));
+        // The variance of the sample variance is about 2 sigma^4 / samples for near normal counts
+        assertEquals("variance", variance, sampleVariance, 5 * variance * Math.sqrt(2.0 / SAMPLES) + 0.01 * variance);
+    }
+
+    /**
+     * Binomial coefficient
+     */
+    private static double choose(int n, int k) {
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}